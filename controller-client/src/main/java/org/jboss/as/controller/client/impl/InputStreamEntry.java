@@ -33,6 +33,7 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 
 /**
  * @author Emanuel Muckenhuber
@@ -99,30 +100,63 @@ public interface InputStreamEntry extends Closeable {
     }
 
     /**
-     * Cache the data on disk.
+     * Cache the data on disk. Optionally streams up to a threshold are kept in memory instead, so that small streams
+     * do not need a temp file while the heap used for large ones stays the same however big they are.
      */
     class CachingStreamEntry implements InputStreamEntry {
 
+        /** The threshold below which {@link AbstractModelControllerClient} keeps attached streams in memory */
+        static final int MEMORY_THRESHOLD = 64 * 1024;
+
         private final boolean autoClose;
         private final InputStream original;
+        private final int memoryThreshold;
 
+        private byte[] data;
         private File temp;
 
         public CachingStreamEntry(final InputStream original, final boolean autoClose) {
+            this(original, autoClose, 0);
+        }
+
+        /**
+         * @param original the stream to cache
+         * @param autoClose whether to close the stream once it has been read
+         * @param memoryThreshold streams shorter than this many bytes are kept in memory rather than on disk
+         */
+        public CachingStreamEntry(final InputStream original, final boolean autoClose, final int memoryThreshold) {
             this.original = original;
             this.autoClose = autoClose;
+            this.memoryThreshold = memoryThreshold;
         }
 
         public synchronized int initialize() throws IOException {
+            if (data != null) {
+                return data.length;
+            }
             if(temp == null) {
-                temp = File.createTempFile("client", "stream");
-                final FileOutputStream os = new FileOutputStream(temp);
                 try {
-                    StreamUtils.copyStream(original, os);
-                    os.flush();
-                    os.close();
+                    final byte[] buffer = new byte[memoryThreshold];
+                    int count = 0;
+                    int read;
+                    while (count < buffer.length && (read = original.read(buffer, count, buffer.length - count)) != -1) {
+                        count += read;
+                    }
+                    if (count < buffer.length) {
+                        data = Arrays.copyOf(buffer, count);
+                        return count;
+                    }
+                    temp = File.createTempFile("client", "stream");
+                    final FileOutputStream os = new FileOutputStream(temp);
+                    try {
+                        os.write(buffer, 0, count);
+                        StreamUtils.copyStream(original, os);
+                        os.flush();
+                        os.close();
+                    } finally {
+                        StreamUtils.safeClose(os);
+                    }
                 } finally {
-                    StreamUtils.safeClose(os);
                     if(autoClose) {
                         StreamUtils.safeClose(original);
                     }
@@ -133,6 +167,10 @@ public interface InputStreamEntry extends Closeable {
 
         @Override
         public synchronized void copyStream(final DataOutput output) throws IOException {
+            if (data != null) {
+                output.write(data);
+                return;
+            }
             final FileInputStream is = new FileInputStream(temp);
             try {
                 StreamUtils.copyStream(is, output);
@@ -143,11 +181,14 @@ public interface InputStreamEntry extends Closeable {
 
         @Override
         public synchronized void close() throws IOException {
-            if (!temp.delete()) {
-                ControllerClientLogger.ROOT_LOGGER.cannotDeleteTempFile(temp.getName());
-                temp.deleteOnExit();
+            data = null;
+            if (temp != null) {
+                if (!temp.delete()) {
+                    ControllerClientLogger.ROOT_LOGGER.cannotDeleteTempFile(temp.getName());
+                    temp.deleteOnExit();
+                }
+                temp = null;
             }
-            temp = null;
         }
     }
 
@@ -0,0 +1,98 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.client.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests of {@link InputStreamEntry.CachingStreamEntry}.
+ */
+public class CachingStreamEntryTestCase {
+
+    @Test
+    public void testSmallStream() throws IOException {
+        checkStream(1000);
+    }
+
+    @Test
+    public void testEmptyStream() throws IOException {
+        checkStream(0);
+    }
+
+    @Test
+    public void testLargeStream() throws IOException {
+        checkStream(InputStreamEntry.CachingStreamEntry.MEMORY_THRESHOLD);
+        checkStream(InputStreamEntry.CachingStreamEntry.MEMORY_THRESHOLD * 5 + 17);
+    }
+
+    @Test
+    public void testWithoutMemoryThreshold() throws IOException {
+        checkStream(0, 0);
+        checkStream(1000, 0);
+    }
+
+    @Test
+    public void testAutoClose() throws IOException {
+        final boolean[] closed = new boolean[1];
+        final ByteArrayInputStream stream = new ByteArrayInputStream(new byte[10]) {
+            @Override
+            public void close() throws IOException {
+                closed[0] = true;
+            }
+        };
+        try (InputStreamEntry entry = new InputStreamEntry.CachingStreamEntry(stream, true, InputStreamEntry.CachingStreamEntry.MEMORY_THRESHOLD)) {
+            assertEquals(10, entry.initialize());
+            assertTrue(closed[0]);
+        }
+    }
+
+    private static void checkStream(int size) throws IOException {
+        checkStream(size, InputStreamEntry.CachingStreamEntry.MEMORY_THRESHOLD);
+    }
+
+    private static void checkStream(int size, int memoryThreshold) throws IOException {
+        final byte[] content = new byte[size];
+        new Random(size).nextBytes(content);
+        try (InputStreamEntry entry = new InputStreamEntry.CachingStreamEntry(new ByteArrayInputStream(content), false, memoryThreshold)) {
+            assertEquals(size, entry.initialize());
+            // The content can be requested more than once
+            for (int i = 0; i < 2; i++) {
+                final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                final DataOutputStream output = new DataOutputStream(bytes);
+                entry.copyStream(output);
+                output.flush();
+                assertArrayEquals(content, bytes.toByteArray());
+            }
+        }
+    }
+}
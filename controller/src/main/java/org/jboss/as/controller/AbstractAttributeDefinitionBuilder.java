@@ -446,6 +446,15 @@ public abstract class AbstractAttributeDefinitionBuilder<BUILDER extends Abstrac
         return addFlag(AttributeAccess.Flag.RUNTIME_SERVICE_NOT_REQUIRED);
     }
 
+    /**
+     * Adds the {@link AttributeAccess.Flag#INDEXED} flag.
+     *
+     * @return a builder that can be used to continue building the attribute definition
+     */
+    public BUILDER setIndexed() {
+        return addFlag(AttributeAccess.Flag.INDEXED);
+    }
+
     /**
      * Adds the {@link AttributeAccess.Flag#RESTART_ALL_SERVICES} flag and removes any conflicting flag.
      *
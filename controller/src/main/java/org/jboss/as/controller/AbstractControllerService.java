@@ -493,6 +493,8 @@ public abstract class AbstractControllerService implements Service<ModelControll
             @Override
             public void run() {
                 try {
+                    // Don't lose any configuration changes whose write has been deferred
+                    configurationPersister.flush();
                     stopAsynchronous(context);
                 } finally {
                     try {
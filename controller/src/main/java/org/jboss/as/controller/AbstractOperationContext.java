@@ -731,6 +731,7 @@ abstract class AbstractOperationContext implements OperationContext {
         // time for final processing
 
         Throwable toThrow = null;
+        ConfigurationPersister.PersistenceResource committed = null;
         try {
             // Prepare persistence of any configuration changes
             ConfigurationPersister.PersistenceResource persistenceResource = null;
@@ -772,6 +773,7 @@ abstract class AbstractOperationContext implements OperationContext {
                     persistenceResource.rollback();
                 } else {
                     persistenceResource.commit();
+                    committed = persistenceResource;
                 }
             }
             if (resultAction != ResultAction.ROLLBACK) {
@@ -783,6 +785,10 @@ abstract class AbstractOperationContext implements OperationContext {
         } finally {
             executeResultHandlerPhase(toThrow);
         }
+        if (committed != null) {
+            // The result handler phase released the controller lock, so other operations can commit while we wait
+            committed.awaitCommitted();
+        }
     }
 
     private void executeResultHandlerPhase(Throwable toThrow) {
@@ -0,0 +1,413 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * In-memory index from the values of the attributes flagged as {@link AttributeAccess.Flag#INDEXED indexed} to the
+ * addresses of the resources that have them. This lets operations like {@code query} decide whether a resource
+ * matches without reading the resource.
+ * <p>
+ * The index is built when the first model is published, and from then on is kept up to date as each new model is
+ * published, by re-indexing the subtrees of the addresses the publishing operation touched.
+ * Only attributes that are stored in the configuration and that have no custom read handler are indexed, as only
+ * for those is the value read from the model, or the attribute's default, guaranteed to be the value
+ * {@code read-resource} would return.
+ * <p>
+ * Each version of the index is immutable. A publish copies only the parts of the current version it changes and
+ * then replaces it, so lookups never take a lock and never see a half-updated index.
+ *
+ * @see Snapshot
+ */
+public final class AttributeIndex {
+
+    /**
+     * Key under which a read-only operation's context holds the index {@link Snapshot} for the model version
+     * the operation reads.
+     */
+    public static final OperationContext.AttachmentKey<Snapshot> SNAPSHOT_KEY = OperationContext.AttachmentKey.create(Snapshot.class);
+
+    /** The index of the latest published model; only written by the thread publishing a model */
+    private volatile Index current = Index.EMPTY;
+
+    /**
+     * Updates the index for a newly published model. Must be called with the controller lock held, so models
+     * are published one at a time.
+     *
+     * @param root the root resource of the published model
+     * @param registration the root resource registration of the published model
+     * @param affectedAddresses the addresses of the resources the publishing operation added, removed or modified
+     * @param newVersion the version of the published model
+     */
+    void modelPublished(Resource root, ImmutableManagementResourceRegistration registration,
+                        Set<PathAddress> affectedAddresses, long newVersion) {
+        final Index previous = current;
+        Index updated;
+        try {
+            if (previous.version == -1) {
+                final Update update = new Update(Index.EMPTY);
+                update.index(root, registration, PathAddress.EMPTY_ADDRESS);
+                updated = update.build(newVersion);
+            } else {
+                final Update update = new Update(previous);
+                for (PathAddress affected : affectedAddresses) {
+                    if (hasAffectedParent(affected, affectedAddresses)) {
+                        // re-indexed along with its parent
+                        continue;
+                    }
+                    update.unindex(affected);
+                    final Resource resource = navigate(root, affected);
+                    if (resource != null) {
+                        update.index(resource, registration.getSubModel(affected), affected);
+                    }
+                }
+                updated = update.build(newVersion);
+            }
+        } catch (RuntimeException e) {
+            // Something odd in the model, e.g. a resource without a registration. Rebuild from scratch on the next publish
+            ControllerLogger.MGMT_OP_LOGGER.tracef(e, "Failed to update the attribute index for model version %d", newVersion);
+            updated = Index.EMPTY;
+        }
+        current = updated;
+    }
+
+    /**
+     * Gets a view of the index for a published model version. The view can only answer lookups if the index
+     * was up to date with that version when the view was created.
+     */
+    Snapshot snapshot(long modelVersion) {
+        return new Snapshot(current, modelVersion);
+    }
+
+    /**
+     * Converts a filter value to the given attribute value type, the way the {@code query} operation compares them.
+     *
+     * @throws IllegalArgumentException if the filter value cannot be converted
+     */
+    private static ModelNode convert(ModelNode filterValue, ModelType type) {
+        switch (type) {
+            case BOOLEAN:
+                return new ModelNode(filterValue.asBoolean());
+            case LONG:
+                return new ModelNode(filterValue.asLong());
+            case INT:
+                return new ModelNode(filterValue.asInt());
+            case DOUBLE:
+                return new ModelNode(filterValue.asDouble());
+            default:
+                return filterValue;
+        }
+    }
+
+    private static Resource navigate(Resource root, PathAddress address) {
+        Resource resource = root;
+        for (PathElement element : address) {
+            resource = resource.getChild(element);
+            if (resource == null) {
+                return null;
+            }
+        }
+        return resource;
+    }
+
+    private static boolean hasAffectedParent(PathAddress address, Set<PathAddress> affectedAddresses) {
+        for (PathAddress affected : affectedAddresses) {
+            if (affected.size() < address.size() && isSameOrChild(address, affected)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSameOrChild(PathAddress address, PathAddress parent) {
+        return address.size() >= parent.size() && parent.equals(address.subAddress(0, parent.size()));
+    }
+
+    /**
+     * One immutable version of the index.
+     */
+    private static final class Index {
+
+        static final Index EMPTY = new Index(-1, Collections.emptyMap(), Node.EMPTY);
+
+        /** The model version the index reflects, or {@code -1} if it has not been built */
+        final long version;
+        /** Attribute name -> type of the value -> value -> addresses of the resources with that value */
+        final Map<String, Map<ModelType, Map<ModelNode, Set<PathAddress>>>> addressesByValue;
+        /** The indexed values of each resource, by address; the reverse of {@link #addressesByValue} */
+        final Node root;
+
+        Index(long version, Map<String, Map<ModelType, Map<ModelNode, Set<PathAddress>>>> addressesByValue, Node root) {
+            this.version = version;
+            this.addressesByValue = addressesByValue;
+            this.root = root;
+        }
+    }
+
+    /**
+     * An immutable node of the tree of indexed resources. Subtrees without any indexed values are left out.
+     */
+    private static final class Node {
+
+        static final Node EMPTY = new Node(Collections.emptyMap(), Collections.emptyMap());
+
+        /** Attribute name -> value, for the indexed attributes of the resource */
+        final Map<String, ModelNode> values;
+        final Map<PathElement, Node> children;
+
+        Node(Map<String, ModelNode> values, Map<PathElement, Node> children) {
+            this.values = values;
+            this.children = children;
+        }
+
+        Node navigate(PathAddress address) {
+            Node node = this;
+            for (PathElement element : address) {
+                node = node.children.get(element);
+                if (node == null) {
+                    return null;
+                }
+            }
+            return node;
+        }
+
+        /**
+         * Creates a copy of this node with the node at an address below it replaced. Only the nodes on the path
+         * to that address are copied.
+         *
+         * @param address the address
+         * @param index the position in {@code address} of this node's child on the path
+         * @param replacement the new node, or {@code null} to remove the node
+         * @return the copy, or {@code null} if it would be empty
+         */
+        Node with(PathAddress address, int index, Node replacement) {
+            if (index == address.size()) {
+                return replacement;
+            }
+            final PathElement element = address.getElement(index);
+            final Node child = children.get(element);
+            if (child == null && replacement == null) {
+                return this;
+            }
+            final Node updated = (child == null ? EMPTY : child).with(address, index + 1, replacement);
+            final Map<PathElement, Node> newChildren = new HashMap<>(children);
+            if (updated == null) {
+                newChildren.remove(element);
+            } else {
+                newChildren.put(element, updated);
+            }
+            return values.isEmpty() && newChildren.isEmpty() ? null : new Node(values, newChildren);
+        }
+    }
+
+    /**
+     * Builds a new version of the index from a previous one, copying each of the previous version's maps and sets
+     * at most once, and only if it changes.
+     */
+    private static final class Update {
+
+        private final Map<String, Map<ModelType, Map<ModelNode, Set<PathAddress>>>> addressesByValue;
+        /** The maps and sets created by this update, which unlike those of the previous version may be modified */
+        private final Set<Object> created = Collections.newSetFromMap(new IdentityHashMap<>());
+        private Node root;
+
+        Update(Index previous) {
+            this.addressesByValue = new HashMap<>(previous.addressesByValue);
+            this.root = previous.root;
+        }
+
+        Index build(long version) {
+            return new Index(version, addressesByValue, root);
+        }
+
+        void index(Resource resource, ImmutableManagementResourceRegistration registration, PathAddress address) {
+            final Node node = createNode(resource, registration, address);
+            final Node updated = root.with(address, 0, node);
+            root = updated == null ? Node.EMPTY : updated;
+        }
+
+        void unindex(PathAddress address) {
+            final Node node = root.navigate(address);
+            if (node != null) {
+                unindex(node, address);
+                final Node updated = root.with(address, 0, null);
+                root = updated == null ? Node.EMPTY : updated;
+            }
+        }
+
+        private Node createNode(Resource resource, ImmutableManagementResourceRegistration registration, PathAddress address) {
+            if (registration == null || registration.isRemote() || registration.isRuntimeOnly()
+                    || resource.isProxy() || resource.isRuntime()) {
+                return null;
+            }
+            Map<String, ModelNode> values = Collections.emptyMap();
+            final ModelNode model = resource.getModel();
+            for (String name : registration.getAttributeNames(PathAddress.EMPTY_ADDRESS)) {
+                final AttributeAccess access = registration.getAttributeAccess(PathAddress.EMPTY_ADDRESS, name);
+                if (access != null && access.getFlags().contains(AttributeAccess.Flag.INDEXED)
+                        && access.getStorageType() == AttributeAccess.Storage.CONFIGURATION && access.getReadHandler() == null) {
+                    final ModelNode defaultValue = access.getAttributeDefinition().getDefaultValue();
+                    final ModelNode value;
+                    if (model.hasDefined(name)) {
+                        value = model.get(name).clone();
+                    } else if (defaultValue != null) {
+                        value = defaultValue;
+                    } else {
+                        value = new ModelNode();
+                    }
+                    if (values.isEmpty()) {
+                        values = new HashMap<>();
+                    }
+                    values.put(name, value);
+                    addresses(name, value).add(address);
+                }
+            }
+            Map<PathElement, Node> children = Collections.emptyMap();
+            for (String childType : resource.getChildTypes()) {
+                for (Resource.ResourceEntry child : resource.getChildren(childType)) {
+                    final PathElement element = child.getPathElement();
+                    final Node node = createNode(child, registration.getSubModel(PathAddress.pathAddress(element)), address.append(element));
+                    if (node != null) {
+                        if (children.isEmpty()) {
+                            children = new HashMap<>();
+                        }
+                        children.put(element, node);
+                    }
+                }
+            }
+            return values.isEmpty() && children.isEmpty() ? null : new Node(values, children);
+        }
+
+        private void unindex(Node node, PathAddress address) {
+            for (Map.Entry<String, ModelNode> entry : node.values.entrySet()) {
+                final String name = entry.getKey();
+                final ModelNode value = entry.getValue();
+                final Map<ModelType, Map<ModelNode, Set<PathAddress>>> byType = writable(addressesByValue, name,
+                        () -> new EnumMap<>(ModelType.class), EnumMap::new);
+                final Map<ModelNode, Set<PathAddress>> byValue = writable(byType, value.getType(), HashMap::new, HashMap::new);
+                final Set<PathAddress> addresses = writable(byValue, value, HashSet::new, HashSet::new);
+                addresses.remove(address);
+                if (addresses.isEmpty()) {
+                    byValue.remove(value);
+                    if (byValue.isEmpty()) {
+                        byType.remove(value.getType());
+                        if (byType.isEmpty()) {
+                            addressesByValue.remove(name);
+                        }
+                    }
+                }
+            }
+            for (Map.Entry<PathElement, Node> child : node.children.entrySet()) {
+                unindex(child.getValue(), address.append(child.getKey()));
+            }
+        }
+
+        private Set<PathAddress> addresses(String name, ModelNode value) {
+            final Map<ModelType, Map<ModelNode, Set<PathAddress>>> byType = writable(addressesByValue, name,
+                    () -> new EnumMap<>(ModelType.class), EnumMap::new);
+            final Map<ModelNode, Set<PathAddress>> byValue = writable(byType, value.getType(), HashMap::new, HashMap::new);
+            return writable(byValue, value, HashSet::new, HashSet::new);
+        }
+
+        /**
+         * Gets the value for a key of a map created by this update, replacing it first with a new value or a copy
+         * if it was not created by this update either.
+         */
+        private <K, V> V writable(Map<K, V> map, K key, Supplier<V> factory, Function<V, V> copier) {
+            V value = map.get(key);
+            if (value != null && created.contains(value)) {
+                return value;
+            }
+            value = value == null ? factory.get() : copier.apply(value);
+            created.add(value);
+            map.put(key, value);
+            return value;
+        }
+    }
+
+    /**
+     * A view of the index for the model version a read-only operation reads.
+     */
+    public static final class Snapshot {
+
+        private final Index index;
+        private final long modelVersion;
+
+        private Snapshot(Index index, long modelVersion) {
+            this.index = index;
+            this.modelVersion = modelVersion;
+        }
+
+        /**
+         * Checks whether the value {@code read-resource} would return for an attribute of a resource equals a filter
+         * value, converted to the type of the attribute value, if the attribute is indexed and the index reflects the
+         * model version this snapshot is for.
+         *
+         * @param address the address of the resource
+         * @param attributeName the name of the attribute
+         * @param filterValue the value to compare to
+         * @return whether the attribute value equals the filter value, or {@code null} if the index cannot tell, in
+         *         which case the caller must read the resource
+         */
+        public Boolean matches(PathAddress address, String attributeName, ModelNode filterValue) {
+            if (index.version != modelVersion) {
+                return null;
+            }
+            final Node node = index.root.navigate(address);
+            if (node == null || !node.values.containsKey(attributeName)) {
+                return null;
+            }
+            // The attribute is indexed here, so the resource matches only if it is among the addresses with the value
+            for (Map.Entry<ModelType, Map<ModelNode, Set<PathAddress>>> entry : index.addressesByValue.get(attributeName).entrySet()) {
+                final ModelNode converted;
+                try {
+                    converted = convert(filterValue, entry.getKey());
+                } catch (IllegalArgumentException e) {
+                    // let reading the resource report the failure
+                    return null;
+                }
+                final Set<PathAddress> addresses = entry.getValue().get(converted);
+                if (addresses != null && addresses.contains(address)) {
+                    return Boolean.TRUE;
+                }
+            }
+            return Boolean.FALSE;
+        }
+    }
+}
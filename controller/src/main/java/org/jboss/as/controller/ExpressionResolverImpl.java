@@ -21,13 +21,17 @@
 */
 package org.jboss.as.controller;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.dmr.Property;
 import org.jboss.dmr.ValueExpression;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Basic {@link ExpressionResolver} implementation.
@@ -40,7 +44,11 @@ public class ExpressionResolverImpl implements ExpressionResolver {
     private static final int GOT_DOLLAR = 1;
     private static final int GOT_OPEN_BRACE = 2;
 
+    /** Maximum number of resolved expressions retained by a single resolver */
+    private static final int MAX_CACHED_RESOLUTIONS = 1024;
+
     private final boolean lenient;
+    private final Map<String, CachedResolution> resolutionCache = new ConcurrentHashMap<>();
 
     /**
      * Creates a new {@code ExpressionResolverImpl} configured to throw an OFE
@@ -81,7 +89,7 @@ public class ExpressionResolverImpl implements ExpressionResolver {
         ModelType type = node.getType();
         ModelNode resolved;
         if (type == ModelType.EXPRESSION) {
-            resolved = resolveExpressionStringRecursively(node.asExpression().getExpressionString(), lenient, true);
+            resolved = resolveExpression(node.asExpression().getExpressionString());
         } else if (type == ModelType.OBJECT) {
             resolved = node.clone();
             for (Property prop : resolved.asPropertyList()) {
@@ -105,6 +113,41 @@ public class ExpressionResolverImpl implements ExpressionResolver {
         return resolved;
     }
 
+    /**
+     * Resolves a top level expression string, reusing the result of an earlier resolution of the same string if
+     * nothing it depended upon has changed since.
+     * <p>
+     * Values read from environment variables are fixed for the life of the process, so a result that only depends
+     * on them is always reused. A result that read system properties is reused only while every property it read
+     * still has the value seen when it was resolved, whether the property was changed via a {@code system-property}
+     * resource or directly. Anything handled by {@link #resolvePluggableExpression(ModelNode)} (i.e. a vault) is
+     * resolved every time. Nothing is cached while a security manager is checking, as the permission to read the
+     * underlying properties must be verified for each caller.
+     * </p>
+     */
+    private ModelNode resolveExpression(final String expressionString) throws OperationFailedException {
+        final boolean cacheable = !WildFlySecurityManager.isChecking();
+        if (cacheable) {
+            CachedResolution cached = resolutionCache.get(expressionString);
+            if (cached != null) {
+                if (cached.isCurrent()) {
+                    return new ModelNode(cached.value);
+                }
+                resolutionCache.remove(expressionString, cached);
+            }
+        }
+
+        ResolutionDependencies dependencies = new ResolutionDependencies();
+        ModelNode resolved = resolveExpressionStringRecursively(expressionString, lenient, true, dependencies);
+        if (cacheable && !dependencies.uncacheable && resolved.getType() == ModelType.STRING) {
+            if (resolutionCache.size() >= MAX_CACHED_RESOLUTIONS) {
+                resolutionCache.clear();
+            }
+            resolutionCache.put(expressionString, new CachedResolution(resolved.asString(), dependencies.systemProperties));
+        }
+        return resolved;
+    }
+
     /**
      * Attempt to resolve the expression {@link org.jboss.dmr.ModelNode#asString() encapsulated in the given node},
      * setting the value of {@code node} to the resolved string if successful, or leaving {@code node} unaltered
@@ -131,6 +174,7 @@ public class ExpressionResolverImpl implements ExpressionResolver {
      * @param ignoreDMRResolutionFailure {@code false} if {@link org.jboss.dmr.ModelNode#resolve() basic DMR resolution}
      *                            failures should be ignored, and {@code new ModelNode(expressionType.asString())} returned
      * @param initial {@code true} if this call originated outside this method; {@code false} if it is a recursive call
+     * @param dependencies records the sources the resolution read from
      *
      * @return a node of {@link ModelType#STRING} where the encapsulated string is the resolved expression, or a node
      *         of {@link ModelType#EXPRESSION} if {@code ignoreDMRResolutionFailure} and {@code initial} are
@@ -139,13 +183,13 @@ public class ExpressionResolverImpl implements ExpressionResolver {
      * @throws OperationFailedException if the expression cannot be resolved
      */
     private ModelNode resolveExpressionStringRecursively(final String expressionString, final boolean ignoreDMRResolutionFailure,
-                                                         final boolean initial) throws OperationFailedException {
-        ParseAndResolveResult resolved = parseAndResolve(expressionString, ignoreDMRResolutionFailure);
+                                                         final boolean initial, final ResolutionDependencies dependencies) throws OperationFailedException {
+        ParseAndResolveResult resolved = parseAndResolve(expressionString, ignoreDMRResolutionFailure, dependencies);
         if (resolved.recursive) {
             // Some part of expressionString resolved into a different expression.
             // So, start over, ignoring failures. Ignore failures because we don't require
             // that expressions must not resolve to something that *looks like* an expression but isn't
-            return resolveExpressionStringRecursively(resolved.result, true, false);
+            return resolveExpressionStringRecursively(resolved.result, true, false, dependencies);
         } else if (resolved.modified) {
             // Typical case
             return new ModelNode(resolved.result);
@@ -165,7 +209,8 @@ public class ExpressionResolverImpl implements ExpressionResolver {
         }
     }
 
-    private ParseAndResolveResult parseAndResolve(final String initialValue, boolean lenient) throws OperationFailedException {
+    private ParseAndResolveResult parseAndResolve(final String initialValue, boolean lenient,
+                                                  final ResolutionDependencies dependencies) throws OperationFailedException {
 
 
         final StringBuilder builder = new StringBuilder();
@@ -243,7 +288,7 @@ public class ExpressionResolverImpl implements ExpressionResolver {
                                 continue;
                             }
                             String toResolve = getStringToResolve(initialValue, stack, i);
-                            final String resolved = resolveExpressionString(toResolve); // TODO we could catch OFE here
+                            final String resolved = resolveExpressionString(toResolve, dependencies); // TODO we could catch OFE here
                                                                                         // and if lenient respond with
                                                                                         // the initial value, else rethrow
                                                                                         // But for now it's a corner case
@@ -327,7 +372,7 @@ public class ExpressionResolverImpl implements ExpressionResolver {
     }
 
     /** Resolve the given string using any plugin and the DMR resolve method */
-    private String resolveExpressionString(final String unresolvedString) throws OperationFailedException {
+    private String resolveExpressionString(final String unresolvedString, final ResolutionDependencies dependencies) throws OperationFailedException {
 
         // parseAndResolve should only be providing expressions with no leading or trailing chars
         assert unresolvedString.startsWith("${") && unresolvedString.endsWith("}");
@@ -342,6 +387,7 @@ public class ExpressionResolverImpl implements ExpressionResolver {
 
         if (resolveNode.getType() == ModelType.EXPRESSION ) {
             // resolvePluggableExpression did nothing. Try standard resolution
+            dependencies.recordStandardExpression(unresolvedString);
             String resolvedString = resolveStandardExpression(resolveNode);
             if (!unresolvedString.equals(resolvedString)) {
                 // resolveStandardExpression made progress
@@ -349,6 +395,7 @@ public class ExpressionResolverImpl implements ExpressionResolver {
             } // else there is nothing more we can do with this string
         } else {
             // resolvePluggableExpression made progress
+            dependencies.uncacheable = true;
             result = resolveNode.asString();
         }
 
@@ -471,6 +518,57 @@ public class ExpressionResolverImpl implements ExpressionResolver {
         }
     }
 
+    /** The sources read while resolving a top level expression string. */
+    private static class ResolutionDependencies {
+        /** The system properties read, mapped to their value (possibly {@code null}) before they were read */
+        private final Map<String, String> systemProperties = new HashMap<>();
+        private boolean uncacheable;
+
+        /**
+         * Records the system properties an expression about to be handled by standard resolution may read. This
+         * includes every key that does not name an environment variable, as a later key or the default is only
+         * used while the earlier ones are undefined.
+         */
+        private void recordStandardExpression(String expression) {
+            if (uncacheable) {
+                return;
+            }
+            String body = expression.substring(2, expression.length() - 1);
+            int defaultStart = body.indexOf(':');
+            String keys = defaultStart < 0 ? body : body.substring(0, defaultStart);
+            if (keys.isEmpty() || keys.equals("/")) {
+                // ${:} and ${/} are special cases for the path and file separators; not worth tracking
+                uncacheable = true;
+                return;
+            }
+            for (String key : keys.split(",")) {
+                if (!key.startsWith("env.") && !systemProperties.containsKey(key)) {
+                    systemProperties.put(key, WildFlySecurityManager.getPropertyPrivileged(key, null));
+                }
+            }
+        }
+    }
+
+    private static class CachedResolution {
+        private final String value;
+        private final Map<String, String> systemProperties;
+
+        private CachedResolution(String value, Map<String, String> systemProperties) {
+            this.value = value;
+            this.systemProperties = systemProperties;
+        }
+
+        private boolean isCurrent() {
+            for (Map.Entry<String, String> entry : systemProperties.entrySet()) {
+                String current = WildFlySecurityManager.getPropertyPrivileged(entry.getKey(), null);
+                if (current == null ? entry.getValue() != null : !current.equals(entry.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
     private static class OpenExpression {
         private final int startIndex;
         private int endIndex = -1;
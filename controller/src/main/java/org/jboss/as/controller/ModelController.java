@@ -92,6 +92,40 @@ public interface ModelController {
      */
      NotificationHandlerRegistration getNotificationRegistry();
 
+    /**
+     * Gets the generation of the configuration read by a read operation, which allows a cached result of the
+     * operation to be validated without executing it. The generation changes whenever a change to the management
+     * model is published, and is never repeated by another controller instance, e.g. after a reload. Operations whose
+     * result may depend on anything else, such as runtime attributes, attributes with a custom read handler or the
+     * resources of other processes, have no generation.
+     *
+     * @param operation the operation
+     * @return an opaque identifier of the generation, or {@code null} if the result of the operation cannot be
+     *         validated this way
+     *
+     * @throws SecurityException if the caller does not have {@link #ACCESS_PERMISSION}
+     */
+    default String getConfigurationGeneration(ModelNode operation) {
+        return null;
+    }
+
+    /**
+     * Checks whether a client may be told that the result it cached for a read operation is still current, instead of
+     * executing the operation again. Besides the generation having to be current, the target resource must still
+     * exist and the caller must still be authorized to execute the operation; the check is audit logged as the
+     * operation itself would have been.
+     *
+     * @param operation the operation
+     * @param generation the generation the cached result was read from, as returned by
+     *                   {@link #getConfigurationGeneration(ModelNode)}
+     * @return {@code true} if the cached result may be used, {@code false} if the operation should be executed
+     *
+     * @throws SecurityException if the caller does not have {@link #ACCESS_PERMISSION}
+     */
+    default boolean isCachedReadValid(ModelNode operation, String generation) {
+        return false;
+    }
+
     /**
      * A callback interface for the operation's completion status.  Implemented in order to control whether a complete
      * operation is committed or rolled back after it is prepared.
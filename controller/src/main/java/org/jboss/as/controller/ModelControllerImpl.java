@@ -29,21 +29,31 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATT
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.BLOCKING_TIMEOUT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CANCELLED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CORE_SERVICE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DOMAIN_UUID;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MANAGEMENT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MANAGEMENT_OPERATIONS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MIME_TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROCESS_STATE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROXIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RECURSIVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RECURSIVE_DEPTH;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESOLVE_EXPRESSIONS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESPONSE_HEADERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLBACK_ON_RUNTIME_FAILURE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVICE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.UUID;
 import static org.jboss.as.controller.logging.ControllerLogger.MGMT_OP_LOGGER;
 import static org.jboss.as.controller.logging.ControllerLogger.ROOT_LOGGER;
@@ -60,6 +70,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
@@ -67,6 +78,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
@@ -86,6 +98,7 @@ import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.controller.notification.NotificationSupport;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ConfigurationPersister;
+import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.DelegatingResource;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
@@ -94,6 +107,7 @@ import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.controller.registry.PlaceholderResource;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.controller.registry.Resource.ResourceEntry;
+import org.jboss.as.controller.registry.ResourceWorkingCopy;
 import org.jboss.as.core.security.AccessMechanism;
 import org.jboss.dmr.ModelNode;
 import org.jboss.msc.service.ServiceRegistry;
@@ -101,6 +115,7 @@ import org.jboss.msc.service.ServiceTarget;
 import org.jboss.threads.AsyncFuture;
 import org.jboss.threads.AsyncFutureTask;
 import org.wildfly.security.auth.server.SecurityIdentity;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Default {@link ModelController} implementation.
@@ -111,6 +126,11 @@ class ModelControllerImpl implements ModelController {
 
     private static final String INITIAL_BOOT_OPERATION = "initial-boot-operation";
     private static final String POST_EXTENSION_BOOT_OPERATION = "post-extension-boot-operation";
+    /**
+     * System property that can be set to {@code false} to execute the boot operations of deployments serially,
+     * for configurations where the add operation of one deployment relies on another deployment having been added.
+     */
+    static final String PARALLEL_DEPLOYMENT_BOOT_PROPERTY = "jboss.as.management.parallel-deployment-boot";
     static final ModelNode EMPTY_ADDRESS = new ModelNode().setEmptyList();
 
     static {
@@ -125,6 +145,11 @@ class ModelControllerImpl implements ModelController {
     private final ModelControllerLock controllerLock = new ModelControllerLock();
     private final ContainerStateMonitor stateMonitor;
     private final AtomicReference<ManagementModelImpl> managementModel = new AtomicReference<>();
+    /** Source of the version numbers assigned to each published model */
+    private final AtomicLong modelVersion = new AtomicLong();
+    private final AttributeIndex attributeIndex = new AttributeIndex();
+    /** Distinguishes the configuration generations of this controller from those of earlier or later instances */
+    private final String instanceId = UUID.randomUUID().toString();
     private final ConfigurationPersister persister;
     private final ProcessType processType;
     private final RunningModeControl runningModeControl;
@@ -394,11 +419,15 @@ class ModelControllerImpl implements ModelController {
             responseStreams = null;
             // Create a random operation-id
             final Integer operationID = random.nextInt();
+            final ManagementModelImpl model = getModelForOperation(operation);
             final OperationContextImpl context = new OperationContextImpl(operationID, operation.get(OP).asString(),
                     operation.get(OP_ADDR), this, processType, runningModeControl.getRunningMode(),
-                    contextFlags, handler, attachments, managementModel.get(), originalResultTxControl, processState, auditLogger,
+                    contextFlags, handler, attachments, model, originalResultTxControl, processState, auditLogger,
                     bootingFlag.get(), hostServerGroupTracker, blockingTimeoutConfig, accessContext, notificationSupport,
                     false, extraValidationStepHandler, partialModel, securityIdentitySupplier);
+            if (model.pinned) {
+                context.attach(AttributeIndex.SNAPSHOT_KEY, attributeIndex.snapshot(model.version));
+            }
             // Try again if the operation-id is already taken
             if(activeOperations.putIfAbsent(operationID, context) == null) {
                 //noinspection deprecation
@@ -456,6 +485,32 @@ class ModelControllerImpl implements ModelController {
         }
     }
 
+    /**
+     * Gets the model an operation should execute against. Operations registered as
+     * {@link OperationEntry.Flag#READ_ONLY read-only} get a {@link ManagementModelImpl#snapshot() snapshot} of
+     * the currently published model, so all their steps read a consistent version of the model no matter what
+     * other operations publish in the meantime. Other operations see whatever is current.
+     *
+     * @param operation the operation
+     * @return the model. Will not return {@code null}
+     */
+    private ManagementModelImpl getModelForOperation(final ModelNode operation) {
+        final ManagementModelImpl current = managementModel.get();
+        if (!bootingFlag.get()) {
+            try {
+                final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
+                final OperationEntry entry = current.resourceRegistration.getOperationEntry(address, operation.get(OP).asString());
+                if (entry != null && entry.getFlags().contains(OperationEntry.Flag.READ_ONLY)) {
+                    return current.snapshot();
+                }
+            } catch (RuntimeException e) {
+                // Invalid address or the like. Let the op execution deal with it
+                ControllerLogger.MGMT_OP_LOGGER.tracef(e, "Cannot determine whether %s is read-only", operation);
+            }
+        }
+        return current;
+    }
+
     private static OperationResponse handleExternalRequestDuringBoot() {
         ModelNode result = new ModelNode();
         result.get(OUTCOME).set(FAILED);
@@ -581,6 +636,11 @@ class ModelControllerImpl implements ModelController {
      *     <li>If an executor service is available and the controller type is SERVER, organizes all subsystem ops so
      *     they can be done in parallel by the executor service.
      *     </li>
+     *     <li>Likewise organizes each uninterrupted sequence of deployment add ops so they can be done in parallel,
+     *     unless disabled via the {@link #PARALLEL_DEPLOYMENT_BOOT_PROPERTY} system property. The ops of other
+     *     top level resources such as paths, system properties, interfaces and socket bindings are cheap and are
+     *     relied upon by later ops, so they are left to execute serially.
+     *     </li>
      * </ol>
      *
      *
@@ -599,12 +659,33 @@ class ModelControllerImpl implements ModelController {
         final MutableRootResourceRegistrationProvider parallellBRRRProvider = parallelBootRootResourceRegistrationProvider != null ?
                 parallelBootRootResourceRegistrationProvider : getMutableRootResourceRegistrationProvider();
         ParallelExtensionAddHandler parallelExtensionAddHandler = executorService == null ? null : new ParallelExtensionAddHandler(executorService, parallellBRRRProvider);
-        ParallelBootOperationStepHandler parallelSubsystemHandler = (executorService != null && processType.isServer() && runningModeControl.getRunningMode() == RunningMode.NORMAL)
+        final boolean parallelBoot = executorService != null && processType.isServer() && runningModeControl.getRunningMode() == RunningMode.NORMAL;
+        ParallelBootOperationStepHandler parallelSubsystemHandler = parallelBoot
                 ? new ParallelBootOperationStepHandler(executorService, rootRegistration, processState, this, lockPermit, extraValidationStepHandler) : null;
+        final boolean parallelDeploymentBoot = parallelBoot
+                && Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(PARALLEL_DEPLOYMENT_BOOT_PROPERTY, "true"));
+        // Handler for the current run of consecutive deployment add ops; any other op ends the run
+        ParallelBootOperationStepHandler parallelDeploymentHandler = null;
         boolean registeredParallelSubsystemHandler = false;
         int subsystemIndex = 0;
         for (ModelNode bootOp : bootList) {
             final ParsedBootOp parsedOp = new ParsedBootOp(bootOp);
+            if (sawExtensionAdd && parallelDeploymentBoot) {
+                if (parsedOp.isDeploymentAdd()) {
+                    if (parallelDeploymentHandler == null) {
+                        parallelDeploymentHandler = new ParallelBootOperationStepHandler(executorService, rootRegistration,
+                                processState, this, lockPermit, extraValidationStepHandler, DEPLOYMENT);
+                        if (postExtensionOps == null) {
+                            // Start the postExtension list
+                            postExtensionOps = new ArrayList<ParsedBootOp>(32);
+                        }
+                        postExtensionOps.add(parallelDeploymentHandler.getParsedBootOp());
+                    }
+                    parallelDeploymentHandler.addSubsystemOperation(parsedOp);
+                    continue;
+                }
+                parallelDeploymentHandler = null;
+            }
             if (postExtensionOps != null) {
                 // Handle cases like AppClient where extension adds are interleaved with subsystem ops
                 if (parsedOp.isExtensionAdd()) {
@@ -836,6 +917,7 @@ class ModelControllerImpl implements ModelController {
                     hostServerGroupTracker.invalidate();
                 }
                 model.publish();
+                attributeIndex.modelPublished(model.rootResource, model.resourceRegistration, affectedAddresses, model.version);
                 delegate.commit();
             }
 
@@ -844,6 +926,11 @@ class ModelControllerImpl implements ModelController {
                 model.discard();
                 delegate.rollback();
             }
+
+            @Override
+            public void awaitCommitted() {
+                delegate.awaitCommitted();
+            }
         };
     }
 
@@ -960,6 +1047,96 @@ class ModelControllerImpl implements ModelController {
         return serviceTarget;
     }
 
+    @Override
+    public String getConfigurationGeneration(final ModelNode operation) {
+        SecurityManager sm = System.getSecurityManager();
+        if (sm != null) {
+            sm.checkPermission(ModelController.ACCESS_PERMISSION);
+        }
+        final ManagementModelImpl model = managementModel.get();
+        if (bootingFlag.get() || model == null || model.version == 0) {
+            return null;
+        }
+        try {
+            final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
+            if (!processType.isServer() && (address.size() == 0 || HOST.equals(address.getElement(0).getKey()))) {
+                // The root and host resources of a host controller include resources of other processes
+                return null;
+            }
+            final ImmutableManagementResourceRegistration registration = model.resourceRegistration.getSubModel(address);
+            if (registration == null || registration.isRemote() || registration.isRuntimeOnly()
+                    || operation.get(RESOLVE_EXPRESSIONS).asBoolean(false)) {
+                return null;
+            }
+            final String name = operation.get(OP).asString();
+            if (READ_RESOURCE_OPERATION.equals(name)) {
+                if (operation.get(INCLUDE_RUNTIME).asBoolean(false) || operation.get(PROXIES).asBoolean(false)) {
+                    return null;
+                }
+                final boolean recursive = operation.get(RECURSIVE).asBoolean(false) || operation.get(RECURSIVE_DEPTH).asInt(0) > 0;
+                if (!isReadFromModel(registration, recursive)) {
+                    return null;
+                }
+            } else if (READ_ATTRIBUTE_OPERATION.equals(name)) {
+                if (!isReadFromModel(registration.getAttributeAccess(PathAddress.EMPTY_ADDRESS, operation.get(NAME).asString()))) {
+                    return null;
+                }
+            } else {
+                return null;
+            }
+        } catch (RuntimeException e) {
+            // Invalid address or the like. Executing the op will deal with it
+            return null;
+        }
+        return instanceId + '-' + Long.toHexString(model.version);
+    }
+
+    @Override
+    public boolean isCachedReadValid(final ModelNode operation, final String generation) {
+        if (generation == null || !generation.equals(getConfigurationGeneration(operation))) {
+            return false;
+        }
+        // Run the checks the operation itself would be subject to through a regular operation context, so the caller
+        // is authorized and the check is audit logged the same way, but without producing the result
+        final SecurityIdentity securityIdentity = securityIdentitySupplier.get();
+        final OperationResponse response = securityIdentity.runAs((PrivilegedAction<OperationResponse>) () -> internalExecute(operation,
+                OperationMessageHandler.DISCARD, null, null, CachedReadValidationStepHandler.INSTANCE, false, partialModelIndicator.isModelPartial()));
+        try {
+            response.close();
+        } catch (IOException e) {
+            ROOT_LOGGER.debugf(e, "Caught exception closing response to %s", operation);
+        }
+        return SUCCESS.equals(response.getResponseNode().get(OUTCOME).asString());
+    }
+
+    /**
+     * Whether {@code read-resource} reads all the attributes of the given registration, and if recursive of its
+     * non-runtime children, from the model rather than through custom read handlers.
+     */
+    private static boolean isReadFromModel(final ImmutableManagementResourceRegistration registration, final boolean recursive) {
+        for (String attribute : registration.getAttributeNames(PathAddress.EMPTY_ADDRESS)) {
+            final AttributeAccess access = registration.getAttributeAccess(PathAddress.EMPTY_ADDRESS, attribute);
+            // Runtime attributes are left out of a read-resource that does not include runtime
+            if (access != null && access.getStorageType() == AttributeAccess.Storage.CONFIGURATION && access.getReadHandler() != null) {
+                return false;
+            }
+        }
+        if (recursive) {
+            for (PathElement element : registration.getChildAddresses(PathAddress.EMPTY_ADDRESS)) {
+                final ImmutableManagementResourceRegistration child = registration.getSubModel(PathAddress.pathAddress(element));
+                if (child != null && !child.isRemote() && !child.isRuntimeOnly() && !child.isAlias()
+                        && !isReadFromModel(child, true)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isReadFromModel(final AttributeAccess access) {
+        return access != null && access.getStorageType() == AttributeAccess.Storage.CONFIGURATION && access.getReadHandler() == null;
+    }
+
     @Override
     public NotificationHandlerRegistration getNotificationRegistry() {
         return notificationSupport.getNotificationRegistry();
@@ -1009,6 +1186,26 @@ class ModelControllerImpl implements ModelController {
         return modelControllerResourceAddress;
     }
 
+    /**
+     * Stands in for the handler of a read operation whose cached result is being validated: fails like the read would
+     * if the target resource is gone or the caller is not authorized to execute it.
+     */
+    private static class CachedReadValidationStepHandler implements OperationStepHandler {
+
+        private static final CachedReadValidationStepHandler INSTANCE = new CachedReadValidationStepHandler();
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final ModelNode model = context.readResource(PathAddress.EMPTY_ADDRESS, false).getModel();
+            if (READ_ATTRIBUTE_OPERATION.equals(operation.get(OP).asString())) {
+                final String attribute = operation.get(NAME).asString();
+                context.authorize(operation, attribute, model.get(attribute)).failIfDenied(operation);
+            } else {
+                context.authorize(operation).failIfDenied(operation);
+            }
+        }
+    }
+
     private class DefaultPrepareStepHandler implements OperationStepHandler {
 
         @Override
@@ -1173,15 +1370,28 @@ class ModelControllerImpl implements ModelController {
         // The capability registry
         private final CapabilityRegistry capabilityRegistry;
 
+        // Whether we are a snapshot that keeps exposing our root Resource after other models are published
+        private final boolean pinned;
+
         private volatile boolean published;
+        // The version of the model; set when published
+        private volatile long version;
 
         ManagementModelImpl(final ManagementResourceRegistration resourceRegistration,
                             final Resource rootResource,
                             final CapabilityRegistry capabilityRegistry) {
+            this(resourceRegistration, rootResource, capabilityRegistry, false);
+        }
+
+        private ManagementModelImpl(final ManagementResourceRegistration resourceRegistration,
+                            final Resource rootResource,
+                            final CapabilityRegistry capabilityRegistry,
+                            final boolean pinned) {
             this.resourceRegistration = resourceRegistration;
             this.rootResource = rootResource;
             assert capabilityRegistry != null;
             this.capabilityRegistry = capabilityRegistry;
+            this.pinned = pinned;
             // What we expose depends on the state of our 'published' field. If 'true' we've been published
             // to the ModelController, and from then on callers should get whatever the MC has as current.
             // If 'false' we haven't been published; we are a local copy created by some OperationContext,
@@ -1205,7 +1415,7 @@ class ModelControllerImpl implements ModelController {
                 @Override
                 public Resource getDelegateResource() {
                     Resource result;
-                    if (published) {
+                    if (published && !pinned) {
                         result = ModelControllerImpl.this.managementModel.get().rootResource;
                     } else {
                         result = rootResource;
@@ -1262,6 +1472,23 @@ class ModelControllerImpl implements ModelController {
         }
         */
 
+        /**
+         * Creates a read-only view of this published model that keeps exposing this model's root {@link Resource}
+         * even after other models are published. The published tree is never modified, so reading it requires
+         * no locking. Any attempt to {@link #cloneRootResource() update} the snapshot works from the latest
+         * published model, just as it would for this model.
+         *
+         * @return the snapshot. Will not return {@code null}
+         */
+        ManagementModelImpl snapshot() {
+            assert published;
+            ManagementModelImpl result = new ManagementModelImpl(resourceRegistration, rootResource, capabilityRegistry, true);
+            result.version = version;
+            result.published = true;
+            ControllerLogger.MGMT_OP_LOGGER.tracef("pinned version %d of %s as %s", version, this, result);
+            return result;
+        }
+
         /**
          * Creates a new {@code ManagementModelImpl} that uses a clone of this one's root {@link Resource}.
          * The caller can safely modify that {@code Resource} without changes being exposed
@@ -1288,7 +1515,8 @@ class ModelControllerImpl implements ModelController {
                 currentResource = rootResource;
                 currentCaps = capabilityRegistry;
             }
-            Resource clone = currentResource.clone();
+            // A published tree is no longer modified, so the copy can share whatever subtrees it doesn't touch
+            Resource clone = published ? ResourceWorkingCopy.create(currentResource) : currentResource.clone();
             ManagementModelImpl result = new ManagementModelImpl(mrr, clone, currentCaps);
             ControllerLogger.MGMT_OP_LOGGER.tracef("cloned to %s to create %s and %s", currentResource, clone, result);
             return result;
@@ -1313,6 +1541,8 @@ class ModelControllerImpl implements ModelController {
             }
         }
         private void publish() {
+            ResourceWorkingCopy.publish(rootResource);
+            version = modelVersion.incrementAndGet();
             ModelControllerImpl.this.managementModel.set(this);
             published = true;
             ControllerLogger.MGMT_OP_LOGGER.tracef("published %s", this);
@@ -43,7 +43,8 @@ import org.wildfly.security.auth.server.SecurityDomain;
 import org.wildfly.security.auth.server.SecurityRealm;
 
 /**
- * Special handler that executes subsystem boot operations in parallel.
+ * Special handler that executes boot operations for top level resources of a given type in parallel, with the
+ * operations for each resource (e.g. each subsystem or each deployment) executing in their own thread.
  *
  * @author Brian Stansberry (c) 2011 Red Hat Inc.
  */
@@ -56,6 +57,7 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
 
     private final ModelControllerImpl controller;
     private final int operationId;
+    private final String resourceType;
 
     private final Map<String, List<ParsedBootOp>> opsBySubsystem = new LinkedHashMap<String, List<ParsedBootOp>>();
     private ParsedBootOp ourOp;
@@ -63,6 +65,20 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
     ParallelBootOperationStepHandler(final ExecutorService executorService, final ImmutableManagementResourceRegistration rootRegistration,
                                      final ControlledProcessState processState, final ModelControllerImpl controller,
                                      final int operationId, final OperationStepHandler extraValidationStepHandler) {
+        this(executorService, rootRegistration, processState, controller, operationId, extraValidationStepHandler,
+                ModelDescriptionConstants.SUBSYSTEM);
+    }
+
+    /**
+     * Creates a handler for the boot operations of top level resources of the given type.
+     *
+     * @param resourceType the key of the first element of the address of the operations to execute in parallel
+     */
+    ParallelBootOperationStepHandler(final ExecutorService executorService, final ImmutableManagementResourceRegistration rootRegistration,
+                                     final ControlledProcessState processState, final ModelControllerImpl controller,
+                                     final int operationId, final OperationStepHandler extraValidationStepHandler,
+                                     final String resourceType) {
+        this.resourceType = resourceType;
         this.executor = executorService;
         this.rootRegistration = rootRegistration;
         this.processState = processState;
@@ -73,7 +89,7 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
     }
 
     boolean addSubsystemOperation(final ParsedBootOp parsedOp) {
-        final String subsystemName = getSubsystemName(parsedOp.address);
+        final String subsystemName = getResourceName(parsedOp.address);
         if (subsystemName != null) {
             List<ParsedBootOp> list = opsBySubsystem.get(subsystemName);
             if (list == null) {
@@ -88,15 +104,15 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
 
     ParsedBootOp getParsedBootOp() {
         if (ourOp == null) {
-            ModelNode op = Util.getEmptyOperation("parallel-subsystem-boot", new ModelNode().setEmptyList());
+            ModelNode op = Util.getEmptyOperation("parallel-" + resourceType + "-boot", new ModelNode().setEmptyList());
             ourOp = new ParsedBootOp(op, this);
         }
         return ourOp;
     }
 
-    private String getSubsystemName(final PathAddress address) {
+    private String getResourceName(final PathAddress address) {
         String key = null;
-        if (address.size() > 0 && ModelDescriptionConstants.SUBSYSTEM.equals(address.getElement(0).getKey())) {
+        if (address.size() > 0 && resourceType.equals(address.getElement(0).getKey())) {
             key = address.getElement(0).getValue();
         }
         return key;
@@ -150,7 +166,7 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
             checkForSubsystemFailures(context, transactionControls, OperationContext.Stage.MODEL);
 
             // Add any logging subsystem steps so we get logging early in the boot
-            List<ParsedBootOp> loggingOps = runtimeOpsBySubsystem.remove("logging");
+            List<ParsedBootOp> loggingOps = isSubsystemBoot() ? runtimeOpsBySubsystem.remove("logging") : null;
             if (loggingOps != null) {
                 for (ParsedBootOp loggingOp : loggingOps) {
                     context.addStep(loggingOp.response, loggingOp.operation, loggingOp.handler, OperationContext.Stage.RUNTIME);
@@ -158,30 +174,30 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
             }
 
             // AS7-2561
-            // The parallel execution will have added the subsystems to their parent resource in random order.
+            // The parallel execution will have added the resources to their parent resource in random order.
             // We need to restore the order that came in the XML.
             final Map<String, Resource> subsystemResources = new LinkedHashMap<String, Resource>();
             for (String subsystemName : opsBySubsystem.keySet()) {
-                final Resource resource = rootResource.removeChild(PathElement.pathElement(ModelDescriptionConstants.SUBSYSTEM, subsystemName));
+                final Resource resource = rootResource.removeChild(PathElement.pathElement(resourceType, subsystemName));
                 if (resource != null) {
                     subsystemResources.put(subsystemName, resource);
                 }
             }
             for (Map.Entry<String, Resource> entry : subsystemResources.entrySet()) {
-                rootResource.registerChild(PathElement.pathElement(ModelDescriptionConstants.SUBSYSTEM, entry.getKey()), entry.getValue());
+                rootResource.registerChild(PathElement.pathElement(resourceType, entry.getKey()), entry.getValue());
             }
 
             // Add step to execute all the runtime ops recorded by the other subsystem tasks
             context.addStep(getRuntimeStep(runtimeOpsBySubsystem), OperationContext.Stage.RUNTIME);
 
         } catch (InterruptedException e) {
-            context.getFailureDescription().set(new ModelNode().set(ControllerLogger.ROOT_LOGGER.subsystemBootInterrupted()));
+            context.getFailureDescription().set(new ModelNode().set(bootInterrupted()));
             Thread.currentThread().interrupt();
         }
 
         if (MGMT_OP_LOGGER.isDebugEnabled()) {
             long elapsed = System.currentTimeMillis() - start;
-            MGMT_OP_LOGGER.debugf("Ran subsystem model operations in [%d] ms", elapsed);
+            MGMT_OP_LOGGER.debugf("Ran %s model operations in [%d] ms", resourceType, elapsed);
         }
 
         // Continue boot
@@ -213,7 +229,9 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
                 if (txControl.response.getResponseNode().hasDefined(ModelDescriptionConstants.FAILURE_DESCRIPTION)) {
                     failureDesc = txControl.response.getResponseNode().get(ModelDescriptionConstants.FAILURE_DESCRIPTION).toString();
                 } else {
-                    failureDesc = ControllerLogger.ROOT_LOGGER.subsystemBootOperationFailed(entry.getKey());
+                    failureDesc = isSubsystemBoot()
+                            ? ControllerLogger.ROOT_LOGGER.subsystemBootOperationFailed(entry.getKey())
+                            : ControllerLogger.ROOT_LOGGER.parallelBootOperationFailed(resourceType, entry.getKey());
                 }
                 MGMT_OP_LOGGER.error(failureDesc);
                 if (!failureRecorded) {
@@ -224,7 +242,7 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
                     context.setRollbackOnly();
                 }
             } else {
-                MGMT_OP_LOGGER.debugf("Stage %s boot ops for subsystem %s succeeded", stage, entry.getKey());
+                MGMT_OP_LOGGER.debugf("Stage %s boot ops for %s %s succeeded", stage, resourceType, entry.getKey());
             }
         }
     }
@@ -238,16 +256,25 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
             if (txControl.transaction != null) {
                 if (!rollback) {
                     txControl.transaction.commit();
-                    MGMT_OP_LOGGER.debugf("Committed transaction for %s subsystem %s stage boot operations", entry.getKey(), stage);
+                    MGMT_OP_LOGGER.debugf("Committed transaction for %s %s %s stage boot operations", entry.getKey(), resourceType, stage);
                 } else {
                     txControl.transaction.rollback();
-                    MGMT_OP_LOGGER.debugf("Rolled back transaction for %s subsystem %s stage boot operations", entry.getKey(), stage);
+                    MGMT_OP_LOGGER.debugf("Rolled back transaction for %s %s %s stage boot operations", entry.getKey(), resourceType, stage);
                 }
             }
         }
         committedLatch.countDown();
     }
 
+    private boolean isSubsystemBoot() {
+        return ModelDescriptionConstants.SUBSYSTEM.equals(resourceType);
+    }
+
+    private String bootInterrupted() {
+        return isSubsystemBoot() ? ControllerLogger.ROOT_LOGGER.subsystemBootInterrupted()
+                : ControllerLogger.ROOT_LOGGER.parallelBootInterrupted(resourceType);
+    }
+
     private OperationStepHandler getRuntimeStep(final Map<String, List<ParsedBootOp>> runtimeOpsBySubsystem) {
 
         return new OperationStepHandler() {
@@ -288,13 +315,13 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
                     checkForSubsystemFailures(context, transactionControls, OperationContext.Stage.RUNTIME);
 
                 } catch (InterruptedException e) {
-                    context.getFailureDescription().set(new ModelNode().set(ControllerLogger.ROOT_LOGGER.subsystemBootInterrupted()));
+                    context.getFailureDescription().set(new ModelNode().set(bootInterrupted()));
                     Thread.currentThread().interrupt();
                 }
 
                 if (MGMT_OP_LOGGER.isDebugEnabled()) {
                     long elapsed = System.currentTimeMillis() - start;
-                    MGMT_OP_LOGGER.debugf("Ran subsystem runtime operations in [%d] ms", elapsed);
+                    MGMT_OP_LOGGER.debugf("Ran %s runtime operations in [%d] ms", resourceType, elapsed);
                 }
 
 
@@ -381,7 +408,11 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
                 operationContext.executeOperation();
             } catch (Throwable t) {
                 interrupted = (t instanceof InterruptedException);
-                MGMT_OP_LOGGER.failedSubsystemBootOperations(t, subsystemName);
+                if (isSubsystemBoot()) {
+                    MGMT_OP_LOGGER.failedSubsystemBootOperations(t, subsystemName);
+                } else {
+                    MGMT_OP_LOGGER.failedParallelBootOperations(t, resourceType, subsystemName);
+                }
                 if (!transactionControl.signalled) {
                     ModelNode failure = new ModelNode();
                     failure.get(ModelDescriptionConstants.SUCCESS).set(false);
@@ -400,7 +431,9 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
                     if (!transactionControl.signalled) {
                         ModelNode failure = new ModelNode();
                         failure.get(ModelDescriptionConstants.SUCCESS).set(false);
-                        failure.get(ModelDescriptionConstants.FAILURE_DESCRIPTION).set(ControllerLogger.ROOT_LOGGER.subsystemBootOperationFailedExecuting(subsystemName));
+                        failure.get(ModelDescriptionConstants.FAILURE_DESCRIPTION).set(isSubsystemBoot()
+                                ? ControllerLogger.ROOT_LOGGER.subsystemBootOperationFailedExecuting(subsystemName)
+                                : ControllerLogger.ROOT_LOGGER.parallelBootOperationFailedExecuting(resourceType, subsystemName));
                         transactionControl.operationFailed(failure);
                     }
                 } else {
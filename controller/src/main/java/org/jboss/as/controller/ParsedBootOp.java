@@ -23,6 +23,7 @@
 package org.jboss.as.controller;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INTERFACE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
@@ -85,6 +86,11 @@ public class ParsedBootOp {
                     && operationName.equals(ADD);
     }
 
+    boolean isDeploymentAdd() {
+        return address.size() == 1 && address.getElement(0).getKey().equals(DEPLOYMENT)
+                    && operationName.equals(ADD);
+    }
+
     boolean isInterfaceOperation() {
         return address.size() > 0 && address.getElement(0).getKey().equals(INTERFACE);
     }
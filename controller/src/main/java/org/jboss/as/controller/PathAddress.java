@@ -27,12 +27,10 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SER
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
-import java.util.Set;
 
 import org.jboss.as.controller._private.OperationFailedRuntimeException;
 import org.jboss.as.controller.logging.ControllerLogger;
@@ -67,43 +65,26 @@ public class PathAddress implements Iterable<PathElement> {
 //            final List<Property> props = node.asPropertyList();
             // Following bit is crap TODO; uncomment above and delete below
             // when bug is fixed
-            final List<Property> props = new ArrayList<Property>();
+            final List<ModelNode> nodes = node.asList();
+            final List<PathElement> values = new ArrayList<PathElement>(nodes.size());
             String key = null;
-            for (ModelNode element : node.asList()) {
-                Property prop = null;
+            for (ModelNode element : nodes) {
                 if (element.getType() == ModelType.PROPERTY || element.getType() == ModelType.OBJECT) {
-                    prop = element.asProperty();
+                    final Property prop = element.asProperty();
+                    values.add(PathElement.intern(prop.getName(), prop.getValue().asString()));
+                    key = null;
                 } else if (key == null) {
                     key = element.asString();
                 } else {
-                    prop = new Property(key, element);
-                }
-                if (prop != null) {
-                    props.add(prop);
+                    values.add(PathElement.intern(key, element.asString()));
                     key = null;
                 }
-
             }
-            if (props.size() == 0) {
+            if (values.size() == 0) {
                 return EMPTY_ADDRESS;
-            } else {
-                final Set<String> seen = new HashSet<String>();
-                final List<PathElement> values = new ArrayList<PathElement>();
-                int index = 0;
-                for (final Property prop : props) {
-                    final String name = prop.getName();
-                    if (seen.add(name)) {
-                        values.add(new PathElement(name, prop.getValue().asString()));
-                    } else {
-                        throw duplicateElement(name);
-                    }
-                    if (index == 1 && name.equals(SERVER) && seen.contains(HOST)) {
-                        seen.clear();
-                    }
-                    index++;
-                }
-                return new PathAddress(Collections.unmodifiableList(values));
             }
+            checkForDuplicates(values);
+            return new PathAddress(Collections.unmodifiableList(values));
         } else {
             return EMPTY_ADDRESS;
         }
@@ -113,23 +94,29 @@ public class PathAddress implements Iterable<PathElement> {
         if (elements.size() == 0) {
             return EMPTY_ADDRESS;
         }
-        final ArrayList<PathElement> newList = new ArrayList<PathElement>(elements.size());
-        final Set<String> seen = new HashSet<String>();
-        int index = 0;
-        for (PathElement element : elements) {
-            final String name = element.getKey();
-            if (seen.add(name)) {
-                newList.add(element);
-            } else {
-                throw duplicateElement(name);
+        final ArrayList<PathElement> newList = new ArrayList<PathElement>(elements);
+        checkForDuplicates(newList);
+        return new PathAddress(Collections.unmodifiableList(newList));
+    }
+
+    /**
+     * Checks no key appears twice in an address, except that the elements following a {@code host=x/server=y}
+     * prefix form an address of their own. Addresses are short, so comparing each key to the preceding ones
+     * is cheaper than collecting them in a set.
+     */
+    private static void checkForDuplicates(final List<PathElement> elements) {
+        int from = 0;
+        for (int i = 0; i < elements.size(); i++) {
+            final String name = elements.get(i).getKey();
+            for (int j = from; j < i; j++) {
+                if (elements.get(j).getKey().equals(name)) {
+                    throw duplicateElement(name);
+                }
             }
-            if (index == 1 && name.equals(SERVER) && seen.contains(HOST)) {
-                seen.clear();
+            if (i == 1 && name.equals(SERVER) && elements.get(0).getKey().equals(HOST)) {
+                from = 2;
             }
-            index++;
-
         }
-        return new PathAddress(Collections.unmodifiableList(newList));
     }
 
     public static PathAddress pathAddress(PathElement... elements) {
@@ -216,6 +203,9 @@ public class PathAddress implements Iterable<PathElement> {
 
     private final List<PathElement> pathAddressList;
 
+    /** Lazily computed hash code; addresses are often used as map keys */
+    private int hashCode;
+
     PathAddress(final List<PathElement> pathAddressList) {
         Assert.assertNotNull(pathAddressList);
         this.pathAddressList = pathAddressList;
@@ -410,7 +400,12 @@ public class PathAddress implements Iterable<PathElement> {
 
     @Override
     public int hashCode() {
-        return pathAddressList.hashCode();
+        int result = hashCode;
+        if (result == 0) {
+            result = pathAddressList.hashCode();
+            hashCode = result;
+        }
+        return result;
     }
 
     /**
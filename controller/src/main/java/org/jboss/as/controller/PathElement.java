@@ -22,6 +22,9 @@
 
 package org.jboss.as.controller;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.Property;
@@ -35,6 +38,11 @@ public class PathElement {
 
     public static final String WILDCARD_VALUE = "*";
 
+    /** Upper bounds on the number of distinct keys, and of values per key, kept by {@link #intern(String, String)} */
+    private static final int MAX_INTERNED_KEYS = 256;
+    private static final int MAX_INTERNED_VALUES = 64;
+    private static final ConcurrentMap<String, ConcurrentMap<String, PathElement>> INTERNED = new ConcurrentHashMap<>();
+
     private final String key;
     private final String value;
     private final boolean multiTarget;
@@ -59,6 +67,48 @@ public class PathElement {
         return new PathElement(key, value);
     }
 
+    /**
+     * Returns a shared instance for the given key and value, creating it if needed. Addresses parsed from
+     * operations repeat the same few elements over and over, so sharing them avoids re-validating the key and
+     * lets {@link #equals(PathElement)} succeed on identity. The cache is bounded; once it is full, new
+     * elements are created without being cached.
+     *
+     * @param key the path key to match
+     * @param value the path value or wildcard to match
+     * @return the path element
+     */
+    static PathElement intern(final String key, final String value) {
+        if (key == null || value == null) {
+            // let the constructor report the problem
+            return new PathElement(key, value);
+        }
+        ConcurrentMap<String, PathElement> values = INTERNED.get(key);
+        if (values == null) {
+            if (INTERNED.size() >= MAX_INTERNED_KEYS) {
+                return new PathElement(key, value);
+            }
+            final PathElement element = new PathElement(key, value);
+            values = new ConcurrentHashMap<>();
+            final ConcurrentMap<String, PathElement> existing = INTERNED.putIfAbsent(key, values);
+            if (existing != null) {
+                values = existing;
+            }
+            final PathElement previous = values.putIfAbsent(value, element);
+            return previous == null ? element : previous;
+        }
+        PathElement element = values.get(value);
+        if (element == null) {
+            element = new PathElement(key, value);
+            if (values.size() < MAX_INTERNED_VALUES) {
+                final PathElement previous = values.putIfAbsent(value, element);
+                if (previous != null) {
+                    element = previous;
+                }
+            }
+        }
+        return element;
+    }
+
     /**
      * Construct a new instance with a wildcard value.
      * @param key the path key to match
@@ -340,6 +340,7 @@ public class ModelDescriptionConstants {
     public static final String PERMISSION_COMBINATION_POLICY = "permission-combination-policy";
     public static final String PATTERN = "pattern";
     public static final String PERSISTENT = "persistent";
+    public static final String PHASE_PROCESSING_TIMES = "phase-processing-times";
     public static final String PLAIN_TEXT = "plain-text";
     public static final String PLATFORM_MBEAN = "platform-mbean";
     public static final String PORT = "port";
@@ -3487,6 +3487,27 @@ public interface ControllerLogger extends BasicLogger {
     @Message(id = 435, value = "Attribute %s of resource %s was not marked as reload required, either set the RESTART_ALL_SERVICES flag, or register a custom write handler.")
     RuntimeException attributeWasNotMarkedAsReloadRequired(String name, PathAddress pathAddress);
 
+    /**
+     * Logs an error message indicating a failure executing the boot operations for a top level resource that
+     * were executed in parallel with those of other resources of the same type.
+     *
+     * @param cause the cause of the error.
+     * @param type  the type of the resource.
+     * @param name  the name of the resource.
+     */
+    @LogMessage(level = ERROR)
+    @Message(id = 436, value = "Failed executing %s %s boot operations")
+    void failedParallelBootOperations(@Cause Throwable cause, String type, String name);
+
+    @Message(id = 437, value = "Interrupted awaiting %s boot operation execution")
+    String parallelBootInterrupted(String type);
+
+    @Message(id = 438, value = "Boot operations for %s %s failed without explanation")
+    String parallelBootOperationFailed(String type, String name);
+
+    @Message(id = 439, value = "Failed executing %s %s boot operations")
+    String parallelBootOperationFailedExecuting(String type, String name);
+
     @Message(id = NONE, value = "Couldn't convert %s to %s")
     String typeConversionError(ModelNode value, Collection<ModelType> validTypes);
 }
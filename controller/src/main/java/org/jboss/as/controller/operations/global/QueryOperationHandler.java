@@ -35,6 +35,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.AttributeIndex;
 import org.jboss.as.controller.ExpressionResolver;
 import org.jboss.as.controller.MapAttributeDefinition;
 import org.jboss.as.controller.OperationContext;
@@ -109,6 +110,12 @@ public final class QueryOperationHandler extends GlobalOperationHandlers.Abstrac
         final Operator operator = Operator.valueOf(OPERATOR_ATT.resolveModelAttribute(parentContext, operation).asString());
         final ModelNode select = SELECT_ATT.validateOperation(operation);
 
+        if (where.isDefined() && operator == Operator.AND && !FilterReduceHandler.mayMatch(parentContext, where)) {
+            // The attribute index shows the filter cannot match, so skip reading the resource.
+            // This initializes the "result" to ModelType.UNDEFINED, as if the filter had removed it
+            parentContext.getResult();
+            return;
+        }
 
         ImmutableManagementResourceRegistration mrr = parentContext.getResourceRegistration();
         final OperationStepHandler readResourceHandler = mrr.getOperationHandler(
@@ -207,28 +214,10 @@ public final class QueryOperationHandler extends GlobalOperationHandlers.Abstrac
                     isEqual = !resource.get(filterName).isDefined();
                 }  else {
 
-                    final ModelType targetValueType = resource.get(filterName).getType();
-
                     try {
-                        // query for attribute values (throws exception when types don't match)
-                        switch (targetValueType) {
-                            case BOOLEAN:
-                                isEqual = filterValue.asBoolean() == resource.get(filterName).asBoolean();
-                                break;
-                            case LONG:
-                                isEqual = filterValue.asLong() == resource.get(filterName).asLong();
-                                break;
-                            case INT:
-                                isEqual = filterValue.asInt() == resource.get(filterName).asInt();
-                                break;
-                            case DOUBLE:
-                                isEqual = filterValue.asDouble() == resource.get(filterName).asDouble();
-                                break;
-                            default:
-                                isEqual = filterValue.equals(resource.get(filterName));
-                        }
+                        isEqual = isEqual(resource.get(filterName), filterValue);
                     } catch (IllegalArgumentException e) {
-                        throw ControllerLogger.MGMT_OP_LOGGER.selectFailedCouldNotConvertAttributeToType(filterName, targetValueType);
+                        throw ControllerLogger.MGMT_OP_LOGGER.selectFailedCouldNotConvertAttributeToType(filterName, resource.get(filterName).getType());
                     }
 
                 }
@@ -267,6 +256,54 @@ public final class QueryOperationHandler extends GlobalOperationHandlers.Abstrac
             return isMatching;
         }
 
+        /**
+         * Compares an attribute value to a filter value, converting the filter value to the type of the attribute.
+         *
+         * @throws IllegalArgumentException if the filter value cannot be converted
+         */
+        private static boolean isEqual(final ModelNode value, final ModelNode filterValue) {
+            switch (value.getType()) {
+                case BOOLEAN:
+                    return filterValue.asBoolean() == value.asBoolean();
+                case LONG:
+                    return filterValue.asLong() == value.asLong();
+                case INT:
+                    return filterValue.asInt() == value.asInt();
+                case DOUBLE:
+                    return filterValue.asDouble() == value.asDouble();
+                default:
+                    return filterValue.equals(value);
+            }
+        }
+
+        /**
+         * Checks the filter against the {@link AttributeIndex attribute index}, if the context has one.
+         * Only filters for defined values are checked: a resource whose indexed value differs cannot match them
+         * whatever the caller is allowed to read, while a filter for an undefined value would also match
+         * attributes the caller is not allowed to read.
+         *
+         * @return {@code false} if the index shows the current resource does not match the filter; {@code true} if
+         *         it may match, and so must be read
+         */
+        static boolean mayMatch(final OperationContext context, final ModelNode filter) {
+            final AttributeIndex.Snapshot index = context.getAttachment(AttributeIndex.SNAPSHOT_KEY);
+            if (index == null) {
+                return true;
+            }
+            final PathAddress address = context.getCurrentAddress();
+            for (Property property : filter.asPropertyList()) {
+                final ModelNode filterValue = property.getValue();
+                if (!filterValue.isDefined() || filterValue.getType() == ModelType.EXPRESSION
+                        || filterValue.asString().equals(UNDEFINED)) {
+                    continue;
+                }
+                if (Boolean.FALSE.equals(index.matches(address, property.getName(), filterValue))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
         private static ModelNode reduce(final ModelNode payload, final ModelNode attributes) throws OperationFailedException {
 
             ModelNode outcome = new ModelNode();
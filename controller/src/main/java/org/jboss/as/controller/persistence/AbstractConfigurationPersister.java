@@ -45,6 +45,7 @@ public abstract class AbstractConfigurationPersister implements ExtensibleConfig
 
     private final XMLElementWriter<ModelMarshallingContext> rootDeparser;
     private final Map<String, XMLElementWriter<SubsystemMarshallingContext>> subsystemWriters = new HashMap<String, XMLElementWriter<SubsystemMarshallingContext>>();
+    private final SubsystemXmlCache subsystemXmlCache = new SubsystemXmlCache();
 
     /**
      * Construct a new instance.
@@ -60,6 +61,7 @@ public abstract class AbstractConfigurationPersister implements ExtensibleConfig
         synchronized (subsystemWriters) {
             subsystemWriters.put(name, deparser);
         }
+        subsystemXmlCache.clear();
     }
 
     @Override
@@ -67,6 +69,7 @@ public abstract class AbstractConfigurationPersister implements ExtensibleConfig
         synchronized (subsystemWriters) {
             subsystemWriters.remove(name);
         }
+        subsystemXmlCache.clear();
     }
 
     /** {@inheritDoc} */
@@ -79,6 +82,9 @@ public abstract class AbstractConfigurationPersister implements ExtensibleConfig
                 streamWriter = XMLOutputFactory.newInstance().createXMLStreamWriter(output);
                 ModelMarshallingContext extensibleModel = new ModelMarshallingContext() {
 
+                    // The same subsystem can appear once per profile, so count occurrences to tell them apart
+                    private final Map<String, Integer> occurrences = new HashMap<String, Integer>();
+
                     @Override
                     public ModelNode getModelNode() {
                         return model;
@@ -86,9 +92,18 @@ public abstract class AbstractConfigurationPersister implements ExtensibleConfig
 
                     @Override
                     public XMLElementWriter<SubsystemMarshallingContext> getSubsystemWriter(String extensionName) {
+                        final XMLElementWriter<SubsystemMarshallingContext> writer;
                         synchronized (subsystemWriters) {
-                            return subsystemWriters.get(extensionName);
+                            writer = subsystemWriters.get(extensionName);
+                        }
+                        if (writer == null) {
+                            return null;
                         }
+                        Integer occurrence = occurrences.get(extensionName);
+                        occurrence = occurrence == null ? 0 : occurrence + 1;
+                        occurrences.put(extensionName, occurrence);
+                        // Unchanged subsystems get written from the cache rather than re-marshalled from the model
+                        return subsystemXmlCache.wrap(extensionName + '#' + occurrence, writer);
                     }
                 };
                 mapper.deparseDocument(rootDeparser, extensibleModel, streamWriter);
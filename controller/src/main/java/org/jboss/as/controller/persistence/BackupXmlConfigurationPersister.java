@@ -29,9 +29,11 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import javax.xml.namespace.QName;
 
 import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.dmr.ModelNode;
 import org.jboss.staxmapper.XMLElementReader;
 import org.jboss.staxmapper.XMLElementWriter;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * An XML configuration persister which backs up the old file before overwriting it.
@@ -40,8 +42,18 @@ import org.jboss.staxmapper.XMLElementWriter;
  */
 public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
 
+    /**
+     * System property that, if set to a positive number of milliseconds, enables group commit: the configuration
+     * file is written at most once per that period, with the configuration as of the last commit in the period.
+     * The window is waited out after the controller lock is released, so other operations can commit meanwhile, and
+     * each operation still completes only once the write covering it is done. This trades operation latency for fewer
+     * writes when operations are committed concurrently.
+     */
+    public static final String GROUP_COMMIT_WINDOW_PROPERTY = "jboss.as.management.persistence.group-commit-window";
+
     ConfigurationFile configurationFile;
     private final AtomicBoolean successfulBoot = new AtomicBoolean();
+    private final GroupCommitWriter groupCommitWriter = createGroupCommitWriter();
 
     /**
      * Construct a new instance.
@@ -84,6 +96,21 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
         return initialEmpty && !reload;
     }
 
+    private static GroupCommitWriter createGroupCommitWriter() {
+        final String prop = WildFlySecurityManager.getPropertyPrivileged(GROUP_COMMIT_WINDOW_PROPERTY, null);
+        if (prop != null) {
+            try {
+                int window = Integer.parseInt(prop);
+                if (window > 0) {
+                    return new GroupCommitWriter(window);
+                }
+            } catch (NumberFormatException e) {
+                ControllerLogger.ROOT_LOGGER.invalidSystemPropertyValue(prop, GROUP_COMMIT_WINDOW_PROPERTY, 0);
+            }
+        }
+        return null;
+    }
+
     public void registerAdditionalRootElement(final QName anotherRoot, final XMLElementReader<List<ModelNode>> parser){
         super.registerAdditionalRootElement(anotherRoot, parser);
     }
@@ -106,11 +133,20 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
                 }
             };
         }
-        return new ConfigurationFilePersistenceResource(model, configurationFile, this);
+        return new ConfigurationFilePersistenceResource(model, configurationFile, this, groupCommitWriter);
+    }
+
+    @Override
+    public void flush() {
+        if (groupCommitWriter != null) {
+            groupCommitWriter.flush();
+        }
     }
 
     @Override
     public String snapshot() throws ConfigurationPersistenceException {
+        // Snapshot the latest committed configuration
+        flush();
         return configurationFile.snapshot();
     }
 
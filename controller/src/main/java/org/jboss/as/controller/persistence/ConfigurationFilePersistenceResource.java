@@ -25,6 +25,7 @@ package org.jboss.as.controller.persistence;
 import static org.jboss.as.controller.logging.ControllerLogger.MGMT_OP_LOGGER;
 
 import java.io.File;
+import java.io.IOException;
 
 import org.jboss.dmr.ModelNode;
 
@@ -38,17 +39,60 @@ public class ConfigurationFilePersistenceResource extends AbstractFilePersistenc
 
     private final ConfigurationFile configurationFile;
     protected final File fileName;
+    private final GroupCommitWriter groupCommitWriter;
+    /** The group commit batch this resource's write joined, if any */
+    private volatile GroupCommitWriter.Batch batch;
 
 
     ConfigurationFilePersistenceResource(final ModelNode model, final ConfigurationFile configurationFile,
                                          final AbstractConfigurationPersister persister) throws ConfigurationPersistenceException {
+        this(model, configurationFile, persister, null);
+    }
+
+    ConfigurationFilePersistenceResource(final ModelNode model, final ConfigurationFile configurationFile,
+                                         final AbstractConfigurationPersister persister,
+                                         final GroupCommitWriter groupCommitWriter) throws ConfigurationPersistenceException {
         super(model, persister);
         this.configurationFile = configurationFile;
         this.fileName = configurationFile.getMainFile();
+        this.groupCommitWriter = groupCommitWriter;
     }
 
     @Override
-    public void doCommit(ExposedByteArrayOutputStream marshalled) {
+    public void doCommit(final ExposedByteArrayOutputStream marshalled) {
+        if (groupCommitWriter == null) {
+            try {
+                write(marshalled);
+            } catch (Exception e) {
+                logWriteFailure(e);
+            }
+        } else {
+            // Only the last of the writes committed within the window reaches the file
+            batch = groupCommitWriter.submit(() -> write(marshalled));
+        }
+    }
+
+    @Override
+    public void awaitCommitted() {
+        final GroupCommitWriter.Batch batch = this.batch;
+        if (batch != null) {
+            try {
+                groupCommitWriter.await(batch);
+            } catch (Exception e) {
+                logWriteFailure(e);
+            }
+        }
+    }
+
+    private void logWriteFailure(Exception e) {
+        if (e instanceof ConfigurationPersistenceException) {
+            MGMT_OP_LOGGER.errorf(e, e.toString());
+        } else {
+            MGMT_OP_LOGGER.failedToStoreConfiguration(e, fileName.getName());
+        }
+    }
+
+    private void write(ExposedByteArrayOutputStream marshalled) throws IOException, ConfigurationPersistenceException {
         final File tempFileName;
 
         if ( FilePersistenceUtils.isParentFolderWritable(fileName) ){
@@ -58,20 +102,13 @@ public class ConfigurationFilePersistenceResource extends AbstractFilePersistenc
         }
 
         try {
-            try {
-                FilePersistenceUtils.writeToTempFile(marshalled, tempFileName, fileName);
-            } catch (Exception e) {
-                MGMT_OP_LOGGER.failedToStoreConfiguration(e, fileName.getName());
-                return;
-            }
+            FilePersistenceUtils.writeToTempFile(marshalled, tempFileName, fileName);
             try {
                 configurationFile.backup();
             } finally {
                 configurationFile.commitTempFile(tempFileName);
             }
             configurationFile.fileWritten();
-        } catch (ConfigurationPersistenceException e) {
-           MGMT_OP_LOGGER.errorf(e, e.toString());
         } finally {
             if (tempFileName.exists() && !tempFileName.delete()) {
                 MGMT_OP_LOGGER.cannotDeleteTempFile(tempFileName.getName());
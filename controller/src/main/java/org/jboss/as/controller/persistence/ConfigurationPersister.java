@@ -52,6 +52,16 @@ public interface ConfigurationPersister {
          * Discard the changes.
          */
         void rollback();
+
+        /**
+         * Waits until the changes flushed by {@link #commit()} have reached permanent storage, for resources whose
+         * commit defers the write, e.g. so it can be grouped with the writes of other operations. Called after
+         * {@code commit()} once the controller lock has been released, so those operations can commit meanwhile.
+         * <p>
+         * The default implementation does nothing, which is correct for resources that write upon commit.
+         */
+        default void awaitCommitted() {
+        }
     }
 
     /**
@@ -94,6 +104,15 @@ public interface ConfigurationPersister {
      */
     String snapshot() throws ConfigurationPersistenceException;
 
+    /**
+     * Writes to permanent storage any {@link PersistenceResource#commit() committed} changes whose write
+     * has been deferred, e.g. so it can be grouped with other changes. Returns once they have been written.
+     * <p>
+     * The default implementation does nothing, which is correct for persisters that write upon commit.
+     */
+    default void flush() {
+    }
+
     /**
      * Gets the names of the snapshots in the snapshots directory
      *
@@ -0,0 +1,158 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.logging.ControllerLogger;
+
+/**
+ * Group commit of the writes of a configuration file. A write submitted while a batch is open joins it, and only the
+ * last write of a batch is executed, as each write replaces the configuration written by the previous one.
+ * <p>
+ * Writes are submitted by {@link ConfigurationPersister.PersistenceResource#commit()}, which runs with the controller
+ * lock held, so submitting never blocks. Each committer then calls {@link #await(Batch)} once the lock is released,
+ * which waits for the batch's window to end, so other operations can commit and join the batch meanwhile, then
+ * executes the batch unless another committer already did, and returns once it is written. Every committer sees the
+ * failure of the write, if any, so a committed change is durable once {@code await} returns.
+ */
+final class GroupCommitWriter {
+
+    /**
+     * A write of the configuration file.
+     */
+    interface Write {
+        void run() throws Exception;
+    }
+
+    private final long windowNanos;
+    /** Serializes the execution of batches */
+    private final Object writeLock = new Object();
+    /** The batch new writes join, or {@code null} if none is open. Guarded by this */
+    private Batch open;
+
+    GroupCommitWriter(long windowMillis) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+    }
+
+    /**
+     * Adds a write to the open batch, opening one if there is none. Does not block.
+     *
+     * @param write the write
+     * @return the batch the write joined, to pass to {@link #await(Batch)}
+     */
+    synchronized Batch submit(final Write write) {
+        if (open == null) {
+            open = new Batch(System.nanoTime() + windowNanos);
+        }
+        open.write = write;
+        return open;
+    }
+
+    /**
+     * Waits until a batch has been written, executing it once its window has ended if no other committer has.
+     * Must not be called with the controller lock held, or no other write could join the batch.
+     *
+     * @param batch the batch returned by {@link #submit(Write)}
+     * @throws Exception the failure of the write that was executed for the batch
+     */
+    void await(final Batch batch) throws Exception {
+        synchronized (this) {
+            long remaining;
+            while (!batch.done && (remaining = batch.deadline - System.nanoTime()) > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                } catch (InterruptedException e) {
+                    // Write now rather than keep waiting
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        // Returns once the batch is done, whoever executed it
+        execute(batch);
+        final Throwable failure = batch.failure;
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw (Exception) failure;
+        }
+    }
+
+    /**
+     * Executes the open batch, if any, without waiting for its window to end. Returns once it is written; failures are
+     * reported to the committers that joined the batch.
+     */
+    void flush() {
+        final Batch batch;
+        synchronized (this) {
+            batch = open;
+        }
+        if (batch != null) {
+            execute(batch);
+        }
+    }
+
+    private void execute(final Batch batch) {
+        synchronized (writeLock) {
+            final Write write;
+            synchronized (this) {
+                if (batch.done) {
+                    return;
+                }
+                if (open == batch) {
+                    open = null;
+                }
+                write = batch.write;
+            }
+            ControllerLogger.MGMT_OP_LOGGER.trace("Writing configuration changes committed within the group commit window");
+            Throwable failure = null;
+            try {
+                write.run();
+            } catch (Throwable t) {
+                failure = t;
+            }
+            synchronized (this) {
+                batch.failure = failure;
+                batch.done = true;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * The writes committed within one window.
+     */
+    static final class Batch {
+        private final long deadline;
+        /** The latest write submitted; guarded by the writer */
+        private Write write;
+        /** Only set with the writer's write lock held */
+        private volatile boolean done;
+        private volatile Throwable failure;
+
+        private Batch(long deadline) {
+            this.deadline = deadline;
+        }
+    }
+}
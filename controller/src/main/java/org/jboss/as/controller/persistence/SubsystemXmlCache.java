@@ -0,0 +1,473 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLElementWriter;
+import org.jboss.staxmapper.XMLExtendedStreamWriter;
+
+/**
+ * Caches the XML written for each subsystem, so a subsystem whose model has not changed since it was
+ * last marshalled can be written again without running its {@link XMLElementWriter}.
+ * <p>
+ * The XML is cached as unformatted bytes, keyed by a digest of the subsystem model. A cached fragment is
+ * written by streaming its events into the document's {@link XMLExtendedStreamWriter}, so it is formatted
+ * like the rest of the document.
+ */
+final class SubsystemXmlCache {
+
+    private static final String FRAGMENT = "fragment";
+    private static final String ENCODING = "UTF-8";
+
+    private static final OutputStream NULL_OUTPUT = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private static final XMLInputFactory INPUT_FACTORY;
+    static {
+        INPUT_FACTORY = XMLInputFactory.newInstance();
+        INPUT_FACTORY.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+    }
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+    private final Map<String, Fragment> fragments = new ConcurrentHashMap<>();
+
+    /**
+     * Wraps a subsystem writer so its output is cached.
+     *
+     * @param key identifies the subsystem within the document, e.g. its name plus the index of the profile it
+     *            is part of
+     * @param delegate the real writer
+     * @return the caching writer
+     */
+    XMLElementWriter<SubsystemMarshallingContext> wrap(final String key, final XMLElementWriter<SubsystemMarshallingContext> delegate) {
+        return new XMLElementWriter<SubsystemMarshallingContext>() {
+            @Override
+            public void writeContent(XMLExtendedStreamWriter writer, SubsystemMarshallingContext context) throws XMLStreamException {
+                final ModelNode model = context.getModelNode();
+                // Whether a subsystem writer declares its namespace depends on the namespaces in scope
+                final String defaultNamespace = writer.getNamespaceContext().getNamespaceURI(XMLConstants.DEFAULT_NS_PREFIX);
+                final byte[] digest = digest(model);
+                Fragment fragment = fragments.get(key);
+                if (fragment == null || !fragment.matches(delegate, digest, defaultNamespace)) {
+                    fragment = new Fragment(delegate, digest, defaultNamespace, render(delegate, model, defaultNamespace));
+                    fragments.put(key, fragment);
+                }
+                replay(fragment.xml, writer);
+            }
+        };
+    }
+
+    void clear() {
+        fragments.clear();
+    }
+
+    private static byte[] digest(final ModelNode model) throws XMLStreamException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new XMLStreamException(e);
+        }
+        try (DataOutputStream out = new DataOutputStream(new DigestOutputStream(NULL_OUTPUT, digest))) {
+            model.writeExternal(out);
+        } catch (IOException e) {
+            throw new XMLStreamException(e);
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Runs the subsystem writer against an unformatted writer. Its output is wrapped in a synthetic element
+     * declaring the default namespace of the document, so the fragment can be parsed on its own.
+     */
+    private static byte[] render(final XMLElementWriter<SubsystemMarshallingContext> delegate, final ModelNode model,
+                                 final String defaultNamespace) throws XMLStreamException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final XMLStreamWriter streamWriter = OUTPUT_FACTORY.createXMLStreamWriter(bytes, ENCODING);
+        try {
+            streamWriter.writeStartDocument(ENCODING, "1.0");
+            if (defaultNamespace != null && !defaultNamespace.isEmpty()) {
+                streamWriter.setDefaultNamespace(defaultNamespace);
+                streamWriter.writeStartElement(FRAGMENT);
+                streamWriter.writeDefaultNamespace(defaultNamespace);
+            } else {
+                streamWriter.writeStartElement(FRAGMENT);
+            }
+            final XMLExtendedStreamWriter writer = new UnformattedStreamWriter(streamWriter);
+            delegate.writeContent(writer, new SubsystemMarshallingContext(model, writer));
+            streamWriter.writeEndElement();
+            streamWriter.writeEndDocument();
+        } finally {
+            streamWriter.close();
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes the events of a rendered fragment, less the synthetic root element, to the given writer.
+     */
+    private static void replay(final byte[] xml, final XMLExtendedStreamWriter writer) throws XMLStreamException {
+        final XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(new ByteArrayInputStream(xml), ENCODING);
+        try {
+            int depth = 0;
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        if (depth++ > 0) {
+                            writeStartElement(reader, writer);
+                        }
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        if (--depth > 0) {
+                            writer.writeEndElement();
+                        }
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.SPACE:
+                        writer.writeCharacters(reader.getText());
+                        break;
+                    case XMLStreamConstants.CDATA:
+                        writer.writeCData(reader.getText());
+                        break;
+                    case XMLStreamConstants.COMMENT:
+                        writer.writeComment(reader.getText());
+                        break;
+                    case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                        if (reader.getPIData() == null) {
+                            writer.writeProcessingInstruction(reader.getPITarget());
+                        } else {
+                            writer.writeProcessingInstruction(reader.getPITarget(), reader.getPIData());
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static void writeStartElement(final XMLStreamReader reader, final XMLExtendedStreamWriter writer) throws XMLStreamException {
+        // Bind the declared namespaces first, as the subsystem writer would have done
+        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+            final String prefix = reader.getNamespacePrefix(i);
+            if (prefix == null || prefix.isEmpty()) {
+                writer.setDefaultNamespace(reader.getNamespaceURI(i));
+            } else {
+                writer.setPrefix(prefix, reader.getNamespaceURI(i));
+            }
+        }
+        final String prefix = reader.getPrefix();
+        if (prefix == null || prefix.isEmpty()) {
+            writer.writeStartElement(reader.getLocalName());
+        } else {
+            writer.writeStartElement(prefix, reader.getLocalName(), reader.getNamespaceURI());
+        }
+        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+            final String namespacePrefix = reader.getNamespacePrefix(i);
+            if (namespacePrefix == null || namespacePrefix.isEmpty()) {
+                writer.writeDefaultNamespace(reader.getNamespaceURI(i));
+            } else {
+                writer.writeNamespace(namespacePrefix, reader.getNamespaceURI(i));
+            }
+        }
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            final String attributePrefix = reader.getAttributePrefix(i);
+            if (attributePrefix == null || attributePrefix.isEmpty()) {
+                writer.writeAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+            } else {
+                writer.writeAttribute(attributePrefix, reader.getAttributeNamespace(i), reader.getAttributeLocalName(i),
+                        reader.getAttributeValue(i));
+            }
+        }
+    }
+
+    private static final class Fragment {
+        private final XMLElementWriter<SubsystemMarshallingContext> delegate;
+        private final byte[] digest;
+        private final String defaultNamespace;
+        private final byte[] xml;
+
+        private Fragment(XMLElementWriter<SubsystemMarshallingContext> delegate, byte[] digest, String defaultNamespace, byte[] xml) {
+            this.delegate = delegate;
+            this.digest = digest;
+            this.defaultNamespace = defaultNamespace;
+            this.xml = xml;
+        }
+
+        private boolean matches(XMLElementWriter<SubsystemMarshallingContext> delegate, byte[] digest, String defaultNamespace) {
+            return this.delegate == delegate && Objects.equals(this.defaultNamespace, defaultNamespace)
+                    && Arrays.equals(this.digest, digest);
+        }
+    }
+
+    /**
+     * An {@link XMLExtendedStreamWriter} that writes straight through to a plain {@link XMLStreamWriter}.
+     * Multi-valued attributes are written as a single space separated value.
+     */
+    private static final class UnformattedStreamWriter implements XMLExtendedStreamWriter {
+        private final XMLStreamWriter delegate;
+
+        private UnformattedStreamWriter(XMLStreamWriter delegate) {
+            this.delegate = delegate;
+        }
+
+        private static String join(Iterable<String> values) {
+            final StringBuilder builder = new StringBuilder();
+            for (String value : values) {
+                if (builder.length() > 0) {
+                    builder.append(' ');
+                }
+                builder.append(value);
+            }
+            return builder.toString();
+        }
+
+        @Override
+        public void writeAttribute(String localName, String[] values) throws XMLStreamException {
+            delegate.writeAttribute(localName, join(Arrays.asList(values)));
+        }
+
+        @Override
+        public void writeAttribute(String prefix, String namespaceURI, String localName, String[] values) throws XMLStreamException {
+            delegate.writeAttribute(prefix, namespaceURI, localName, join(Arrays.asList(values)));
+        }
+
+        @Override
+        public void writeAttribute(String namespaceURI, String localName, String[] values) throws XMLStreamException {
+            delegate.writeAttribute(namespaceURI, localName, join(Arrays.asList(values)));
+        }
+
+        @Override
+        public void writeAttribute(String localName, Iterable<String> values) throws XMLStreamException {
+            delegate.writeAttribute(localName, join(values));
+        }
+
+        @Override
+        public void writeAttribute(String prefix, String namespaceURI, String localName, Iterable<String> values) throws XMLStreamException {
+            delegate.writeAttribute(prefix, namespaceURI, localName, join(values));
+        }
+
+        @Override
+        public void writeAttribute(String namespaceURI, String localName, Iterable<String> values) throws XMLStreamException {
+            delegate.writeAttribute(namespaceURI, localName, join(values));
+        }
+
+        @Override
+        public void setUnspecifiedElementNamespace(String namespace) {
+            // Elements are written by local name and resolved against the document on replay
+        }
+
+        @Override
+        public void writeStartElement(String localName) throws XMLStreamException {
+            delegate.writeStartElement(localName);
+        }
+
+        @Override
+        public void writeStartElement(String namespaceURI, String localName) throws XMLStreamException {
+            delegate.writeStartElement(namespaceURI, localName);
+        }
+
+        @Override
+        public void writeStartElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+            delegate.writeStartElement(prefix, localName, namespaceURI);
+        }
+
+        @Override
+        public void writeEmptyElement(String namespaceURI, String localName) throws XMLStreamException {
+            delegate.writeEmptyElement(namespaceURI, localName);
+        }
+
+        @Override
+        public void writeEmptyElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+            delegate.writeEmptyElement(prefix, localName, namespaceURI);
+        }
+
+        @Override
+        public void writeEmptyElement(String localName) throws XMLStreamException {
+            delegate.writeEmptyElement(localName);
+        }
+
+        @Override
+        public void writeEndElement() throws XMLStreamException {
+            delegate.writeEndElement();
+        }
+
+        @Override
+        public void writeEndDocument() throws XMLStreamException {
+            delegate.writeEndDocument();
+        }
+
+        @Override
+        public void close() throws XMLStreamException {
+            delegate.close();
+        }
+
+        @Override
+        public void flush() throws XMLStreamException {
+            delegate.flush();
+        }
+
+        @Override
+        public void writeAttribute(String localName, String value) throws XMLStreamException {
+            delegate.writeAttribute(localName, value);
+        }
+
+        @Override
+        public void writeAttribute(String prefix, String namespaceURI, String localName, String value) throws XMLStreamException {
+            delegate.writeAttribute(prefix, namespaceURI, localName, value);
+        }
+
+        @Override
+        public void writeAttribute(String namespaceURI, String localName, String value) throws XMLStreamException {
+            delegate.writeAttribute(namespaceURI, localName, value);
+        }
+
+        @Override
+        public void writeNamespace(String prefix, String namespaceURI) throws XMLStreamException {
+            delegate.writeNamespace(prefix, namespaceURI);
+        }
+
+        @Override
+        public void writeDefaultNamespace(String namespaceURI) throws XMLStreamException {
+            delegate.writeDefaultNamespace(namespaceURI);
+        }
+
+        @Override
+        public void writeComment(String data) throws XMLStreamException {
+            delegate.writeComment(data);
+        }
+
+        @Override
+        public void writeProcessingInstruction(String target) throws XMLStreamException {
+            delegate.writeProcessingInstruction(target);
+        }
+
+        @Override
+        public void writeProcessingInstruction(String target, String data) throws XMLStreamException {
+            delegate.writeProcessingInstruction(target, data);
+        }
+
+        @Override
+        public void writeCData(String data) throws XMLStreamException {
+            delegate.writeCData(data);
+        }
+
+        @Override
+        public void writeDTD(String dtd) throws XMLStreamException {
+            delegate.writeDTD(dtd);
+        }
+
+        @Override
+        public void writeEntityRef(String name) throws XMLStreamException {
+            delegate.writeEntityRef(name);
+        }
+
+        @Override
+        public void writeStartDocument() throws XMLStreamException {
+            delegate.writeStartDocument();
+        }
+
+        @Override
+        public void writeStartDocument(String version) throws XMLStreamException {
+            delegate.writeStartDocument(version);
+        }
+
+        @Override
+        public void writeStartDocument(String encoding, String version) throws XMLStreamException {
+            delegate.writeStartDocument(encoding, version);
+        }
+
+        @Override
+        public void writeCharacters(String text) throws XMLStreamException {
+            delegate.writeCharacters(text);
+        }
+
+        @Override
+        public void writeCharacters(char[] text, int start, int len) throws XMLStreamException {
+            delegate.writeCharacters(text, start, len);
+        }
+
+        @Override
+        public String getPrefix(String uri) throws XMLStreamException {
+            return delegate.getPrefix(uri);
+        }
+
+        @Override
+        public void setPrefix(String prefix, String uri) throws XMLStreamException {
+            delegate.setPrefix(prefix, uri);
+        }
+
+        @Override
+        public void setDefaultNamespace(String uri) throws XMLStreamException {
+            delegate.setDefaultNamespace(uri);
+        }
+
+        @Override
+        public void setNamespaceContext(NamespaceContext context) throws XMLStreamException {
+            delegate.setNamespaceContext(context);
+        }
+
+        @Override
+        public NamespaceContext getNamespaceContext() {
+            return delegate.getNamespaceContext();
+        }
+
+        @Override
+        public Object getProperty(String name) throws IllegalArgumentException {
+            return delegate.getProperty(name);
+        }
+    }
+}
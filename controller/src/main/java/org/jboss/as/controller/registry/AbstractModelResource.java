@@ -49,6 +49,8 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
     private final Map<String, ResourceProvider> children = new LinkedHashMap<String, ResourceProvider>();
     private final boolean runtimeOnly;
     private final Set<String> orderedChildTypes;
+    /** The working copy this resource belongs to, or {@code null} if it is not part of one. */
+    private final WorkingCopy workingCopy;
 
     protected AbstractModelResource() {
         this(false);
@@ -67,7 +69,12 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
     }
 
     AbstractModelResource(boolean runtimeOnly, Set<String> orderedChildTypes, boolean safe) {
+        this(runtimeOnly, orderedChildTypes, safe, null);
+    }
+
+    AbstractModelResource(boolean runtimeOnly, Set<String> orderedChildTypes, boolean safe, WorkingCopy workingCopy) {
         this.runtimeOnly = runtimeOnly;
+        this.workingCopy = workingCopy;
         this.orderedChildTypes = safe && orderedChildTypes != null
                 ? orderedChildTypes
                 : (orderedChildTypes == null || orderedChildTypes.size() == 0)
@@ -241,7 +248,7 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
             if(provider != null) {
                 return provider;
             } else {
-                final ResourceProvider newProvider = new DefaultResourceProvider();
+                final ResourceProvider newProvider = new DefaultResourceProvider(workingCopy);
                 children.put(type, newProvider);
                 return newProvider;
             }
@@ -252,18 +259,168 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
     public abstract Resource clone();
 
     protected void cloneProviders(AbstractModelResource clone) {
+        // A clone that is not part of a working copy gets a tree of its own, so that publishing the clone takes effect
+        final WorkingCopy cloneWorkingCopy = clone.workingCopy == null ? new WorkingCopy() : clone.workingCopy;
         synchronized (children) {
             for (final Map.Entry<String, ResourceProvider> entry : children.entrySet()) {
-                clone.registerResourceProvider(entry.getKey(), entry.getValue().clone());
+                final ResourceProvider provider = entry.getValue();
+                if (provider instanceof DefaultResourceProvider) {
+                    clone.registerResourceProvider(entry.getKey(), ((DefaultResourceProvider) provider).clone(cloneWorkingCopy));
+                } else {
+                    clone.registerResourceProvider(entry.getKey(), provider.clone());
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a copy of this resource for use in the given working copy. Unlike {@link #clone()}, children
+     * held by the default resource providers are not copied; they are shared with this resource and only
+     * copied when first accessed via the copy. Implementations that cannot support this simply return a
+     * {@link #clone() clone}.
+     *
+     * @param workingCopy the working copy the copy belongs to. Cannot be {@code null}
+     * @return the copy. Will not return {@code null}
+     */
+    Resource copyForUpdate(WorkingCopy workingCopy) {
+        return clone();
+    }
+
+    /**
+     * Creates a {@link #clone() clone} of this resource that belongs to the given working copy, so the whole cloned
+     * tree is marked published together with its root. Implementations that cannot support this simply return a
+     * {@link #clone() clone}.
+     *
+     * @param workingCopy the working copy the clone belongs to. Cannot be {@code null}
+     * @return the clone. Will not return {@code null}
+     */
+    Resource clone(WorkingCopy workingCopy) {
+        return clone();
+    }
+
+    /**
+     * Registers providers in {@code copy} that share this resource's children, for use by
+     * {@link #copyForUpdate(WorkingCopy)} implementations.
+     */
+    void shareProviders(AbstractModelResource copy) {
+        synchronized (children) {
+            for (final Map.Entry<String, ResourceProvider> entry : children.entrySet()) {
+                final ResourceProvider provider = entry.getValue();
+                if (provider instanceof DefaultResourceProvider) {
+                    copy.registerResourceProvider(entry.getKey(), ((DefaultResourceProvider) provider).share(copy.workingCopy));
+                } else {
+                    copy.registerResourceProvider(entry.getKey(), provider.clone());
+                }
             }
         }
     }
 
+    /**
+     * Gets the children of the given type without triggering the copy of any children still shared
+     * with a published resource tree. The returned resources must not be modified.
+     */
+    Set<ResourceEntry> getChildrenForRead(final String childType) {
+        final ResourceProvider provider = getProvider(childType);
+        if (!(provider instanceof DefaultResourceProvider)) {
+            return getChildren(childType);
+        }
+        final DefaultResourceProvider defaultProvider = (DefaultResourceProvider) provider;
+        final Set<ResourceEntry> children = new LinkedHashSet<ResourceEntry>();
+        for (final String name : defaultProvider.children()) {
+            final Resource resource = defaultProvider.peek(name);
+            if (resource != null) {
+                children.add(new DelegateResource(resource) {
+                    @Override
+                    public String getName() {
+                        return name;
+                    }
+
+                    @Override
+                    public PathElement getPathElement() {
+                        return PathElement.pathElement(childType, name);
+                    }
+                });
+            }
+        }
+        return children;
+    }
+
+    WorkingCopy getWorkingCopy() {
+        return workingCopy;
+    }
+
+    /**
+     * Tracks a resource tree created via {@link #copyForUpdate(WorkingCopy)} from a published tree. Until the
+     * working copy is published, children it shares with the published tree are copied the first time they are
+     * accessed, so modifications never leak into the published tree. Once published, the tree is only read, so
+     * shared children are handed out directly.
+     */
+    static final class WorkingCopy {
+
+        private volatile boolean published;
+
+        boolean isPublished() {
+            return published;
+        }
+
+        void publish() {
+            published = true;
+        }
+    }
+
     private static class DefaultResourceProvider implements ResourceProvider {
 
         private final Map<String, Resource> children = new LinkedHashMap<String, Resource>();
+        /** Names of children still shared with another resource tree; {@code null} if there are none. */
+        private Set<String> shared;
+        private final WorkingCopy workingCopy;
 
         protected DefaultResourceProvider() {
+            this(null);
+        }
+
+        private DefaultResourceProvider(WorkingCopy workingCopy) {
+            this.workingCopy = workingCopy;
+        }
+
+        /**
+         * Gets the child without copying it if it is shared. The returned resource must not be modified.
+         */
+        Resource peek(String name) {
+            synchronized (children) {
+                return children.get(name);
+            }
+        }
+
+        private Resource unshare(String name) {
+            // Caller holds the lock on children
+            final Resource resource = children.get(name);
+            if (resource != null && shared != null && (workingCopy == null || !workingCopy.isPublished())
+                    && shared.remove(name)) {
+                final Resource copy = resource instanceof AbstractModelResource
+                        ? ((AbstractModelResource) resource).copyForUpdate(workingCopy == null ? new WorkingCopy() : workingCopy)
+                        : resource.clone();
+                children.put(name, copy);
+                if (shared.isEmpty()) {
+                    shared = null;
+                }
+                return copy;
+            }
+            return resource;
+        }
+
+        /**
+         * Creates a provider that shares all of this provider's children.
+         */
+        DefaultResourceProvider share(WorkingCopy workingCopy) {
+            final DefaultResourceProvider provider = new DefaultResourceProvider(workingCopy);
+            synchronized (children) {
+                provider.children.putAll(children);
+                if (!children.isEmpty()) {
+                    provider.shared = new HashSet<String>(children.keySet());
+                }
+            }
+            return provider;
         }
 
         @Override
@@ -283,7 +440,7 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
         @Override
         public Resource get(String name) {
             synchronized (children) {
-                return children.get(name);
+                return unshare(name);
             }
         }
 
@@ -336,16 +493,38 @@ public abstract class AbstractModelResource extends ResourceProvider.ResourcePro
         @Override
         public Resource remove(String name) {
             synchronized (children) {
-                return children.remove(name);
+                final Resource removed = unshare(name);
+                children.remove(name);
+                if (shared != null && shared.remove(name) && shared.isEmpty()) {
+                    shared = null;
+                }
+                return removed;
             }
         }
 
         @Override
         public ResourceProvider clone() {
-            final DefaultResourceProvider provider = new DefaultResourceProvider();
+            return clone(new WorkingCopy());
+        }
+
+        DefaultResourceProvider clone(WorkingCopy workingCopy) {
+            final DefaultResourceProvider provider = new DefaultResourceProvider(workingCopy);
             synchronized (children) {
                 for (final Map.Entry<String, Resource> entry : children.entrySet()) {
-                    provider.register(entry.getKey(), entry.getValue().clone());
+                    final String name = entry.getKey();
+                    if (shared != null && shared.contains(name)) {
+                        // Shared children are never modified, so the clone can share them as well
+                        provider.children.put(name, entry.getValue());
+                        if (provider.shared == null) {
+                            provider.shared = new HashSet<String>();
+                        }
+                        provider.shared.add(name);
+                    } else {
+                        final Resource child = entry.getValue();
+                        provider.register(name, child instanceof AbstractModelResource
+                                ? ((AbstractModelResource) child).clone(workingCopy)
+                                : child.clone());
+                    }
                 }
             }
             return provider;
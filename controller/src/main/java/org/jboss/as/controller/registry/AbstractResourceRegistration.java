@@ -30,6 +30,8 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.jboss.as.controller.OperationDefinition;
 import org.jboss.as.controller.OperationStepHandler;
@@ -55,16 +57,26 @@ import org.wildfly.common.Assert;
 @SuppressWarnings("deprecation")
 abstract class AbstractResourceRegistration implements ManagementResourceRegistration {
 
+    /** Marks a cached lookup that found no operation entry */
+    private static final Object NO_OPERATION_ENTRY = new Object();
+    private static final int MAX_CACHED_OPERATION_ADDRESSES = 4096;
+
     private final String valueString;
     private final NodeSubregistry parent;
     private final PathAddress pathAddress;
-    private RootInvocation rootInvocation;
+    private volatile RootInvocation rootInvocation;
+    /**
+     * Operation entries already resolved from the root, keyed by target address and then operation name. Only used
+     * on the root registration; any change to the operations or children of a registration in the tree replaces it.
+     */
+    private volatile ConcurrentMap<PathAddress, ConcurrentMap<String, Object>> operationEntryCache;
 
     AbstractResourceRegistration(final String valueString, final NodeSubregistry parent) {
         checkPermission();
         this.valueString = valueString;
         this.parent = parent;
         this.pathAddress = parent == null ? PathAddress.EMPTY_ADDRESS : parent.getPathAddress(valueString);
+        this.operationEntryCache = parent == null ? new ConcurrentHashMap<>() : null;
     }
 
     static void checkPermission() {
@@ -159,8 +171,39 @@ abstract class AbstractResourceRegistration implements ManagementResourceRegistr
         }
         // else we are the root
 
+        final ConcurrentMap<PathAddress, ConcurrentMap<String, Object>> cache = operationEntryCache;
+        ConcurrentMap<String, Object> entries = cache.get(pathAddress);
+        if (entries != null) {
+            final Object cached = entries.get(operationName);
+            if (cached != null) {
+                checkPermission();
+                return cached == NO_OPERATION_ENTRY ? null : (OperationEntry) cached;
+            }
+        }
         OperationEntry inheritable = getInheritableOperationEntry(operationName);
-        return getOperationEntry(pathAddress.iterator(), operationName, inheritable);
+        final OperationEntry result = getOperationEntry(pathAddress.iterator(), operationName, inheritable);
+        if (entries == null) {
+            if (cache.size() >= MAX_CACHED_OPERATION_ADDRESSES) {
+                // Too many distinct addresses; start over rather than track usage
+                cache.clear();
+            }
+            entries = new ConcurrentHashMap<>();
+            final ConcurrentMap<String, Object> existing = cache.putIfAbsent(pathAddress, entries);
+            if (existing != null) {
+                entries = existing;
+            }
+        }
+        // A lookup that raced with a registry change stores into the cache that was discarded
+        entries.put(operationName, result == null ? NO_OPERATION_ENTRY : result);
+        return result;
+    }
+
+    /**
+     * Discards the operation entries cached by the root registration. Must be called whenever the operations or
+     * child registrations of any registration in the tree change.
+     */
+    final void invalidateOperationEntryCache() {
+        getRootResourceRegistration().operationEntryCache = new ConcurrentHashMap<>();
     }
 
     abstract OperationEntry getOperationEntry(ListIterator<PathElement> iterator, String operationName, OperationEntry inherited);
@@ -430,21 +473,21 @@ abstract class AbstractResourceRegistration implements ManagementResourceRegistr
     private RootInvocation getRootInvocation() {
         RootInvocation result = null;
         if (parent != null) {
-            synchronized (this) {
-                if (rootInvocation == null) {
-                    NodeSubregistry ancestorSubregistry = parent;
-                    AbstractResourceRegistration ancestorReg = this;
-                    final List<PathElement> path = new ArrayList<PathElement>();
-                    while (ancestorSubregistry != null) {
-                        PathElement pe = PathElement.pathElement(ancestorSubregistry.getKeyName(), ancestorReg.valueString);
-                        path.add(0, pe);
-                        ancestorReg = ancestorSubregistry.getParent();
-                        ancestorSubregistry = ancestorReg.parent;
-                    }
-                    PathAddress pa = PathAddress.pathAddress(path);
-                    rootInvocation = new RootInvocation(ancestorReg, pa);
+            // The ancestry never changes, so racing threads compute equal values and no lock is needed
+            result = rootInvocation;
+            if (result == null) {
+                NodeSubregistry ancestorSubregistry = parent;
+                AbstractResourceRegistration ancestorReg = this;
+                final List<PathElement> path = new ArrayList<PathElement>();
+                while (ancestorSubregistry != null) {
+                    PathElement pe = PathElement.pathElement(ancestorSubregistry.getKeyName(), ancestorReg.valueString);
+                    path.add(0, pe);
+                    ancestorReg = ancestorSubregistry.getParent();
+                    ancestorSubregistry = ancestorReg.parent;
                 }
-                result = rootInvocation;
+                PathAddress pa = PathAddress.pathAddress(path);
+                result = new RootInvocation(ancestorReg, pa);
+                rootInvocation = result;
             }
         }
         return result;
@@ -145,7 +145,13 @@ public final class AttributeAccess {
          * This flag can be used in conjunction with STORAGE_RUNTIME to specify that a runtime
          * attribute can work in the absence of runtime services.
          */
-         RUNTIME_SERVICE_NOT_REQUIRED
+         RUNTIME_SERVICE_NOT_REQUIRED,
+        /**
+         * The attribute's value is kept in an in-memory index, so operations like {@code query} can match resources
+         * against it without reading them. Only honoured for attributes stored in the persistent configuration that
+         * do not have a custom read handler.
+         */
+        INDEXED
     }
 
     private final AccessType access;
@@ -56,8 +56,8 @@ class BasicResource extends AbstractModelResource implements Resource {
         super(runtimeOnly, orderedChildTypes);
     }
 
-    private BasicResource(boolean runtimeOnly, Set<String> orderedChildTypes, boolean safe) {
-        super(runtimeOnly, orderedChildTypes, safe);
+    private BasicResource(boolean runtimeOnly, Set<String> orderedChildTypes, WorkingCopy workingCopy) {
+        super(runtimeOnly, orderedChildTypes, true, workingCopy);
     }
 
     @Override
@@ -77,17 +77,34 @@ class BasicResource extends AbstractModelResource implements Resource {
     @SuppressWarnings({"CloneDoesntCallSuperClone"})
     @Override
     public Resource clone() {
-        final BasicResource clone = new BasicResource(isRuntime(), getOrderedChildTypes(), true);
+        return clone(new WorkingCopy());
+    }
+
+    @Override
+    Resource clone(WorkingCopy workingCopy) {
+        final BasicResource clone = new BasicResource(isRuntime(), getOrderedChildTypes(), workingCopy);
+        copyModel(clone);
+        cloneProviders(clone);
+        return clone;
+    }
+
+    @Override
+    Resource copyForUpdate(WorkingCopy workingCopy) {
+        final BasicResource copy = new BasicResource(isRuntime(), getOrderedChildTypes(), workingCopy);
+        copyModel(copy);
+        shareProviders(copy);
+        return copy;
+    }
+
+    private void copyModel(BasicResource target) {
         for (;;) {
             try {
-                clone.writeModel(model);
+                target.writeModel(model);
                 break;
             } catch (ConcurrentModificationException ignore) {
                 // TODO horrible hack :(
             }
         }
-        cloneProviders(clone);
-        return clone;
     }
 
 }
@@ -27,15 +27,16 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NOT
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.CapabilityRegistry;
@@ -50,39 +51,64 @@ import org.jboss.as.controller.ResourceDefinition;
 import org.jboss.as.controller.access.management.AccessConstraintDefinition;
 import org.jboss.as.controller.access.management.AccessConstraintUtilizationRegistry;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.descriptions.DefaultResourceDescriptionProvider;
 import org.jboss.as.controller.descriptions.DescriptionProvider;
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.controller.registry.AttributeAccess.AccessType;
 import org.jboss.as.controller.registry.AttributeAccess.Storage;
+import org.jboss.dmr.ModelNode;
 import org.wildfly.common.Assert;
 
+/**
+ * Registrations are read far more often than they change, so all the state is held in immutable snapshots
+ * published through volatile fields. Reads are lock-free; updates copy the affected snapshot while holding
+ * {@code writeLock}.
+ */
 final class ConcreteResourceRegistration extends AbstractResourceRegistration {
 
-    private Map<String, NodeSubregistry> children;
+    @SuppressWarnings("unused")
+    private volatile Map<String, NodeSubregistry> children;
+
+    @SuppressWarnings("unused")
+    private volatile Map<String, OperationEntry> operations;
+
+    @SuppressWarnings("unused")
+    private volatile Map<String, NotificationEntry> notifications;
 
-    private Map<String, OperationEntry> operations;
+    @SuppressWarnings("unused")
+    private volatile Map<String, AttributeAccess> attributes;
 
-    private Map<String, NotificationEntry> notifications;
+    private static final AtomicMapFieldUpdater<ConcreteResourceRegistration, String, NodeSubregistry> childrenUpdater = AtomicMapFieldUpdater.newMapUpdater(AtomicReferenceFieldUpdater.newUpdater(ConcreteResourceRegistration.class, Map.class, "children"));
+    private static final AtomicMapFieldUpdater<ConcreteResourceRegistration, String, OperationEntry> operationsUpdater = AtomicMapFieldUpdater.newMapUpdater(AtomicReferenceFieldUpdater.newUpdater(ConcreteResourceRegistration.class, Map.class, "operations"));
+    private static final AtomicMapFieldUpdater<ConcreteResourceRegistration, String, NotificationEntry> notificationsUpdater = AtomicMapFieldUpdater.newMapUpdater(AtomicReferenceFieldUpdater.newUpdater(ConcreteResourceRegistration.class, Map.class, "notifications"));
+    private static final AtomicMapFieldUpdater<ConcreteResourceRegistration, String, AttributeAccess> attributesUpdater = AtomicMapFieldUpdater.newMapUpdater(AtomicReferenceFieldUpdater.newUpdater(ConcreteResourceRegistration.class, Map.class, "attributes"));
 
     private final ResourceDefinition resourceDefinition;
     private final List<AccessConstraintDefinition> accessConstraintDefinitions;
 
-    // We assume at least 2 attrs, so just instantiate a hash map
-    private final Map<String, AttributeAccess> attributes = new HashMap<>();
+    private volatile Set<String> orderedChildTypes = Collections.emptySet();
 
-    private Set <String> orderedChildTypes;
-
-    private boolean runtimeOnly;
+    private volatile boolean runtimeOnly;
     private final boolean ordered;
     private final AccessConstraintUtilizationRegistry constraintUtilizationRegistry;
     private final CapabilityRegistry capabilityRegistry;
 
-    private Set<RuntimeCapability> capabilities;
+    private volatile Set<RuntimeCapability> capabilities = Collections.emptySet();
+
+    private volatile Set<RuntimeCapability> incorporatingCapabilities;
 
-    private Set<RuntimeCapability> incorporatingCapabilities;
+    /** Serializes updates; readers only take it to wait for {@link #initialized()} */
+    private final Lock writeLock = new ReentrantLock();
+    /** Set while the resource definition populates this registration */
+    private volatile boolean initializing;
 
-    private final Lock readLock;
-    private final Lock writeLock;
+    /** Cache key used for requests that do not specify a locale */
+    private static final Object NO_LOCALE = new Object();
+    /**
+     * Descriptions produced by a {@link DefaultResourceDescriptionProvider}, keyed by locale. Replaced with
+     * a new map whenever something the description depends on is (un)registered.
+     */
+    private volatile Map<Object, ModelNode> descriptionCache = new ConcurrentHashMap<>();
     /**
      * Can be {@code null}. In that case, the MMR will always register metrics.
      */
@@ -99,29 +125,33 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         this.runtimeOnly = definition.isRuntime();
         this.accessConstraintDefinitions = buildAccessConstraints();
         this.ordered = ordered;
-        if (parent == null) {
-            // For a root MRR we expect concurrent reads in critical performance code, i.e. boot
-            // So we use a read-write lock
-            ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock();
-            this.readLock = rwLock.readLock();
-            this.writeLock = rwLock.writeLock();
-        } else {
-            // For non-root MRRs we don't expect much in the way of concurrent reads in performance
-            // critical situations, so we want lock/unlock to be as simple and fast as possible
-            // So we just use a single non-r/w lock for both reads and writes
-            this.readLock = this.writeLock = new ReentrantLock();
-        }
-
+        childrenUpdater.clear(this);
+        operationsUpdater.clear(this);
+        notificationsUpdater.clear(this);
+        attributesUpdater.clear(this);
     }
 
     void beginInitialization() {
         writeLock.lock();
+        initializing = true;
     }
 
     void initialized() {
+        initializing = false;
         writeLock.unlock();
     }
 
+    /**
+     * Waits until the resource definition has finished populating this registration, so that readers never
+     * see it half registered. Once that is done this is a single volatile read.
+     */
+    private void awaitInitialization() {
+        if (initializing) {
+            writeLock.lock();
+            writeLock.unlock();
+        }
+    }
+
     @Override
     public int getMaxOccurs() {
         return resourceDefinition.getMaxOccurs();
@@ -135,12 +165,8 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
     @Override
     public boolean isRuntimeOnly() {
         checkPermission();
-        readLock.lock();
-        try {
-            return runtimeOnly;
-        } finally {
-            readLock.unlock();
-        }
+        awaitInitialization();
+        return runtimeOnly;
     }
 
     @Override
@@ -149,6 +175,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         writeLock.lock();
         try {
             this.runtimeOnly = runtimeOnly;
+            invalidateDescriptionCache();
         } finally {
             writeLock.unlock();
         }
@@ -176,12 +203,8 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
             return subregistry.getOrderedChildTypes(iterator, next.getValue());
         } else {
             checkPermission();
-            readLock.lock();
-            try {
-                return orderedChildTypes == null ? Collections.emptySet() : new HashSet<>(orderedChildTypes);
-            } finally {
-                readLock.unlock();
-            }
+            awaitInitialization();
+            return new HashSet<>(orderedChildTypes);
         }
     }
 
@@ -222,7 +245,9 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
             throw ControllerLogger.ROOT_LOGGER.nodeAlreadyRegistered(existing.getPathAddress().toCLIStyleString());
         }
         final NodeSubregistry child = getOrCreateSubregistry(address.getKey());
-        return child.registerChild(address.getValue(), resourceDefinition);
+        final ManagementResourceRegistration result = child.registerChild(address.getValue(), resourceDefinition);
+        invalidateDescriptionCache();
+        return result;
     }
 
     @Override
@@ -232,12 +257,10 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         OperationEntry entry = new OperationEntry(definition, handler, inherited);
         writeLock.lock();
         try {
-            if (operations == null) {
-                operations = new HashMap<>();
-            } else if (operations.containsKey(opName)) {
+            if (operationsUpdater.putIfAbsent(this, opName, entry) != null) {
                 throw alreadyRegistered("operation handler", opName);
             }
-            operations.put(opName, entry);
+            invalidateOperationEntryCache();
             if (constraintUtilizationRegistry != null) {
                 for (AccessConstraintDefinition acd : definition.getAccessConstraints()) {
                     constraintUtilizationRegistry.registerAccessConstraintOperationUtilization(acd.getKey(), getPathAddress(), opName);
@@ -265,6 +288,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                     }
                 }
                 subregistry.unregisterSubModel(address.getValue());
+                invalidateDescriptionCache();
             }
             if (constraintUtilizationRegistry != null) {
                 constraintUtilizationRegistry.unregisterAccessConstraintUtilizations(getPathAddress().append(address));
@@ -280,27 +304,18 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
             final NodeSubregistry subregistry;
             final OperationEntry inheritance;
             final PathElement next = iterator.next();
-            readLock.lock();
-            try {
-                subregistry = children == null ? null : children.get(next.getKey());
-                if (subregistry == null) {
-                    return null;
-                }
-                OperationEntry ourInherited = getInheritableOperationEntryLocked(operationName);
-                inheritance = ourInherited == null ? inherited : ourInherited;
-            } finally {
-                readLock.unlock();
+            awaitInitialization();
+            subregistry = childrenUpdater.get(this, next.getKey());
+            if (subregistry == null) {
+                return null;
             }
+            OperationEntry ourInherited = getInheritableOperationEntryInternal(operationName);
+            inheritance = ourInherited == null ? inherited : ourInherited;
             return subregistry.getOperationEntry(iterator, next.getValue(), operationName, inheritance);
         } else {
             checkPermission();
-            final OperationEntry entry;
-            readLock.lock();
-            try {
-                entry = operations == null ? null : operations.get(operationName);
-            } finally {
-                readLock.unlock();
-            }
+            awaitInitialization();
+            final OperationEntry entry = operationsUpdater.get(this, operationName);
             return entry == null ? inherited : entry;
         }
     }
@@ -308,17 +323,12 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
     @Override
     OperationEntry getInheritableOperationEntry(final String operationName) {
         checkPermission();
-        readLock.lock();
-        try {
-            return getInheritableOperationEntryLocked(operationName);
-        } finally {
-            readLock.unlock();
-        }
+        awaitInitialization();
+        return getInheritableOperationEntryInternal(operationName);
     }
 
-    // Only call with the read lock held
-    private OperationEntry getInheritableOperationEntryLocked(final String operationName) {
-        final OperationEntry entry = operations == null ? null : operations.get(operationName);
+    private OperationEntry getInheritableOperationEntryInternal(final String operationName) {
+        final OperationEntry entry = operationsUpdater.get(this, operationName);
         if (entry != null && entry.isInherited()) {
             return entry;
         }
@@ -330,14 +340,8 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
 
         if (!iterator.hasNext() ) {
             checkPermission();
-            readLock.lock();
-            try {
-                if (operations != null) {
-                    providers.putAll(operations);
-                }
-            } finally {
-                readLock.unlock();
-            }
+            awaitInitialization();
+            providers.putAll(operationsUpdater.get(this));
             if (inherited) {
                 getInheritedOperations(providers, true);
             }
@@ -358,17 +362,11 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
     @Override
     void getInheritedOperationEntries(final Map<String, OperationEntry> providers) {
         checkPermission();
-        readLock.lock();
-        try {
-            if (operations != null) {
-                for (final Map.Entry<String, OperationEntry> entry : operations.entrySet()) {
-                    if (entry.getValue().isInherited() && !providers.containsKey(entry.getKey())) {
-                        providers.put(entry.getKey(), entry.getValue());
-                    }
-                }
+        awaitInitialization();
+        for (final Map.Entry<String, OperationEntry> entry : operationsUpdater.get(this).entrySet()) {
+            if (entry.getValue().isInherited() && !providers.containsKey(entry.getKey())) {
+                providers.put(entry.getKey(), entry.getValue());
             }
-        } finally {
-            readLock.unlock();
         }
     }
 
@@ -377,9 +375,10 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         checkPermission();
         writeLock.lock();
         try {
-            if (operations == null || operations.remove(operationName) == null) {
+            if (operationsUpdater.remove(this, operationName) == null) {
                 throw operationNotRegisteredException(operationName, resourceDefinition.getPathElement());
             }
+            invalidateOperationEntryCache();
         } finally {
             writeLock.unlock();
         }
@@ -416,7 +415,8 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         checkPermission();
         writeLock.lock();
         try {
-            attributes.remove(attributeName);
+            attributesUpdater.remove(this, attributeName);
+            invalidateDescriptionCache();
         } finally {
             writeLock.unlock();
         }
@@ -429,16 +429,8 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         NotificationEntry entry = new NotificationEntry(notification.getDescriptionProvider(), inherited);
         writeLock.lock();
         try {
-            if (notifications == null) {
-                notifications = Collections.singletonMap(type, entry);
-            } else {
-                if (notifications.containsKey(type)) {
-                    throw alreadyRegistered(NOTIFICATION, type);
-                }
-                if (notifications.size() == 1) {
-                    notifications = new HashMap<>(notifications);
-                }
-                notifications.put(type, entry);
+            if (notificationsUpdater.putIfAbsent(this, type, entry) != null) {
+                throw alreadyRegistered(NOTIFICATION, type);
             }
         } finally {
             writeLock.unlock();
@@ -455,9 +447,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         checkPermission();
         writeLock.lock();
         try {
-            if (notifications != null) {
-                notifications.remove(notificationType);
-            }
+            notificationsUpdater.remove(this, notificationType);
         } finally {
             writeLock.unlock();
         }
@@ -498,11 +488,11 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         String attributeName = definition.getName();
         writeLock.lock();
         try {
-            if (attributes.containsKey(attributeName)) {
+            if (attributesUpdater.putIfAbsent(this, attributeName, aa) != null) {
                 throw alreadyRegistered("attribute", attributeName);
             }
-            attributes.put(attributeName, aa);
             registerAttributeAccessConstraints(definition);
+            invalidateDescriptionCache();
         } finally {
             writeLock.unlock();
         }
@@ -537,14 +527,8 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
 
         if (!iterator.hasNext() ) {
             checkPermission();
-            readLock.lock();
-            try {
-                if (notifications != null) {
-                    providers.putAll(notifications);
-                }
-            } finally {
-                readLock.unlock();
-            }
+            awaitInitialization();
+            providers.putAll(notificationsUpdater.get(this));
             if (inherited) {
                 getInheritedNotifications(providers, true);
             }
@@ -563,28 +547,18 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
     }
 
     private NodeSubregistry getSubregistry(String key) {
-        readLock.lock();
-        try {
-            return children == null ? null : children.get(key);
-        } finally {
-            readLock.unlock();
-        }
+        awaitInitialization();
+        return childrenUpdater.get(this, key);
     }
 
     @Override
     void getInheritedNotificationEntries(final Map<String, NotificationEntry> providers) {
         checkPermission();
-        readLock.lock();
-        try {
-            if (notifications != null) {
-                for (final Map.Entry<String, NotificationEntry> entry : notifications.entrySet()) {
-                    if (entry.getValue().isInherited() && !providers.containsKey(entry.getKey())) {
-                        providers.put(entry.getKey(), entry.getValue());
-                    }
-                }
+        awaitInitialization();
+        for (final Map.Entry<String, NotificationEntry> entry : notificationsUpdater.get(this).entrySet()) {
+            if (entry.getValue().isInherited() && !providers.containsKey(entry.getKey())) {
+                providers.put(entry.getKey(), entry.getValue());
             }
-        } finally {
-            readLock.unlock();
         }
     }
 
@@ -599,12 +573,8 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
             return subregistry.getCapabilities(iterator, next.getValue());
         } else {
             checkPermission();
-            readLock.lock();
-            try {
-                return capabilities == null ? Collections.emptySet() : Collections.unmodifiableSet(capabilities);
-            } finally {
-                readLock.unlock();
-            }
+            awaitInitialization();
+            return capabilities;
         }
     }
 
@@ -619,20 +589,12 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
             return subregistry.getIncorporatingCapabilities(iterator, next.getValue());
         } else {
             checkPermission();
-            readLock.lock();
-            try {
-                Set<RuntimeCapability> result;
-                if (incorporatingCapabilities != null) {
-                    result = incorporatingCapabilities;
-                } else if (capabilities != null && !capabilities.isEmpty()) {
-                    result = Collections.emptySet();
-                } else {
-                    result = null;
-                }
+            awaitInitialization();
+            final Set<RuntimeCapability> result = incorporatingCapabilities;
+            if (result != null) {
                 return result;
-            } finally {
-                readLock.unlock();
             }
+            return capabilities.isEmpty() ? null : Collections.emptySet();
         }
     }
 
@@ -644,6 +606,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
             throw ControllerLogger.ROOT_LOGGER.nodeAlreadyRegistered(existing.getPathAddress().toCLIStyleString());
         }
         getOrCreateSubregistry(address.getKey()).registerProxyController(address.getValue(), controller);
+        invalidateDescriptionCache();
     }
 
     @Override
@@ -651,12 +614,14 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         final NodeSubregistry subregistry = getSubregistry(address.getKey());
         if (subregistry != null) {
             subregistry.unregisterProxyController(address.getValue());
+            invalidateDescriptionCache();
         }
     }
 
     @Override
     public void registerAlias(PathElement address, AliasEntry alias, AbstractResourceRegistration target) {
         getOrCreateSubregistry(address.getKey()).registerAlias(address.getValue(), alias, target);
+        invalidateDescriptionCache();
     }
 
     @Override
@@ -664,6 +629,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         final NodeSubregistry subregistry = getSubregistry(address.getKey());
         if (subregistry != null) {
             subregistry.unregisterAlias(address.getValue());
+            invalidateDescriptionCache();
         }
     }
 
@@ -671,10 +637,10 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
     public void registerCapability(RuntimeCapability capability) {
         writeLock.lock();
         try {
-            if (capabilities == null) {
-                capabilities = new HashSet<>();
-            }
-            capabilities.add(capability);
+            final Set<RuntimeCapability> updated = new HashSet<>(capabilities);
+            updated.add(capability);
+            capabilities = Collections.unmodifiableSet(updated);
+            invalidateDescriptionCache();
             if (capabilityRegistry != null) {
                 capabilityRegistry.registerPossibleCapability(capability, getPathAddress());
             }
@@ -703,20 +669,14 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
 
         writeLock.lock();
         try {
-            final NodeSubregistry subregistry = children == null ? null : children.get(key);
+            final NodeSubregistry subregistry = childrenUpdater.get(this, key);
             if (subregistry != null) {
                 return subregistry;
             } else {
                 checkPermission();
                 final NodeSubregistry newRegistry = new NodeSubregistry(key, this, constraintUtilizationRegistry, capabilityRegistry);
-                if (children == null) {
-                    children = Collections.singletonMap(key, newRegistry);
-                } else {
-                    if (children.size() == 1) {
-                        children = new HashMap<>(children);
-                    }
-                    children.put(key, newRegistry);
-                }
+                childrenUpdater.put(this, key, newRegistry);
+                invalidateOperationEntryCache();
                 return newRegistry;
             }
         } finally {
@@ -735,7 +695,41 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
             return subregistry.getModelDescription(iterator, next.getValue());
         } else {
             checkPermission();
-            return resourceDefinition.getDescriptionProvider(this);
+            final DescriptionProvider provider = resourceDefinition.getDescriptionProvider(this);
+            // The output of the default provider depends only on the locale and on this registration,
+            // so it can be cached until something is (un)registered here
+            if (provider != null && provider.getClass() == DefaultResourceDescriptionProvider.class) {
+                return new CachingDescriptionProvider(provider);
+            }
+            return provider;
+        }
+    }
+
+    private void invalidateDescriptionCache() {
+        descriptionCache = new ConcurrentHashMap<>();
+    }
+
+    private class CachingDescriptionProvider implements DescriptionProvider {
+
+        private final DescriptionProvider delegate;
+
+        private CachingDescriptionProvider(DescriptionProvider delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public ModelNode getModelDescription(Locale locale) {
+            // Use the map current when we start, so a description computed while something
+            // is being (un)registered is discarded along with that map
+            final Map<Object, ModelNode> cache = descriptionCache;
+            final Object key = locale == null ? NO_LOCALE : locale;
+            ModelNode description = cache.get(key);
+            if (description == null) {
+                description = delegate.getModelDescription(locale);
+                cache.put(key, description);
+            }
+            // Callers are free to modify the description, so give them their own copy
+            return description.clone();
         }
     }
 
@@ -750,9 +744,8 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
             return subregistry.getAttributeNames(iterator, next.getValue());
         } else {
             checkPermission();
-            synchronized (this) {
-                return new HashSet<>(attributes.keySet());
-            }
+            awaitInitialization();
+            return new HashSet<>(attributesUpdater.get(this).keySet());
         }
     }
 
@@ -768,12 +761,8 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
             return subregistry.getAttributeAccess(iterator, next.getValue(), attributeName);
         } else {
             checkPermission();
-            readLock.lock();
-            try {
-                return attributes.get(attributeName);
-            } finally {
-                readLock.unlock();
-            }
+            awaitInitialization();
+            return attributesUpdater.get(this, attributeName);
         }
     }
 
@@ -788,15 +777,8 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
             return subregistry.getChildNames(iterator, next.getValue());
         } else {
             checkPermission();
-            readLock.lock();
-            try {
-                if (children != null) {
-                    return Collections.unmodifiableSet(children.keySet());
-                }
-                return Collections.emptySet();
-            } finally {
-                readLock.unlock();
-            }
+            awaitInitialization();
+            return childrenUpdater.getReadOnly(this).keySet();
         }
     }
 
@@ -811,21 +793,18 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
             return subregistry.getChildAddresses(iterator, next.getValue());
         } else {
             checkPermission();
-            readLock.lock();
-            try {
-                if (children != null) {
-                    final Set<PathElement> elements = new HashSet<PathElement>();
-                    for (final Map.Entry<String, NodeSubregistry> entry : children.entrySet()) {
-                        for (final String entryChild : entry.getValue().getChildNames()) {
-                            elements.add(PathElement.pathElement(entry.getKey(), entryChild));
-                        }
-                    }
-                    return elements;
+            awaitInitialization();
+            final Map<String, NodeSubregistry> snapshot = childrenUpdater.get(this);
+            if (snapshot.isEmpty()) {
+                return Collections.emptySet();
+            }
+            final Set<PathElement> elements = new HashSet<PathElement>();
+            for (final Map.Entry<String, NodeSubregistry> entry : snapshot.entrySet()) {
+                for (final String entryChild : entry.getValue().getChildNames()) {
+                    elements.add(PathElement.pathElement(entry.getKey(), entryChild));
                 }
-            } finally {
-                readLock.unlock();
             }
-            return Collections.emptySet();
+            return elements;
         }
     }
 
@@ -861,15 +840,9 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 subregistry.getProxyControllers(iterator, next.getValue(), controllers);
             }
         } else {
-            readLock.lock();
-            try {
-                if (children != null) {
-                    for (NodeSubregistry subregistry : children.values()) {
-                        subregistry.getProxyControllers(iterator, null, controllers);
-                    }
-                }
-            } finally {
-                readLock.unlock();
+            awaitInitialization();
+            for (NodeSubregistry subregistry : childrenUpdater.get(this).values()) {
+                subregistry.getProxyControllers(iterator, null, controllers);
             }
         }
     }
@@ -908,16 +881,12 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
     protected void setOrderedChild(String type) {
         writeLock.lock();
         try {
-            if (orderedChildTypes == null) {
-                orderedChildTypes = Collections.singleton(type);
-            } else {
-                if (orderedChildTypes.size() == 1) {
-                    orderedChildTypes = new HashSet<>(orderedChildTypes);
-                }
-                if (!orderedChildTypes.add(type)) {
-                    throw alreadyRegistered("Ordered child", type);
-                }
+            if (orderedChildTypes.contains(type)) {
+                throw alreadyRegistered("Ordered child", type);
             }
+            final Set<String> updated = new HashSet<>(orderedChildTypes);
+            updated.add(type);
+            orderedChildTypes = Collections.unmodifiableSet(updated);
         } finally {
             writeLock.unlock();
         }
@@ -100,6 +100,7 @@ final class NodeSubregistry {
             if (existingRegistry != null) {
                 throw ControllerLogger.ROOT_LOGGER.nodeAlreadyRegistered(getLocationString(elementValue));
             }
+            getParent().invalidateOperationEntryCache();
 
             provider.registerAttributes(newRegistry);
             provider.registerOperations(newRegistry);
@@ -132,6 +133,7 @@ final class NodeSubregistry {
         if (appearingRegistry != null) {
             throw ControllerLogger.ROOT_LOGGER.nodeAlreadyRegistered(getLocationString(elementValue));
         }
+        getParent().invalidateOperationEntryCache();
         //register(elementValue, newRegistry);
         return newRegistry;
     }
@@ -139,6 +141,7 @@ final class NodeSubregistry {
     void unregisterProxyController(final String elementValue) {
         checkPermission();
         childRegistriesUpdater.remove(this, elementValue);
+        getParent().invalidateOperationEntryCache();
     }
 
     public AliasResourceRegistration registerAlias(final String elementValue, AliasEntry aliasEntry, AbstractResourceRegistration target) {
@@ -147,12 +150,14 @@ final class NodeSubregistry {
         if (existingRegistry != null) {
             throw ControllerLogger.ROOT_LOGGER.nodeAlreadyRegistered(getLocationString(elementValue));
         }
+        getParent().invalidateOperationEntryCache();
         return newRegistry;
     }
 
     public void unregisterAlias(final String elementValue) {
         checkPermission();
         childRegistriesUpdater.remove(this, elementValue);
+        getParent().invalidateOperationEntryCache();
     }
 
 
@@ -160,6 +165,7 @@ final class NodeSubregistry {
         checkPermission();
         AbstractResourceRegistration rr = childRegistriesUpdater.remove(this, elementValue);
         if (rr != null) {
+            getParent().invalidateOperationEntryCache();
             // We want to remove the possible capabilities.
             // We've removed the MRR so the normal getCapabilities() won't work as it
             // relies on walking the tree from the root. So we just use the local call
@@ -168,6 +168,7 @@ final class ProxyControllerRegistration extends AbstractResourceRegistration imp
                 new OperationEntry(definition, handler, inherited)) != null) {
             throw alreadyRegistered("operation handler", definition.getName());
         }
+        invalidateOperationEntryCache();
     }
 
     @Override
@@ -175,6 +176,7 @@ final class ProxyControllerRegistration extends AbstractResourceRegistration imp
         if (operationsUpdater.remove(this, operationName) == null) {
             throw operationNotRegisteredException(operationName, proxyController.getProxyNodeAddress().getLastElement());
         }
+        invalidateOperationEntryCache();
     }
 
     @Override
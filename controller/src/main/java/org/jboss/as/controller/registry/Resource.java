@@ -361,7 +361,7 @@ public interface Resource extends Cloneable {
                         continue;
                     }
                     model.get(childType).setEmptyObject();
-                    for (final ResourceEntry entry : resource.getChildren(childType)) {
+                    for (final ResourceEntry entry : getChildrenForRead(resource, childType)) {
                         if (filter.accepts(address.append(entry.getPathElement()), resource)) {
                             ImmutableManagementResourceRegistration childMrr =
                                     mrr == null ? null : mrr.getSubModel(address.append(entry.getPathElement()));
@@ -373,6 +373,18 @@ public interface Resource extends Cloneable {
             return model;
         }
 
+        private static Set<ResourceEntry> getChildrenForRead(final Resource resource, final String childType) {
+            // Avoid copying children a working copy still shares with the published model just to read them
+            Resource target = resource;
+            if (target instanceof AbstractModelResource.DelegateResource) {
+                target = ((AbstractModelResource.DelegateResource) target).delegate;
+            }
+            if (target instanceof AbstractModelResource) {
+                return ((AbstractModelResource) target).getChildrenForRead(childType);
+            }
+            return resource.getChildren(childType);
+        }
+
         private static Set<String> getNonIgnoredChildTypes(ImmutableManagementResourceRegistration mrr) {
             Set<String> result = new HashSet<>();
             for (PathElement pe : mrr.getChildAddresses(PathAddress.EMPTY_ADDRESS)) {
@@ -0,0 +1,68 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+/**
+ * Utilities for creating a working copy of a published {@link Resource} tree that shares unmodified
+ * subtrees with the published tree, so an update only pays for copying the resources it actually touches
+ * rather than the whole tree.
+ *
+ * <p>Children of the working copy are copied the first time they are retrieved from their parent, so any
+ * resource obtained from the working copy can be safely modified. The source tree must not be modified
+ * once a working copy has been created from it. After the working copy is {@link #publish(Resource) published}
+ * it must be treated as read-only as well.</p>
+ */
+public final class ResourceWorkingCopy {
+
+    private ResourceWorkingCopy() {
+    }
+
+    /**
+     * Creates a working copy of a published resource tree. If the root is not a standard resource
+     * implementation, this is equivalent to {@link Resource#clone()}.
+     *
+     * @param published the root of the published tree. Cannot be {@code null}
+     * @return the root of the working copy. Will not return {@code null}
+     */
+    public static Resource create(Resource published) {
+        if (published instanceof AbstractModelResource) {
+            return ((AbstractModelResource) published).copyForUpdate(new AbstractModelResource.WorkingCopy());
+        }
+        return published.clone();
+    }
+
+    /**
+     * Records that a working copy created via {@link #create(Resource)} has been published and will no longer
+     * be modified, so reads against it no longer need to copy children it shares with its source.
+     *
+     * @param workingCopy the root of the working copy. Cannot be {@code null}
+     */
+    public static void publish(Resource workingCopy) {
+        if (workingCopy instanceof AbstractModelResource) {
+            AbstractModelResource.WorkingCopy wc = ((AbstractModelResource) workingCopy).getWorkingCopy();
+            if (wc != null) {
+                wc.publish();
+            }
+        }
+    }
+}
@@ -415,6 +415,39 @@ public class ExpressionResolverUnitTestCase {
         assertEquals("default", ExpressionResolver.TEST_RESOLVER.resolveExpressions(expression("${test.property1,test.property2:default}")).asString());
     }
 
+    /**
+     * Test that repeated resolution of the same expression sees changes to any system property
+     * it depends upon, including ones only read as part of a nested default.
+     */
+    @Test
+    public void testRepeatedResolutionTracksSystemPropertyChanges() throws OperationFailedException {
+        ExpressionResolver resolver = new ExpressionResolverImpl() {};
+        ModelNode expression = expression("${test.cache.outer:${test.cache.inner:default}}");
+        try {
+            assertEquals("default", resolver.resolveExpressions(expression).asString());
+            assertEquals("default", resolver.resolveExpressions(expression).asString());
+
+            System.setProperty("test.cache.inner", "inner");
+            assertEquals("inner", resolver.resolveExpressions(expression).asString());
+
+            System.setProperty("test.cache.outer", "outer");
+            assertEquals("outer", resolver.resolveExpressions(expression).asString());
+
+            System.setProperty("test.cache.outer", "${test.cache.inner}");
+            assertEquals("inner", resolver.resolveExpressions(expression).asString());
+
+            System.setProperty("test.cache.inner", "changed");
+            assertEquals("changed", resolver.resolveExpressions(expression).asString());
+
+            System.clearProperty("test.cache.outer");
+            System.clearProperty("test.cache.inner");
+            assertEquals("default", resolver.resolveExpressions(expression).asString());
+        } finally {
+            System.clearProperty("test.cache.outer");
+            System.clearProperty("test.cache.inner");
+        }
+    }
+
     @Test
     public void testExpressionWithDollarEndingDefaultValue() throws OperationFailedException {
         try {
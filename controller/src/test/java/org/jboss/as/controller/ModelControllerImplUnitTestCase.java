@@ -29,6 +29,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CHI
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CORE_SERVICE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MANAGEMENT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MANAGEMENT_OPERATIONS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
@@ -56,12 +57,18 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUC
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -403,6 +410,89 @@ public class ModelControllerImplUnitTestCase {
         notificationHandler.validate(0);
     }
 
+    @Test
+    public void testConfigurationGeneration() throws Exception {
+        final ModelNode readResource = Util.createEmptyOperation(READ_RESOURCE_OPERATION, CHILD_ONE);
+        final String generation = controller.getConfigurationGeneration(readResource);
+        assertNotNull(generation);
+        assertEquals(generation, controller.getConfigurationGeneration(Util.getReadAttributeOperation(CHILD_ONE, "attribute1")));
+        assertEquals(generation, controller.getConfigurationGeneration(Util.createEmptyOperation(READ_RESOURCE_OPERATION, PathAddress.EMPTY_ADDRESS)));
+
+        final ModelNode includeRuntime = readResource.clone();
+        includeRuntime.get(INCLUDE_RUNTIME).set(true);
+        assertNull(controller.getConfigurationGeneration(includeRuntime));
+        assertNull(controller.getConfigurationGeneration(Util.createEmptyOperation(READ_CHILDREN_NAMES_OPERATION, CHILD_ONE)));
+        assertNull(controller.getConfigurationGeneration(Util.createEmptyOperation(READ_RESOURCE_OPERATION, PathAddress.pathAddress("child", "none").append("grandchild", "x"))));
+
+        // Attributes with a custom read handler are not read from the model
+        final PathAddress computed = PathAddress.pathAddress("computed", "one");
+        assertNull(controller.getConfigurationGeneration(Util.getReadAttributeOperation(computed, "value")));
+        assertNull(controller.getConfigurationGeneration(Util.createEmptyOperation(READ_RESOURCE_OPERATION, computed)));
+        final ModelNode recursive = Util.createEmptyOperation(READ_RESOURCE_OPERATION, PathAddress.EMPTY_ADDRESS);
+        recursive.get(RECURSIVE).set(true);
+        assertNull(controller.getConfigurationGeneration(recursive));
+
+        // Reads do not change the generation, writes do
+        controller.execute(readResource, null, null, null);
+        assertEquals(generation, controller.getConfigurationGeneration(readResource));
+        ModelNode result = controller.execute(getOperation("good", "attr1", 5), null, null, null);
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        final String newGeneration = controller.getConfigurationGeneration(readResource);
+        assertNotNull(newGeneration);
+        assertNotEquals(generation, newGeneration);
+    }
+
+    @Test
+    public void testCachedReadValidation() throws Exception {
+        final ModelNode readResource = Util.createEmptyOperation(READ_RESOURCE_OPERATION, CHILD_ONE);
+        final String generation = controller.getConfigurationGeneration(readResource);
+        assertTrue(controller.isCachedReadValid(readResource, generation));
+        assertTrue(controller.isCachedReadValid(Util.getReadAttributeOperation(CHILD_ONE, "attribute1"), generation));
+        assertFalse(controller.isCachedReadValid(readResource, null));
+
+        // The resource type is registered, so there is a generation, but the resource itself does not exist
+        final ModelNode missing = Util.createEmptyOperation(READ_RESOURCE_OPERATION, PathAddress.pathAddress("child", "three"));
+        assertEquals(generation, controller.getConfigurationGeneration(missing));
+        assertFalse(controller.isCachedReadValid(missing, generation));
+
+        ModelNode result = controller.execute(getOperation("good", "attr1", 5), null, null, null);
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        assertFalse(controller.isCachedReadValid(readResource, generation));
+        assertTrue(controller.isCachedReadValid(readResource, controller.getConfigurationGeneration(readResource)));
+    }
+
+    @Test
+    public void testReadSeesModelVersionAtStart() throws Exception {
+        final CountDownLatch reading = new CountDownLatch(1);
+        final CountDownLatch written = new CountDownLatch(1);
+        BlockingReadHandler.reading = reading;
+        BlockingReadHandler.written = written;
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<ModelNode> read = executor.submit(() ->
+                    controller.execute(Util.createEmptyOperation("blocking-read", PathAddress.EMPTY_ADDRESS), null, null, null));
+            assertTrue(reading.await(30, TimeUnit.SECONDS));
+
+            // Write while the read is between its two steps
+            ModelNode result = controller.execute(getOperation("good", "attr1", 5), null, null, null);
+            assertEquals(SUCCESS, result.get(OUTCOME).asString());
+            written.countDown();
+
+            result = read.get(30, TimeUnit.SECONDS);
+            assertEquals(result.toString(), SUCCESS, result.get(OUTCOME).asString());
+            assertEquals(1, result.get(RESULT, "first").asInt());
+            assertEquals(1, result.get(RESULT, "second").asInt());
+        } finally {
+            written.countDown();
+            executor.shutdownNow();
+        }
+
+        // Reads started after the write see its result
+        ModelNode result = controller.execute(Util.getReadAttributeOperation(PathAddress.EMPTY_ADDRESS, "attr1"), null, null, null);
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        assertEquals(5, result.get(RESULT).asInt());
+    }
+
     @Test
     public void testGlobal() throws Exception {
 
@@ -708,6 +798,9 @@ public class ModelControllerImplUnitTestCase {
             rootRegistration.registerOperationHandler(getOD("remove-dependent-service"), new ModelControllerImplUnitTestCase.RemoveDependentServiceHandler(),true);
             rootRegistration.registerOperationHandler(getOD("read-wildcards"), new ModelControllerImplUnitTestCase.WildcardReadHandler(),true);
             rootRegistration.registerOperationHandler(getOD("invalid-service-update"), new ModelControllerImplUnitTestCase.InvalidServiceUpdateHandler(),true);
+            rootRegistration.registerOperationHandler(new SimpleOperationDefinitionBuilder("blocking-read", new NonResolvingResourceDescriptionResolver())
+                    .setReadOnly()
+                    .build(), new ModelControllerImplUnitTestCase.BlockingReadHandler(), true);
 
             GlobalOperationHandlers.registerGlobalOperations(rootRegistration, processType);
 
@@ -722,6 +815,13 @@ public class ModelControllerImplUnitTestCase {
             ManagementResourceRegistration childRegistration = rootRegistration.registerSubModel(childResource);
             childRegistration.registerReadOnlyAttribute(TestUtils.createNillableAttribute("attribute1", ModelType.INT), null);
             childRegistration.registerReadOnlyAttribute(TestUtils.createNillableAttribute("attribute2", ModelType.INT), null);
+
+            ManagementResourceRegistration computedRegistration = rootRegistration.registerSubModel(new SimpleResourceDefinition(
+                    PathElement.pathElement("computed"),
+                    new NonResolvingResourceDescriptionResolver()
+            ));
+            computedRegistration.registerReadOnlyAttribute(TestUtils.createNillableAttribute("value", ModelType.INT),
+                    (context, operation) -> context.getResult().set(1));
         }
 
     }
@@ -1149,6 +1249,36 @@ public class ModelControllerImplUnitTestCase {
         }
     }
 
+    /**
+     * Reads {@code attr1} of the root resource in two steps, waiting between them until {@link #written} is released.
+     */
+    static final class BlockingReadHandler implements OperationStepHandler {
+
+        static volatile CountDownLatch reading;
+        static volatile CountDownLatch written;
+
+        @Override
+        public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            context.getResult().get("first").set(context.readResource(PathAddress.EMPTY_ADDRESS, false).getModel().get("attr1"));
+            context.addStep(new OperationStepHandler() {
+                @Override
+                public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+                    reading.countDown();
+                    try {
+                        if (!written.await(30, TimeUnit.SECONDS)) {
+                            throw new OperationFailedException("timed out waiting for the write");
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new OperationFailedException(e.toString());
+                    }
+                    context.getResult().get("second").set(context.readResource(PathAddress.EMPTY_ADDRESS, false).getModel().get("attr1"));
+                }
+            }, OperationContext.Stage.MODEL);
+        }
+
+    }
+
     static final class WildcardReadHandler implements OperationStepHandler {
 
         @Override
@@ -22,8 +22,10 @@
 package org.jboss.as.controller;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
+import org.jboss.dmr.ModelNode;
 import org.junit.Test;
 
 /**
@@ -92,4 +94,24 @@ public class PathElementTestCase {
             }
         }
     }
+
+    @Test
+    public void testParsedElementsAreShared() {
+        ModelNode address = new ModelNode();
+        address.add("subsystem", "test");
+        address.add("child", "[a]");
+        PathAddress first = PathAddress.pathAddress(address);
+        PathAddress second = PathAddress.pathAddress(address);
+        assertEquals(first, second);
+        assertSame(first.getElement(0), second.getElement(0));
+        assertSame(first.getElement(1), second.getElement(1));
+        assertEquals("a", first.getLastElement().getValue());
+        assertEquals(first, PathAddress.pathAddress(PathElement.pathElement("subsystem", "test"), PathElement.pathElement("child", "[a]")));
+        try {
+            PathElement.intern("1", "test");
+            fail("key 1 should be invalid");
+        } catch (IllegalArgumentException e) {
+            // should reach here
+        }
+    }
 }
@@ -0,0 +1,244 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.extension;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CHILD_TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_CHILDREN_NAMES_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUNTIME_NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.BootContext;
+import org.jboss.as.controller.ManagementModel;
+import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ProcessType;
+import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
+import org.jboss.as.controller.RunningMode;
+import org.jboss.as.controller.RunningModeControl;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.TestModelControllerService;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.global.GlobalNotifications;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceName;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that the add operations of deployments booted in parallel still see each other, so a runtime name used by
+ * more than one deployment fails the boot as it does when the deployments are booted serially. Lives in this package
+ * so the test extension add handler can skip loading the extension module.
+ */
+public class ParallelDeploymentBootTestCase {
+
+    private static final AttributeDefinition MODULE = new SimpleAttributeDefinition("module", ModelType.STRING, true);
+    private static final AttributeDefinition RUNTIME_NAME_ATTRIBUTE = new SimpleAttributeDefinition(RUNTIME_NAME, ModelType.STRING, true);
+
+    private ServiceContainer container;
+    private ExecutorService executor;
+
+    @Before
+    public void setup() {
+        container = ServiceContainer.Factory.create("test");
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void shutdown() throws InterruptedException {
+        container.shutdown();
+        container.awaitTermination(5, TimeUnit.SECONDS);
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testDistinctRuntimeNames() throws Exception {
+        DeploymentBootControllerService svc = boot(deploymentAdd("a.war", "a.war"), deploymentAdd("b.war", "b.war"),
+                deploymentAdd("c.war", "app.war"), deploymentAdd("d.war", "d.war"));
+        assertTrue(svc.bootSucceeded);
+        // Each add ran on the executor rather than the boot thread
+        assertEquals(4, svc.addThreads.size());
+        assertFalse(svc.addThreads.contains(svc.bootThread));
+
+        ModelNode op = Util.createEmptyOperation(READ_CHILDREN_NAMES_OPERATION, PathAddress.EMPTY_ADDRESS);
+        op.get(CHILD_TYPE).set(DEPLOYMENT);
+        ModelNode result = svc.getValue().execute(op, null, null, null);
+        assertEquals(SUCCESS, result.get(OUTCOME).asString());
+        // The configuration order of the deployments is kept
+        assertEquals(Arrays.asList("a.war", "b.war", "c.war", "d.war"), toStrings(result.get(RESULT)));
+    }
+
+    @Test
+    public void testConflictingRuntimeNames() throws Exception {
+        DeploymentBootControllerService svc = boot(deploymentAdd("a.war", "app.war"), deploymentAdd("b.war", "b.war"),
+                deploymentAdd("c.war", "app.war"), deploymentAdd("d.war", "d.war"));
+        assertFalse(svc.bootSucceeded);
+    }
+
+    private DeploymentBootControllerService boot(ModelNode... deploymentAdds) throws InterruptedException {
+        List<ModelNode> bootOps = new ArrayList<>();
+        bootOps.add(Util.createAddOperation(PathAddress.pathAddress(EXTENSION, "org.test.extension")));
+        bootOps.addAll(Arrays.asList(deploymentAdds));
+        DeploymentBootControllerService svc = new DeploymentBootControllerService(bootOps);
+        ServiceBuilder<ModelController> builder = container.subTarget().addService(ServiceName.of("ModelController"), svc);
+        builder.addInjection(svc.getExecutorServiceInjector(), executor);
+        builder.install();
+        svc.awaitStartup(30, TimeUnit.SECONDS);
+        return svc;
+    }
+
+    private static ModelNode deploymentAdd(String name, String runtimeName) {
+        ModelNode op = Util.createAddOperation(PathAddress.pathAddress(DEPLOYMENT, name));
+        op.get(RUNTIME_NAME).set(runtimeName);
+        return op;
+    }
+
+    private static List<String> toStrings(ModelNode list) {
+        List<String> result = new ArrayList<>();
+        for (ModelNode element : list.asList()) {
+            result.add(element.asString());
+        }
+        return result;
+    }
+
+    private static class DeploymentBootControllerService extends TestModelControllerService {
+
+        private final List<ModelNode> bootOps;
+        private final Set<Thread> addThreads = ConcurrentHashMap.newKeySet();
+        private volatile Thread bootThread;
+        private volatile boolean bootSucceeded;
+
+        DeploymentBootControllerService(List<ModelNode> bootOps) {
+            super(ProcessType.STANDALONE_SERVER);
+            this.bootOps = bootOps;
+        }
+
+        @Override
+        protected void boot(BootContext context) throws ConfigurationPersistenceException {
+            bootThread = Thread.currentThread();
+            bootSucceeded = boot(bootOps, false);
+            finishBoot();
+        }
+
+        @Override
+        protected void initModel(ManagementModel managementModel, Resource modelControllerResource) {
+            ManagementResourceRegistration rootRegistration = managementModel.getRootResourceRegistration();
+            GlobalOperationHandlers.registerGlobalOperations(rootRegistration, processType);
+            GlobalNotifications.registerGlobalNotifications(rootRegistration, processType);
+
+            rootRegistration.registerSubModel(new SimpleResourceDefinition(PathElement.pathElement(EXTENSION),
+                    new NonResolvingResourceDescriptionResolver(), new TestExtensionAddHandler(), ReloadRequiredRemoveStepHandler.INSTANCE) {
+                @Override
+                public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+                    resourceRegistration.registerReadOnlyAttribute(MODULE, null);
+                }
+            });
+            rootRegistration.registerSubModel(new SimpleResourceDefinition(PathElement.pathElement(DEPLOYMENT),
+                    new NonResolvingResourceDescriptionResolver(), new DeploymentAddHandler(addThreads), ReloadRequiredRemoveStepHandler.INSTANCE) {
+                @Override
+                public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+                    resourceRegistration.registerReadOnlyAttribute(RUNTIME_NAME_ATTRIBUTE, null);
+                }
+            });
+        }
+    }
+
+    /**
+     * Mirrors the server's deployment add handler: the uniqueness of the runtime name is checked in a later model step,
+     * against the deployments added so far.
+     */
+    private static class DeploymentAddHandler implements OperationStepHandler {
+
+        private final Set<Thread> addThreads;
+
+        private DeploymentAddHandler(Set<Thread> addThreads) {
+            this.addThreads = addThreads;
+        }
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            addThreads.add(Thread.currentThread());
+            context.createResource(PathAddress.EMPTY_ADDRESS).getModel().get(RUNTIME_NAME).set(operation.get(RUNTIME_NAME));
+            context.addStep(new OperationStepHandler() {
+                @Override
+                public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                    String name = context.getCurrentAddressValue();
+                    String runtimeName = context.readResource(PathAddress.EMPTY_ADDRESS).getModel().get(RUNTIME_NAME).asString();
+                    for (Resource.ResourceEntry entry : context.readResourceFromRoot(PathAddress.EMPTY_ADDRESS).getChildren(DEPLOYMENT)) {
+                        if (!name.equals(entry.getName()) && runtimeName.equals(entry.getModel().get(RUNTIME_NAME).asString())) {
+                            throw new OperationFailedException(String.format("Runtime name %s is already used by %s", runtimeName, entry.getName()));
+                        }
+                    }
+                }
+            }, OperationContext.Stage.MODEL);
+        }
+    }
+
+    private static class TestExtensionAddHandler extends ExtensionAddHandler {
+
+        private TestExtensionAddHandler() {
+            super(new ExtensionRegistry(ProcessType.STANDALONE_SERVER, new RunningModeControl(RunningMode.NORMAL)), true,
+                    ExtensionRegistryType.SERVER, null);
+        }
+
+        @Override
+        void initializeExtension(String module, ManagementResourceRegistration rootRegistration) {
+            // There is no module to load
+        }
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            context.createResource(PathAddress.EMPTY_ADDRESS).getModel().get(MODULE.getName()).set(context.getCurrentAddressValue());
+        }
+    }
+}
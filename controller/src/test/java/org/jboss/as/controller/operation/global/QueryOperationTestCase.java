@@ -0,0 +1,155 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.operation.global;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.QUERY;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WHERE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.AbstractAddStepHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ManagementModel;
+import org.jboss.as.controller.ModelOnlyWriteAttributeHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
+import org.jboss.as.controller.ResourceBuilder;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.global.GlobalNotifications;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.test.AbstractControllerTestBase;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the {@code query} operation, including filtering on indexed attributes.
+ */
+public class QueryOperationTestCase extends AbstractControllerTestBase {
+
+    private static final AttributeDefinition ENABLED = SimpleAttributeDefinitionBuilder.create("enabled", ModelType.BOOLEAN, true)
+            .setDefaultValue(new ModelNode(true))
+            .setIndexed()
+            .build();
+    private static final AttributeDefinition NAME = SimpleAttributeDefinitionBuilder.create("name", ModelType.STRING, true)
+            .build();
+    private static final AttributeDefinition READS = SimpleAttributeDefinitionBuilder.create("reads", ModelType.INT, true)
+            .setStorageRuntime()
+            .build();
+
+    private static final PathElement CHILD = PathElement.pathElement("child");
+    private static final PathAddress ALL_CHILDREN = PathAddress.pathAddress(CHILD);
+
+    private static final AtomicInteger resourceReads = new AtomicInteger();
+
+    @Override
+    protected void initModel(ManagementModel managementModel) {
+        ManagementResourceRegistration rootRegistration = managementModel.getRootResourceRegistration();
+        GlobalOperationHandlers.registerGlobalOperations(rootRegistration, processType);
+        GlobalNotifications.registerGlobalNotifications(rootRegistration, processType);
+
+        rootRegistration.registerSubModel(ResourceBuilder.Factory.create(CHILD, new NonResolvingResourceDescriptionResolver())
+                .setAddOperation(new AbstractAddStepHandler(ENABLED, NAME))
+                .setRemoveOperation(ReloadRequiredRemoveStepHandler.INSTANCE)
+                .addReadWriteAttribute(ENABLED, null, new ModelOnlyWriteAttributeHandler(ENABLED))
+                .addReadWriteAttribute(NAME, null, new ModelOnlyWriteAttributeHandler(NAME))
+                .addMetric(READS, (context, operation) -> context.getResult().set(resourceReads.incrementAndGet()))
+                .build());
+    }
+
+    @Before
+    public void setup() throws Exception {
+        addChild("a", false, "one");
+        addChild("b", true, "two");
+        addChild("c", null, "one");
+        resourceReads.set(0);
+    }
+
+    @Test
+    public void testQueryIndexedAttribute() throws Exception {
+        Assert.assertEquals(names("a"), query("enabled", new ModelNode(false)));
+        Assert.assertEquals(1, resourceReads.get());
+        // the filter value is converted to the attribute type, and the default value is indexed
+        Assert.assertEquals(names("b", "c"), query("enabled", new ModelNode("true")));
+    }
+
+    @Test
+    public void testQueryNonIndexedAttribute() throws Exception {
+        Assert.assertEquals(names("a", "c"), query("name", new ModelNode("one")));
+        Assert.assertEquals(3, resourceReads.get());
+    }
+
+    @Test
+    public void testIndexFollowsModelChanges() throws Exception {
+        Assert.assertEquals(names("a"), query("enabled", new ModelNode(false)));
+
+        ModelNode write = createOperation(WRITE_ATTRIBUTE_OPERATION, PathAddress.pathAddress(CHILD.getKey(), "b"));
+        write.get("name").set(ENABLED.getName());
+        write.get("value").set(false);
+        executeCheckNoFailure(write);
+        Assert.assertEquals(names("a", "b"), query("enabled", new ModelNode(false)));
+
+        executeCheckNoFailure(createOperation("remove", PathAddress.pathAddress(CHILD.getKey(), "a")));
+        Assert.assertEquals(names("b"), query("enabled", new ModelNode(false)));
+
+        addChild("d", false, "two");
+        Assert.assertEquals(names("b", "d"), query("enabled", new ModelNode(false)));
+    }
+
+    private void addChild(String name, Boolean enabled, String nameAttribute) throws Exception {
+        ModelNode add = createOperation("add", PathAddress.pathAddress(CHILD.getKey(), name));
+        if (enabled != null) {
+            add.get(ENABLED.getName()).set(enabled);
+        }
+        add.get(NAME.getName()).set(nameAttribute);
+        executeCheckNoFailure(add);
+    }
+
+    private Set<String> query(String attribute, ModelNode value) throws Exception {
+        ModelNode query = createOperation(QUERY, ALL_CHILDREN);
+        query.get(WHERE, attribute).set(value);
+        Set<String> result = new TreeSet<>();
+        for (ModelNode item : executeForResult(query).asList()) {
+            Assert.assertTrue(item.hasDefined(RESULT));
+            result.add(PathAddress.pathAddress(item.get("address")).getLastElement().getValue());
+        }
+        return result;
+    }
+
+    private static Set<String> names(String... names) {
+        Set<String> result = new TreeSet<>();
+        for (String name : names) {
+            result.add(name);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ControlledProcessState;
+import org.jboss.as.controller.ManagementModel;
+import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.ModelOnlyWriteAttributeHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ProcessType;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.TestModelControllerService;
+import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.global.GlobalNotifications;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceName;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link GroupCommitWriter}, through the operations of a model controller, whose commits run with the
+ * controller lock held.
+ */
+public class GroupCommitWriterTestCase {
+
+    private static final long WINDOW_MILLIS = 2000;
+    private static final AttributeDefinition VALUE = SimpleAttributeDefinitionBuilder.create("value", ModelType.INT, true).build();
+
+    private File configDir;
+    private CountingConfigurationFile configurationFile;
+    private GroupCommitPersister persister;
+    private ServiceContainer container;
+    private ModelController controller;
+
+    @Before
+    public void setup() throws Exception {
+        configDir = new File("target", "group-commit-test");
+        configDir.mkdirs();
+        Files.write(new File(configDir, "standard.xml").toPath(), "std".getBytes(StandardCharsets.UTF_8));
+        configurationFile = new CountingConfigurationFile(configDir);
+        configurationFile.successfulBoot();
+        persister = new GroupCommitPersister(configurationFile, new GroupCommitWriter(WINDOW_MILLIS));
+
+        container = ServiceContainer.Factory.create("test");
+        GroupCommitControllerService svc = new GroupCommitControllerService(persister);
+        container.subTarget().addService(ServiceName.of("ModelController"), svc).install();
+        svc.awaitStartup(30, TimeUnit.SECONDS);
+        controller = svc.getValue();
+        configurationFile.writes.set(0);
+    }
+
+    @After
+    public void shutdown() throws Exception {
+        container.shutdown();
+        container.awaitTermination(5, TimeUnit.SECONDS);
+        try (Stream<Path> paths = Files.walk(configDir.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void testWriteDurableOnReturn() throws Exception {
+        write(1);
+        assertEquals(1, configurationFile.writes.get());
+        assertEquals(persister.lastStored, readConfigurationFile());
+    }
+
+    @Test
+    public void testConcurrentWritesShareOneFileWrite() throws Exception {
+        final int count = 5;
+        final ExecutorService executor = Executors.newFixedThreadPool(count);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                final int value = i;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    write(value);
+                    // The operation completes only once its change is in the file
+                    return configurationFile.writes.get();
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : results) {
+                assertEquals(Integer.valueOf(1), result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        // Each operation committed within the window opened by the first one, while the others waited for it
+        assertEquals(1, configurationFile.writes.get());
+        assertEquals(persister.lastStored, readConfigurationFile());
+    }
+
+    private void write(int value) {
+        ModelNode response = controller.execute(Util.getWriteAttributeOperation(PathAddress.EMPTY_ADDRESS, VALUE.getName(), value),
+                null, null, null);
+        assertEquals(response.toString(), SUCCESS, response.get(OUTCOME).asString());
+    }
+
+    private String readConfigurationFile() throws IOException {
+        return new String(Files.readAllBytes(configurationFile.getMainFile().toPath()), StandardCharsets.UTF_8);
+    }
+
+    private static class CountingConfigurationFile extends ConfigurationFile {
+
+        private final AtomicInteger writes = new AtomicInteger();
+
+        CountingConfigurationFile(File configDir) {
+            super(configDir, "standard.xml", null, true);
+        }
+
+        @Override
+        void fileWritten() throws ConfigurationPersistenceException {
+            writes.incrementAndGet();
+            super.fileWritten();
+        }
+    }
+
+    private static class GroupCommitPersister extends TestConfigurationPersister {
+
+        private final ConfigurationFile configurationFile;
+        private final GroupCommitWriter groupCommitWriter;
+        /** The configuration most recently stored, which is the one the last commit wrote */
+        private volatile String lastStored;
+
+        GroupCommitPersister(ConfigurationFile configurationFile, GroupCommitWriter groupCommitWriter) {
+            this.configurationFile = configurationFile;
+            this.groupCommitWriter = groupCommitWriter;
+        }
+
+        @Override
+        PersistenceResource create(ModelNode model) throws ConfigurationPersistenceException {
+            lastStored = model.asString();
+            return new ConfigurationFilePersistenceResource(model, configurationFile, this, groupCommitWriter);
+        }
+
+        @Override
+        public void flush() {
+            groupCommitWriter.flush();
+        }
+    }
+
+    private static class GroupCommitControllerService extends TestModelControllerService {
+
+        GroupCommitControllerService(ConfigurationPersister persister) {
+            super(ProcessType.EMBEDDED_SERVER, persister, new ControlledProcessState(true));
+        }
+
+        @Override
+        protected void initModel(ManagementModel managementModel, Resource modelControllerResource) {
+            ManagementResourceRegistration rootRegistration = managementModel.getRootResourceRegistration();
+            GlobalOperationHandlers.registerGlobalOperations(rootRegistration, processType);
+            GlobalNotifications.registerGlobalNotifications(rootRegistration, processType);
+            rootRegistration.registerReadWriteAttribute(VALUE, null, new ModelOnlyWriteAttributeHandler(VALUE));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLElementWriter;
+import org.jboss.staxmapper.XMLExtendedStreamWriter;
+import org.junit.Test;
+
+/**
+ * Tests of the caching of subsystem XML by {@link AbstractConfigurationPersister}.
+ */
+public class SubsystemXmlCacheTestCase {
+
+    private final AtomicInteger subsystemWrites = new AtomicInteger();
+
+    private final XMLElementWriter<ModelMarshallingContext> rootWriter = new XMLElementWriter<ModelMarshallingContext>() {
+        @Override
+        public void writeContent(XMLExtendedStreamWriter writer, ModelMarshallingContext context) throws XMLStreamException {
+            writer.writeStartDocument();
+            writer.writeStartElement("server");
+            writer.writeDefaultNamespace("urn:test:root");
+            String defaultNamespace = writer.getNamespaceContext().getNamespaceURI(XMLConstants.DEFAULT_NS_PREFIX);
+            for (String name : context.getModelNode().get("subsystem").keys()) {
+                try {
+                    context.getSubsystemWriter(name).writeContent(writer,
+                            new SubsystemMarshallingContext(context.getModelNode().get("subsystem", name), writer));
+                } finally {
+                    writer.setDefaultNamespace(defaultNamespace);
+                }
+            }
+            writer.writeEndElement();
+            writer.writeEndDocument();
+        }
+    };
+
+    private final XMLElementWriter<SubsystemMarshallingContext> subsystemWriter = new XMLElementWriter<SubsystemMarshallingContext>() {
+        @Override
+        public void writeContent(XMLExtendedStreamWriter writer, SubsystemMarshallingContext context) throws XMLStreamException {
+            subsystemWrites.incrementAndGet();
+            context.startSubsystemElement("urn:test:subsystem", false);
+            writer.writeStartElement("value");
+            writer.writeCharacters(context.getModelNode().get("value").asString());
+            writer.writeEndElement();
+            writer.writeEndElement();
+        }
+    };
+
+    @Test
+    public void testUnchangedSubsystemNotRemarshalled() throws Exception {
+        NullConfigurationPersister persister = new NullConfigurationPersister(rootWriter);
+        persister.registerSubsystemWriter("a", subsystemWriter);
+        persister.registerSubsystemWriter("b", subsystemWriter);
+
+        ModelNode model = new ModelNode();
+        model.get("subsystem", "a", "value").set("one");
+        model.get("subsystem", "b", "value").set("two");
+
+        String first = marshal(persister, model);
+        assertEquals(2, subsystemWrites.get());
+        assertEquals(first, marshal(persister, model));
+        assertEquals(2, subsystemWrites.get());
+
+        model.get("subsystem", "b", "value").set("three");
+        String third = marshal(persister, model);
+        assertEquals(3, subsystemWrites.get());
+        assertTrue(third, third.contains("<value>one</value>"));
+        assertTrue(third, third.contains("<value>three</value>"));
+        assertEquals(first.replace("two", "three"), third);
+    }
+
+    @Test
+    public void testWriterRegistrationClearsCache() throws Exception {
+        NullConfigurationPersister persister = new NullConfigurationPersister(rootWriter);
+        persister.registerSubsystemWriter("a", subsystemWriter);
+
+        ModelNode model = new ModelNode();
+        model.get("subsystem", "a", "value").set("one");
+
+        marshal(persister, model);
+        persister.registerSubsystemWriter("b", subsystemWriter);
+        marshal(persister, model);
+        assertEquals(2, subsystemWrites.get());
+    }
+
+    @Test
+    public void testCachedOutputMatchesUncachedOutput() throws Exception {
+        NullConfigurationPersister persister = new NullConfigurationPersister(rootWriter);
+        persister.registerSubsystemWriter("a", subsystemWriter);
+        persister.registerSubsystemWriter("b", subsystemWriter);
+
+        ModelNode model = new ModelNode();
+        model.get("subsystem", "a", "value").set("one");
+        model.get("subsystem", "b", "value").set("two");
+
+        marshal(persister, model);
+        assertEquals(marshalUncached(model), marshal(persister, model));
+
+        model.get("subsystem", "a", "value").set("three");
+        assertEquals(marshalUncached(model), marshal(persister, model));
+        assertEquals(marshalUncached(model), marshal(persister, model));
+    }
+
+    private String marshalUncached(ModelNode model) throws Exception {
+        // A new persister has nothing cached, so every subsystem is marshalled from the model
+        NullConfigurationPersister persister = new NullConfigurationPersister(rootWriter);
+        persister.registerSubsystemWriter("a", subsystemWriter);
+        persister.registerSubsystemWriter("b", subsystemWriter);
+        return marshal(persister, model);
+    }
+
+    private static String marshal(AbstractConfigurationPersister persister, ModelNode model) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        persister.marshallAsXml(model, output);
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
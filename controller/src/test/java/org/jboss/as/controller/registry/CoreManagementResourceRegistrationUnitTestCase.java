@@ -23,13 +23,17 @@
 package org.jboss.as.controller.registry;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationDefinition;
@@ -39,6 +43,7 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ProcessType;
 import org.jboss.as.controller.ResourceDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.SimpleResourceDefinition.Parameters;
@@ -46,7 +51,9 @@ import org.jboss.as.controller.access.management.AccessConstraintDefinition;
 import org.jboss.as.controller.access.management.ApplicationTypeAccessConstraintDefinition;
 import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraintDefinition;
 import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -371,6 +378,103 @@ public class CoreManagementResourceRegistrationUnitTestCase {
         }
     }
 
+    @Test
+    public void testModelDescriptionTracksRegistrationChanges() {
+        ManagementResourceRegistration child = rootRegistration.registerSubModel(new SimpleResourceDefinition(childElement, new NonResolvingResourceDescriptionResolver()));
+
+        ModelNode description = child.getModelDescription(PathAddress.EMPTY_ADDRESS).getModelDescription(null);
+        assertFalse(description.get(ModelDescriptionConstants.ATTRIBUTES).has("attr"));
+        // Modifying the returned description must not affect later calls
+        description.get(ModelDescriptionConstants.ATTRIBUTES, "bogus").set(true);
+        description = child.getModelDescription(PathAddress.EMPTY_ADDRESS).getModelDescription(null);
+        assertFalse(description.get(ModelDescriptionConstants.ATTRIBUTES).has("bogus"));
+
+        child.registerReadOnlyAttribute(new SimpleAttributeDefinitionBuilder("attr", ModelType.STRING, true).build(), null);
+        description = child.getModelDescription(PathAddress.EMPTY_ADDRESS).getModelDescription(null);
+        assertTrue(description.get(ModelDescriptionConstants.ATTRIBUTES).has("attr"));
+
+        child.registerSubModel(new SimpleResourceDefinition(grandchildElement, new NonResolvingResourceDescriptionResolver()));
+        description = child.getModelDescription(PathAddress.EMPTY_ADDRESS).getModelDescription(null);
+        assertTrue(description.get(ModelDescriptionConstants.CHILDREN).has(grandchildElement.getKey()));
+
+        child.unregisterSubModel(grandchildElement);
+        description = child.getModelDescription(PathAddress.EMPTY_ADDRESS).getModelDescription(null);
+        assertFalse(description.get(ModelDescriptionConstants.CHILDREN).has(grandchildElement.getKey()));
+    }
+
+    @Test
+    public void testOperationLookupTracksRegistrationChanges() {
+        // Look up before anything is registered so a miss gets cached
+        assertNull(rootRegistration.getOperationHandler(fullGrandchildAddress, "one"));
+
+        ManagementResourceRegistration child = rootRegistration.registerSubModel(new SimpleResourceDefinition(childElement, new NonResolvingResourceDescriptionResolver()));
+        assertNull(rootRegistration.getOperationHandler(fullGrandchildAddress, "one"));
+        ManagementResourceRegistration grandchild = child.registerSubModel(new SimpleResourceDefinition(grandchildElement, new NonResolvingResourceDescriptionResolver()));
+        assertNull(rootRegistration.getOperationHandler(fullGrandchildAddress, "one"));
+
+        grandchild.registerOperationHandler(getOpDef("one"), TestHandler.ONE);
+        assertSame(TestHandler.ONE, rootRegistration.getOperationHandler(fullGrandchildAddress, "one"));
+        assertSame(TestHandler.ONE, child.getOperationHandler(PathAddress.pathAddress(fullGrandchildElement), "one"));
+
+        rootRegistration.registerOperationHandler(getOpDef("two"), TestHandler.PARENT, true);
+        assertSame(TestHandler.PARENT, rootRegistration.getOperationHandler(fullGrandchildAddress, "two"));
+        child.registerOperationHandler(getOpDef("two"), TestHandler.CHILD, true);
+        assertSame(TestHandler.CHILD, rootRegistration.getOperationHandler(fullGrandchildAddress, "two"));
+
+        grandchild.unregisterOperationHandler("one");
+        assertNull(rootRegistration.getOperationHandler(fullGrandchildAddress, "one"));
+
+        child.unregisterOperationHandler("two");
+        assertSame(TestHandler.PARENT, rootRegistration.getOperationHandler(fullGrandchildAddress, "two"));
+        child.unregisterSubModel(grandchildElement);
+        assertNull(rootRegistration.getOperationHandler(fullGrandchildAddress, "two"));
+    }
+
+    @Test
+    public void testReadsDuringRegistration() throws Exception {
+        final ManagementResourceRegistration child = rootRegistration.registerSubModel(new SimpleResourceDefinition(childElement, new NonResolvingResourceDescriptionResolver()));
+        final int count = 200;
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final Thread[] readers = new Thread[4];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = new Thread(() -> {
+                try {
+                    while (!done.get()) {
+                        // Attributes are registered in order, so any one seen implies all earlier ones
+                        Set<String> names = rootRegistration.getAttributeNames(fullChildAddress);
+                        for (int j = 0; j < names.size(); j++) {
+                            assertNotNull(rootRegistration.getAttributeAccess(fullChildAddress, "attr" + j));
+                        }
+                        Set<String> childNames = rootRegistration.getChildNames(fullChildAddress);
+                        assertTrue(childNames.size() <= 1);
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            });
+            readers[i].start();
+        }
+        try {
+            for (int i = 0; i < count; i++) {
+                child.registerReadOnlyAttribute(new SimpleAttributeDefinitionBuilder("attr" + i, ModelType.STRING, true).build(), null);
+                if (i == count / 2) {
+                    child.registerSubModel(new SimpleResourceDefinition(grandchildElement, new NonResolvingResourceDescriptionResolver()));
+                }
+            }
+        } finally {
+            done.set(true);
+            for (Thread reader : readers) {
+                reader.join();
+            }
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        assertEquals(count, rootRegistration.getAttributeNames(fullChildAddress).size());
+        assertEquals(Collections.singleton(grandchildElement.getKey()), rootRegistration.getChildNames(fullChildAddress));
+    }
+
     static OperationDefinition getOpDef(String name, OperationEntry.Flag... flags) {
         return new SimpleOperationDefinitionBuilder(name, new NonResolvingResourceDescriptionResolver())
                 .withFlags(flags)
@@ -0,0 +1,122 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link ResourceWorkingCopy}.
+ */
+public class ResourceWorkingCopyUnitTestCase {
+
+    private static final PathElement SUBSYSTEM_A = PathElement.pathElement("subsystem", "a");
+    private static final PathElement SUBSYSTEM_B = PathElement.pathElement("subsystem", "b");
+    private static final PathElement CHILD = PathElement.pathElement("child", "one");
+
+    private Resource published;
+
+    @Before
+    public void setup() {
+        published = Resource.Factory.create();
+        published.getModel().get("attr").set("root");
+        Resource a = Resource.Factory.create();
+        a.getModel().get("attr").set("a");
+        Resource child = Resource.Factory.create();
+        child.getModel().get("attr").set("child");
+        a.registerChild(CHILD, child);
+        published.registerChild(SUBSYSTEM_A, a);
+        Resource b = Resource.Factory.create();
+        b.getModel().get("attr").set("b");
+        published.registerChild(SUBSYSTEM_B, b);
+    }
+
+    @Test
+    public void testWriteDoesNotAffectPublished() {
+        Resource copy = ResourceWorkingCopy.create(published);
+        Resource child = copy.navigate(PathAddress.pathAddress(SUBSYSTEM_A, CHILD));
+        child.getModel().get("attr").set("changed");
+        copy.requireChild(SUBSYSTEM_A).registerChild(PathElement.pathElement("child", "two"), Resource.Factory.create());
+        copy.removeChild(SUBSYSTEM_B);
+
+        assertEquals("changed", copy.navigate(PathAddress.pathAddress(SUBSYSTEM_A, CHILD)).getModel().get("attr").asString());
+        assertEquals("child", published.navigate(PathAddress.pathAddress(SUBSYSTEM_A, CHILD)).getModel().get("attr").asString());
+        assertEquals(1, published.requireChild(SUBSYSTEM_A).getChildrenNames("child").size());
+        assertTrue(published.hasChild(SUBSYSTEM_B));
+        assertFalse(copy.hasChild(SUBSYSTEM_B));
+    }
+
+    @Test
+    public void testUntouchedChildrenShared() {
+        Resource copy = ResourceWorkingCopy.create(published);
+        copy.requireChild(SUBSYSTEM_A).getModel().get("attr").set("changed");
+        ResourceWorkingCopy.publish(copy);
+
+        // Once published, the untouched subtree is handed out as is
+        assertSame(published.requireChild(SUBSYSTEM_B), copy.requireChild(SUBSYSTEM_B));
+        assertNotSame(published.requireChild(SUBSYSTEM_A), copy.requireChild(SUBSYSTEM_A));
+        assertSame(published.navigate(PathAddress.pathAddress(SUBSYSTEM_A, CHILD)),
+                copy.navigate(PathAddress.pathAddress(SUBSYSTEM_A, CHILD)));
+    }
+
+    @Test
+    public void testCloneOfWorkingCopy() {
+        Resource copy = ResourceWorkingCopy.create(published);
+        Resource clone = copy.clone();
+        clone.requireChild(SUBSYSTEM_B).getModel().get("attr").set("changed");
+
+        assertEquals("b", copy.requireChild(SUBSYSTEM_B).getModel().get("attr").asString());
+        assertEquals("b", published.requireChild(SUBSYSTEM_B).getModel().get("attr").asString());
+    }
+
+    @Test
+    public void testPublishedCloneOfWorkingCopy() {
+        Resource copy = ResourceWorkingCopy.create(published);
+        Resource clone = copy.clone();
+        ResourceWorkingCopy.publish(clone);
+
+        // The published clone no longer copies the children it still shares on every read
+        assertSame(clone.requireChild(SUBSYSTEM_B), clone.requireChild(SUBSYSTEM_B));
+        assertSame(published.requireChild(SUBSYSTEM_B), clone.requireChild(SUBSYSTEM_B));
+    }
+
+    @Test
+    public void testReadModel() {
+        Resource copy = ResourceWorkingCopy.create(published);
+        copy.requireChild(SUBSYSTEM_B).getModel().get("attr").set("changed");
+
+        ModelNode model = Resource.Tools.readModel(copy);
+        assertEquals("changed", model.get("subsystem", "b", "attr").asString());
+        assertEquals("child", model.get("subsystem", "a", "child", "one", "attr").asString());
+        assertEquals("b", Resource.Tools.readModel(published).get("subsystem", "b", "attr").asString());
+    }
+}
@@ -0,0 +1,507 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.repository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.jboss.as.repository.logging.DeploymentRepositoryLogger;
+
+/**
+ * Block checksum delta encoding in the style of rsync, used to send a file to a host that already holds an older
+ * version of it.
+ * <p>
+ * The receiver sends the {@link Signatures} of the blocks of its old file. The sender answers with instructions to
+ * copy runs of those blocks or to insert literal bytes, optionally deflated, followed by the SHA-1 digest of the new
+ * file. The receiver rebuilds the new file from its old one and checks the digest.
+ */
+final class ContentDelta {
+
+    static final int MIN_BLOCK_SIZE = 2 * 1024;
+    static final int MAX_BLOCK_SIZE = 64 * 1024;
+    /** Literal bytes are sent in chunks of at most this size */
+    static final int LITERAL_CHUNK_SIZE = 64 * 1024;
+
+    private static final int STRONG_CHECKSUM_LENGTH = 16;
+
+    private static final byte END = 0;
+    private static final byte COPY = 1;
+    private static final byte LITERAL = 2;
+    private static final byte DEFLATED_LITERAL = 3;
+
+    private ContentDelta() {
+    }
+
+    /**
+     * Gets the block size used for a file. Like rsync this is about the square root of the length, which keeps
+     * both the signatures and the granularity of matches reasonable.
+     */
+    static int getBlockSize(long length) {
+        final long size = Long.highestOneBit(Math.max(1L, (long) Math.sqrt(length)));
+        return (int) Math.max(MIN_BLOCK_SIZE, Math.min(MAX_BLOCK_SIZE, size));
+    }
+
+    /**
+     * Gets the largest number of signatures sent for a block size. {@link #getBlockSize(long)} only picks a block size
+     * below the maximum for files shorter than four times its square, so those never have more blocks than this.
+     * Files too large for even the maximum block size are sent without signatures.
+     */
+    static int getMaxSignatureCount(int blockSize) {
+        return 4 * blockSize;
+    }
+
+    /**
+     * Writes the signatures of the full blocks of a file.
+     *
+     * @param base the file the receiver already has
+     * @param compress whether the sender may deflate literal bytes
+     * @param output the output to write to
+     * @throws IOException if the file cannot be read
+     */
+    static void writeSignatures(File base, boolean compress, DataOutput output) throws IOException {
+        final int blockSize = getBlockSize(base.length());
+        final long blocks = base.length() / blockSize;
+        final int count = blocks > getMaxSignatureCount(blockSize) ? 0 : (int) blocks;
+        final MessageDigest strong = createDigest("MD5");
+        final byte[] block = new byte[blockSize];
+        output.writeBoolean(compress);
+        output.writeInt(blockSize);
+        output.writeInt(count);
+        try (InputStream in = new FileInputStream(base)) {
+            for (int i = 0; i < count; i++) {
+                if (readFully(in, block, blockSize) < blockSize) {
+                    throw new EOFException(base.getAbsolutePath());
+                }
+                output.writeInt(weakChecksum(block, blockSize));
+                output.write(strong.digest(block));
+            }
+        }
+    }
+
+    static Signatures readSignatures(DataInput input) throws IOException {
+        final boolean compress = input.readBoolean();
+        final int blockSize = input.readInt();
+        final int count = input.readInt();
+        if (blockSize < MIN_BLOCK_SIZE || blockSize > MAX_BLOCK_SIZE) {
+            throw DeploymentRepositoryLogger.ROOT_LOGGER.invalidContentDeltaInstruction(blockSize);
+        }
+        // Checked before allocating anything, as the count comes from the peer
+        if (count < 0 || count > getMaxSignatureCount(blockSize)) {
+            throw DeploymentRepositoryLogger.ROOT_LOGGER.invalidContentDeltaInstruction(count);
+        }
+        final Signatures signatures = new Signatures(compress, blockSize, count);
+        for (int i = 0; i < count; i++) {
+            final int weak = input.readInt();
+            final byte[] strong = new byte[STRONG_CHECKSUM_LENGTH];
+            input.readFully(strong);
+            signatures.add(i, weak, strong);
+        }
+        return signatures;
+    }
+
+    /**
+     * Writes the instructions that rebuild {@code target} from the file the signatures were computed from.
+     *
+     * @param signatures the signatures sent by the receiver
+     * @param target the file to send
+     * @param output the output to write to
+     * @throws IOException if the file cannot be read
+     */
+    static void writeDelta(Signatures signatures, File target, DataOutput output) throws IOException {
+        final int blockSize = signatures.blockSize;
+        final MessageDigest sha1 = createDigest("SHA-1");
+        final MessageDigest strong = createDigest("MD5");
+        final DeltaWriter writer = new DeltaWriter(output, signatures.compress);
+        output.writeInt(blockSize);
+        try (InputStream in = new DigestInputStream(new BufferedInputStream(new FileInputStream(target), LITERAL_CHUNK_SIZE), sha1)) {
+            final byte[] window = new byte[blockSize];
+            int filled = readFully(in, window, blockSize);
+            if (signatures.count > 0 && filled == blockSize) {
+                // window holds the current block as a ring starting at 'start'
+                int start = 0;
+                int weak = weakChecksum(window, blockSize);
+                int a = weak & 0xffff;
+                int b = weak >>> 16;
+                for (;;) {
+                    final int match = signatures.find(a | (b << 16), window, start, writer.getNextCopy(), strong);
+                    if (match >= 0) {
+                        writer.copy(match);
+                        start = 0;
+                        filled = readFully(in, window, blockSize);
+                        if (filled < blockSize) {
+                            break;
+                        }
+                        weak = weakChecksum(window, blockSize);
+                        a = weak & 0xffff;
+                        b = weak >>> 16;
+                    } else {
+                        final int next = in.read();
+                        if (next == -1) {
+                            writer.literal(window, start, blockSize - start);
+                            writer.literal(window, 0, start);
+                            filled = 0;
+                            break;
+                        }
+                        final int out = window[start] & 0xff;
+                        writer.literal(out);
+                        window[start] = (byte) next;
+                        start = start + 1 == blockSize ? 0 : start + 1;
+                        a = (a - out + next) & 0xffff;
+                        b = (b - blockSize * out + a) & 0xffff;
+                    }
+                }
+            }
+            writer.literal(window, 0, filled);
+            final byte[] buffer = new byte[LITERAL_CHUNK_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                writer.literal(buffer, 0, read);
+            }
+            writer.finish(sha1.digest());
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Rebuilds a file from the instructions written by {@link #writeDelta(Signatures, File, DataOutput)}.
+     *
+     * @param base the file the signatures were computed from
+     * @param input the input to read the instructions from
+     * @param target the file to create
+     * @throws IOException if the instructions are invalid or the result does not match the digest sent
+     */
+    static void applyDelta(File base, DataInput input, File target) throws IOException {
+        final MessageDigest sha1 = createDigest("SHA-1");
+        final Inflater inflater = new Inflater();
+        final int blockSize = input.readInt();
+        if (blockSize < MIN_BLOCK_SIZE || blockSize > MAX_BLOCK_SIZE) {
+            throw DeploymentRepositoryLogger.ROOT_LOGGER.invalidContentDeltaInstruction(blockSize);
+        }
+        final byte[] buffer = new byte[Math.max(blockSize, LITERAL_CHUNK_SIZE)];
+        final byte[] compressed = new byte[LITERAL_CHUNK_SIZE];
+        final byte[] expected;
+        try (RandomAccessFile baseFile = new RandomAccessFile(base, "r");
+             OutputStream out = new DigestOutputStream(new BufferedOutputStream(new FileOutputStream(target)), sha1)) {
+            for (;;) {
+                final byte instruction = input.readByte();
+                if (instruction == END) {
+                    expected = new byte[input.readInt()];
+                    input.readFully(expected);
+                    break;
+                }
+                switch (instruction) {
+                    case COPY: {
+                        final int first = input.readInt();
+                        final int count = input.readInt();
+                        baseFile.seek((long) first * blockSize);
+                        for (int i = 0; i < count; i++) {
+                            baseFile.readFully(buffer, 0, blockSize);
+                            out.write(buffer, 0, blockSize);
+                        }
+                        break;
+                    }
+                    case LITERAL: {
+                        final int length = readLength(input);
+                        input.readFully(buffer, 0, length);
+                        out.write(buffer, 0, length);
+                        break;
+                    }
+                    case DEFLATED_LITERAL: {
+                        final int length = readLength(input);
+                        final int compressedLength = readLength(input);
+                        input.readFully(compressed, 0, compressedLength);
+                        inflater.reset();
+                        inflater.setInput(compressed, 0, compressedLength);
+                        int inflated = 0;
+                        try {
+                            while (inflated < length && !inflater.finished()) {
+                                final int count = inflater.inflate(buffer, inflated, length - inflated);
+                                if (count == 0) {
+                                    break;
+                                }
+                                inflated += count;
+                            }
+                        } catch (DataFormatException e) {
+                            throw new IOException(e);
+                        }
+                        if (inflated != length) {
+                            throw DeploymentRepositoryLogger.ROOT_LOGGER.invalidContentDeltaInstruction(instruction);
+                        }
+                        out.write(buffer, 0, length);
+                        break;
+                    }
+                    default: {
+                        throw DeploymentRepositoryLogger.ROOT_LOGGER.invalidContentDeltaInstruction(instruction);
+                    }
+                }
+            }
+        } finally {
+            inflater.end();
+        }
+        if (!MessageDigest.isEqual(expected, sha1.digest())) {
+            throw DeploymentRepositoryLogger.ROOT_LOGGER.contentDeltaMismatch(target.getAbsolutePath());
+        }
+    }
+
+    private static int readLength(DataInput input) throws IOException {
+        final int length = input.readInt();
+        if (length <= 0 || length > LITERAL_CHUNK_SIZE) {
+            throw DeploymentRepositoryLogger.ROOT_LOGGER.invalidContentDeltaInstruction(length);
+        }
+        return length;
+    }
+
+    /** The rsync rolling checksum of a block */
+    static int weakChecksum(byte[] block, int length) {
+        int a = 0;
+        int b = 0;
+        for (int i = 0; i < length; i++) {
+            final int x = block[i] & 0xff;
+            a += x;
+            b += (length - i) * x;
+        }
+        return (a & 0xffff) | ((b & 0xffff) << 16);
+    }
+
+    private static int readFully(InputStream in, byte[] buffer, int length) throws IOException {
+        int filled = 0;
+        int read;
+        while (filled < length && (read = in.read(buffer, filled, length - filled)) != -1) {
+            filled += read;
+        }
+        return filled;
+    }
+
+    private static MessageDigest createDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw DeploymentRepositoryLogger.ROOT_LOGGER.cannotObtainSha1(e, MessageDigest.class.getSimpleName());
+        }
+    }
+
+    /**
+     * The block signatures of the receiver's file, indexed by weak checksum.
+     */
+    static final class Signatures {
+        private final boolean compress;
+        private final int blockSize;
+        private final int count;
+        private final int[] weak;
+        private final byte[][] strong;
+        /** Heads of the hash chains, as block index + 1 so that 0 means empty */
+        private final int[] table;
+        private final int[] next;
+        private final int mask;
+
+        private Signatures(boolean compress, int blockSize, int count) {
+            this.compress = compress;
+            this.blockSize = blockSize;
+            this.count = count;
+            this.weak = new int[count];
+            this.strong = new byte[count][];
+            this.next = new int[count];
+            final int tableSize = Integer.highestOneBit(Math.max(16, count) * 2 - 1) * 2;
+            this.table = new int[tableSize];
+            this.mask = tableSize - 1;
+        }
+
+        private void add(int index, int weakChecksum, byte[] strongChecksum) {
+            weak[index] = weakChecksum;
+            strong[index] = strongChecksum;
+            final int bucket = bucket(weakChecksum);
+            next[index] = table[bucket];
+            table[bucket] = index + 1;
+        }
+
+        private int bucket(int weakChecksum) {
+            return (weakChecksum ^ (weakChecksum >>> 16)) & mask;
+        }
+
+        /**
+         * Finds a block with the content of the window, preferring the given block so that runs of blocks are kept.
+         *
+         * @return the index of the block, or {@code -1}
+         */
+        int find(int weakChecksum, byte[] window, int start, int preferred, MessageDigest digest) {
+            int entry = table[bucket(weakChecksum)];
+            if (entry == 0) {
+                return -1;
+            }
+            byte[] checksum = null;
+            if (preferred >= 0 && preferred < count && weak[preferred] == weakChecksum) {
+                checksum = strongChecksum(window, start, digest);
+                if (Arrays.equals(checksum, strong[preferred])) {
+                    return preferred;
+                }
+            }
+            for (; entry != 0; entry = next[entry - 1]) {
+                final int index = entry - 1;
+                if (weak[index] == weakChecksum) {
+                    if (checksum == null) {
+                        checksum = strongChecksum(window, start, digest);
+                    }
+                    if (Arrays.equals(checksum, strong[index])) {
+                        return index;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        private byte[] strongChecksum(byte[] window, int start, MessageDigest digest) {
+            digest.update(window, start, blockSize - start);
+            digest.update(window, 0, start);
+            return digest.digest();
+        }
+    }
+
+    /**
+     * Buffers literal bytes and coalesces copies of consecutive blocks.
+     */
+    private static final class DeltaWriter {
+        private final DataOutput output;
+        private final Deflater deflater;
+        private final byte[] literal = new byte[LITERAL_CHUNK_SIZE];
+        private final byte[] deflated;
+        private int literalLength;
+        private int copyStart;
+        private int copyCount;
+
+        private DeltaWriter(DataOutput output, boolean compress) {
+            this.output = output;
+            this.deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+            this.deflated = compress ? new byte[LITERAL_CHUNK_SIZE] : null;
+        }
+
+        int getNextCopy() {
+            return copyCount == 0 ? -1 : copyStart + copyCount;
+        }
+
+        void copy(int index) throws IOException {
+            flushLiteral();
+            if (copyCount > 0 && index == copyStart + copyCount) {
+                copyCount++;
+            } else {
+                flushCopy();
+                copyStart = index;
+                copyCount = 1;
+            }
+        }
+
+        void literal(int b) throws IOException {
+            flushCopy();
+            if (literalLength == literal.length) {
+                flushLiteral();
+            }
+            literal[literalLength++] = (byte) b;
+        }
+
+        void literal(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return;
+            }
+            flushCopy();
+            while (length > 0) {
+                if (literalLength == literal.length) {
+                    flushLiteral();
+                }
+                final int count = Math.min(length, literal.length - literalLength);
+                System.arraycopy(bytes, offset, literal, literalLength, count);
+                literalLength += count;
+                offset += count;
+                length -= count;
+            }
+        }
+
+        void finish(byte[] digest) throws IOException {
+            flushLiteral();
+            flushCopy();
+            output.writeByte(END);
+            output.writeInt(digest.length);
+            output.write(digest);
+        }
+
+        void close() {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+
+        private void flushCopy() throws IOException {
+            if (copyCount > 0) {
+                output.writeByte(COPY);
+                output.writeInt(copyStart);
+                output.writeInt(copyCount);
+                copyCount = 0;
+            }
+        }
+
+        private void flushLiteral() throws IOException {
+            if (literalLength == 0) {
+                return;
+            }
+            if (deflater != null) {
+                deflater.reset();
+                deflater.setInput(literal, 0, literalLength);
+                deflater.finish();
+                int compressed = 0;
+                while (!deflater.finished() && compressed < deflated.length) {
+                    compressed += deflater.deflate(deflated, compressed, deflated.length - compressed);
+                }
+                // Archives are mostly compressed already, so only use the result when it is smaller
+                if (deflater.finished() && compressed < literalLength) {
+                    output.writeByte(DEFLATED_LITERAL);
+                    output.writeInt(literalLength);
+                    output.writeInt(compressed);
+                    output.write(deflated, 0, compressed);
+                    literalLength = 0;
+                    return;
+                }
+            }
+            output.writeByte(LITERAL);
+            output.writeInt(literalLength);
+            output.write(literal, 0, literalLength);
+            literalLength = 0;
+        }
+    }
+}
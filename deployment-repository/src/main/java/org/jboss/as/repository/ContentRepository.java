@@ -27,6 +27,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.PrivilegedAction;
+import org.jboss.as.repository.logging.DeploymentRepositoryLogger;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceTarget;
 import org.jboss.vfs.VirtualFile;
@@ -34,7 +35,10 @@ import org.jboss.vfs.VirtualFile;
 import static java.lang.Long.getLong;
 import static java.security.AccessController.doPrivileged;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -76,6 +80,29 @@ public interface ContentRepository {
      */
     byte[] addContent(InputStream stream) throws IOException;
 
+    /**
+     * Computes the hash of content the way the repository does: over the bytes of a file, as by
+     * {@link #addContent(InputStream)}, or over the names and contents of the files of an exploded directory.
+     *
+     * @param content the content file or exploded content directory
+     * @return the hash of the content
+     * @throws IOException if there is a problem reading the content
+     */
+    static byte[] hashContent(Path content) throws IOException {
+        final MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw DeploymentRepositoryLogger.ROOT_LOGGER.cannotObtainSha1(e, MessageDigest.class.getSimpleName());
+        }
+        if (Files.isDirectory(content)) {
+            return HashUtil.hashPath(messageDigest, content);
+        }
+        try (InputStream in = Files.newInputStream(content)) {
+            return HashUtil.hashContent(messageDigest, in);
+        }
+    }
+
     /**
      * Adds a reference to the content.
      *
@@ -30,7 +30,6 @@ import static org.jboss.as.repository.PathUtil.getFileExtension;
 import static org.jboss.as.repository.PathUtil.isArchive;
 import static org.jboss.as.repository.PathUtil.resolveSecurely;
 
-import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -72,6 +71,10 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
     protected static final String CONTENT = "content";
     private final File repoRoot;
     private final File tmpRoot;
+    /**
+     * @deprecated a digest is not thread safe, so each hash is now computed with its own instance
+     */
+    @Deprecated
     protected final MessageDigest messageDigest;
     private final Map<String, Set<ContentReference>> contentHashReferences = new HashMap<>();
     private final Map<String, ReentrantLock> lockedContents = new HashMap<>();
@@ -88,8 +91,18 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
         this.tmpRoot = tmpRoot;
         this.obsolescenceTimeout = obsolescenceTimeout;
         this.lockTimeout = lockTimeout;
+        this.messageDigest = createMessageDigest();
+    }
+
+    /**
+     * Creates the digest used to compute a content hash. Each hash gets its own digest, so concurrent uploads
+     * and explodes don't wait for each other.
+     *
+     * @return a new SHA-1 digest
+     */
+    private static MessageDigest createMessageDigest() {
         try {
-            this.messageDigest = MessageDigest.getInstance("SHA-1");
+            return MessageDigest.getInstance("SHA-1");
         } catch (NoSuchAlgorithmException e) {
             throw DeploymentRepositoryLogger.ROOT_LOGGER.cannotObtainSha1(e, MessageDigest.class.getSimpleName());
         }
@@ -112,27 +125,21 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
         byte[] sha1Bytes;
         Path tmp = File.createTempFile(CONTENT, ".tmp", repoRoot).toPath();
         if (stream != null) {
+            final MessageDigest messageDigest = createMessageDigest();
             try (OutputStream fos = Files.newOutputStream(tmp)) {
-                synchronized (messageDigest) {
-                    messageDigest.reset();
-                    DigestOutputStream dos = new DigestOutputStream(fos, messageDigest);
-                    BufferedInputStream bis = new BufferedInputStream(stream);
-                    byte[] bytes = new byte[8192];
-                    int read;
-                    while ((read = bis.read(bytes)) > -1) {
-                        dos.write(bytes, 0, read);
-                    }
-                    fos.flush();
+                DigestOutputStream dos = new DigestOutputStream(fos, messageDigest);
+                byte[] bytes = new byte[8192];
+                int read;
+                while ((read = stream.read(bytes)) > -1) {
+                    dos.write(bytes, 0, read);
                 }
+                fos.flush();
                 sha1Bytes = messageDigest.digest();
             }
         } else {//create a directory instead
             Files.delete(tmp);
             Files.createDirectory(tmp);
-            synchronized (messageDigest) {
-                messageDigest.reset();
-                sha1Bytes = HashUtil.hashPath(messageDigest, tmp);
-            }
+            sha1Bytes = HashUtil.hashPath(createMessageDigest(), tmp);
         }
         final Path realFile = getDeploymentContentFile(sha1Bytes, true);
         if (hasContent(sha1Bytes)) {
@@ -400,7 +407,7 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
             Path tmp = createTempDirectory(repoRoot.toPath(), CONTENT);
             Path contentDir = Files.createDirectory(tmp.resolve(CONTENT));
             unzip(contentPath, contentDir);
-            byte[] sha1Bytes = HashUtil.hashPath(messageDigest, contentDir);
+            byte[] sha1Bytes = HashUtil.hashPath(createMessageDigest(), contentDir);
             final Path realFile = getDeploymentContentFile(sha1Bytes, true);
             if (hasContent(sha1Bytes)) {
                 // we've already got this content
@@ -443,7 +450,7 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
                     deleteRecursively(targetPath);
                 }
                 unzip(sourcePath, targetPath);
-                byte[] sha1Bytes = HashUtil.hashPath(messageDigest, contentDir);
+                byte[] sha1Bytes = HashUtil.hashPath(createMessageDigest(), contentDir);
                 final Path realFile = getDeploymentContentFile(sha1Bytes, true);
                 if (hasContent(sha1Bytes)) {
                     // we've already got this content
@@ -609,7 +616,7 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
                         }
                     }
                 }
-                byte[] sha1Bytes = HashUtil.hashPath(messageDigest, contentDir);
+                byte[] sha1Bytes = HashUtil.hashPath(createMessageDigest(), contentDir);
                 final Path realFile = getDeploymentContentFile(sha1Bytes, true);
                 if (hasContent(sha1Bytes)) {
                     // we've already got this content
@@ -646,7 +653,7 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
                     Path targetFile = resolveSecurely(contentDir, path);
                     deleteFileWithEmptyAncestorDirectories(targetFile);
                 }
-                byte[] sha1Bytes = HashUtil.hashPath(messageDigest, contentDir);
+                byte[] sha1Bytes = HashUtil.hashPath(createMessageDigest(), contentDir);
                 final Path realFile = getDeploymentContentFile(sha1Bytes, true);
                 if (hasContent(sha1Bytes)) {
                     // we've already got this content
@@ -28,7 +28,9 @@ import java.nio.file.Path;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.util.Arrays;
-import java.util.Vector;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.jboss.as.repository.logging.DeploymentRepositoryLogger;
@@ -114,6 +116,11 @@ class HashUtil {
         }
     }
 
+    /**
+     * Gets the stream of bytes hashed for a path: its name followed by its content, or by the streams of its
+     * children in order for a directory. Files and directories are only opened when the stream reaches them, so
+     * hashing a large tree holds a single file open at a time.
+     */
     private static InputStream getRecursiveContentStream(Path path) {
         if (Files.isRegularFile(path)) {
             try {
@@ -122,16 +129,31 @@ class HashUtil {
                 throw DeploymentRepositoryLogger.ROOT_LOGGER.hashingError(ex, path);
             }
         } else if (Files.isDirectory(path)) {
-            try {
-                Vector<InputStream> v = new Vector<>();
-                v.add(new ByteArrayInputStream(path.getFileName().toString().getBytes(StandardCharsets.UTF_8)));
-                try(Stream<Path> paths = Files.list(path)) {
-                    v.addAll(paths.sorted((Path path1, Path path2) -> path1.compareTo(path2)).map(p -> getRecursiveContentStream(p)).collect(Collectors.toList()));
-                }
-                return new SequenceInputStream(v.elements());
+            final List<Path> children;
+            try (Stream<Path> paths = Files.list(path)) {
+                children = paths.sorted().collect(Collectors.toList());
             } catch (IOException ex) {
                 throw DeploymentRepositoryLogger.ROOT_LOGGER.hashingError(ex, path);
             }
+            final Iterator<Path> iterator = children.iterator();
+            final InputStream name = new ByteArrayInputStream(path.getFileName().toString().getBytes(StandardCharsets.UTF_8));
+            return new SequenceInputStream(new Enumeration<InputStream>() {
+                private boolean nameRead;
+
+                @Override
+                public boolean hasMoreElements() {
+                    return !nameRead || iterator.hasNext();
+                }
+
+                @Override
+                public InputStream nextElement() {
+                    if (!nameRead) {
+                        nameRead = true;
+                        return name;
+                    }
+                    return getRecursiveContentStream(iterator.next());
+                }
+            });
         }
         return emptyStream();
     }
@@ -36,6 +36,7 @@ import java.util.List;
 import java.util.concurrent.Executor;
 
 import org.jboss.as.protocol.StreamUtils;
+import org.jboss.as.repository.logging.DeploymentRepositoryLogger;
 import org.jboss.as.protocol.mgmt.ActiveOperation;
 import org.jboss.as.protocol.mgmt.FlushableDataOutput;
 import org.jboss.as.protocol.mgmt.ManagementRequestContext;
@@ -51,6 +52,9 @@ import org.jboss.logging.BasicLogger;
  */
 public abstract class RemoteFileRequestAndHandler {
 
+    /** Number of files sent when the single file of a directory is sent as a delta against the requester's copy */
+    private static final int DELTA_FILE = -2;
+
     private final RemoteFileProtocolIdMapper protocol;
     private final Executor asyncExecutor;
 
@@ -71,12 +75,50 @@ public abstract class RemoteFileRequestAndHandler {
 
     }
 
+    /**
+     * Sends a request for a file which the requester already has an older version of. The request must be handled by
+     * {@link #handleDeltaRequest(DataInput, RootFileReader, ActiveOperation.ResultHandler, ManagementRequestContext)}
+     * and the response by {@link #handleResponse(DataInput, File, File, BasicLogger, ActiveOperation.ResultHandler, ManagementRequestContext)}.
+     *
+     * @param output the output to write to
+     * @param rootId the root id
+     * @param filePath the path of the file
+     * @param base the requester's older version of the single file of the requested directory
+     * @param compress whether the other side may deflate the parts of the file that differ
+     * @throws IOException if the request cannot be written
+     */
+    public void sendDeltaRequest(FlushableDataOutput output, byte rootId, String filePath, File base, boolean compress) throws IOException {
+        sendRequest(output, rootId, filePath);
+        ContentDelta.writeSignatures(base, compress, output);
+    }
+
     public void handleResponse(DataInput input, File localPath, BasicLogger log, ActiveOperation.ResultHandler<File> resultHandler, ManagementRequestContext<Void> context)
             throws IOException, CannotCreateLocalDirectoryException, DidNotReadEntireFileException{
+        handleResponse(input, localPath, null, log, resultHandler, context);
+    }
+
+    public void handleResponse(DataInput input, File localPath, File deltaBase, BasicLogger log, ActiveOperation.ResultHandler<File> resultHandler, ManagementRequestContext<Void> context)
+            throws IOException, CannotCreateLocalDirectoryException, DidNotReadEntireFileException{
         expectHeader(input, protocol.paramNumFiles());
         int numFiles = input.readInt();
         log.debugf("Received %d files for %s", numFiles, localPath);
         switch (numFiles) {
+            case DELTA_FILE: { // Found on DC, sent as a delta against deltaBase
+                expectHeader(input, protocol.fileStart());
+                expectHeader(input, protocol.paramFilePath());
+                final String path = input.readUTF();
+                if (deltaBase == null) {
+                    throw DeploymentRepositoryLogger.ROOT_LOGGER.invalidContentDeltaInstruction(numFiles);
+                }
+                final File file = new File(localPath, path);
+                if (!file.getParentFile().exists() && !file.getParentFile().mkdirs()) {
+                    throw new CannotCreateLocalDirectoryException(localPath.getParentFile());
+                }
+                log.debugf("Received delta of file [%s] against %s", path, deltaBase);
+                ContentDelta.applyDelta(deltaBase, input, file);
+                expectHeader(input, protocol.fileEnd());
+                break;
+            }
             case -1: { // Not found on DC
                 break;
             }
@@ -129,14 +171,40 @@ public abstract class RemoteFileRequestAndHandler {
         final byte rootId = input.readByte();
         expectHeader(input, protocol.paramFilePath());
         final String filePath = input.readUTF();
+        executeResponse(rootId, filePath, null, reader, resultHandler, context);
+    }
 
+    /**
+     * Handles a request sent by {@link #sendDeltaRequest(FlushableDataOutput, byte, String, File, boolean)}. If the
+     * requested directory holds a single file it is sent as a delta, otherwise the response is the same as for
+     * {@link #handleRequest(DataInput, RootFileReader, ActiveOperation.ResultHandler, ManagementRequestContext)}.
+     */
+    public void handleDeltaRequest(final DataInput input, final RootFileReader reader,
+                                   final ActiveOperation.ResultHandler<Void> resultHandler,
+                                   final ManagementRequestContext<Void> context) throws IOException {
+        expectHeader(input, protocol.paramRootId());
+        final byte rootId = input.readByte();
+        expectHeader(input, protocol.paramFilePath());
+        final String filePath = input.readUTF();
+        final ContentDelta.Signatures signatures = ContentDelta.readSignatures(input);
+        executeResponse(rootId, filePath, signatures, reader, resultHandler, context);
+    }
+
+    private void executeResponse(final byte rootId, final String filePath, final ContentDelta.Signatures signatures,
+                                 final RootFileReader reader, final ActiveOperation.ResultHandler<Void> resultHandler,
+                                 final ManagementRequestContext<Void> context) {
         ManagementRequestContext.AsyncTask<Void> task = new ManagementRequestContext.AsyncTask<Void>() {
             @Override
             public void execute(ManagementRequestContext<Void> context) throws RequestProcessingException, IOException {
                 final File localPath = reader.readRootFile(rootId, filePath);
                 FlushableDataOutput output = context.writeMessage(ManagementResponseHeader.create(context.getRequestHeader()));
                 try {
-                    writeResponse(localPath, output);
+                    final File single = signatures == null ? null : getSingleFile(localPath);
+                    if (single != null) {
+                        writeDeltaResponse(localPath, single, signatures, output);
+                    } else {
+                        writeResponse(localPath, output);
+                    }
                     output.close();
                     resultHandler.done(null); // call stack (AsyncTaskRunner created by ManagementRequestContext) handles failures
                 } finally {
@@ -168,6 +236,25 @@ public abstract class RemoteFileRequestAndHandler {
         }
     }
 
+    private void writeDeltaResponse(final File localPath, final File file, final ContentDelta.Signatures signatures,
+                                    final FlushableDataOutput output) throws IOException {
+        output.writeByte(protocol.paramNumFiles());
+        output.writeInt(DELTA_FILE);
+        output.writeByte(protocol.fileStart());
+        output.writeByte(protocol.paramFilePath());
+        output.writeUTF(getRelativePath(localPath, file));
+        ContentDelta.writeDelta(signatures, file, output);
+        output.writeByte(protocol.fileEnd());
+    }
+
+    private File getSingleFile(final File localPath) {
+        if (localPath == null || !localPath.isDirectory()) {
+            return null;
+        }
+        final File[] children = localPath.listFiles();
+        return children != null && children.length == 1 && children[0].isFile() ? children[0] : null;
+    }
+
     private List<File> getChildFiles(final File base) {
         final List<File> childFiles = new ArrayList<>();
         getChildFiles(base, childFiles);
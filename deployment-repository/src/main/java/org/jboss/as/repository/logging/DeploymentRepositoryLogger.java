@@ -26,6 +26,7 @@ import static org.jboss.logging.Logger.Level.ERROR;
 import static org.jboss.logging.Logger.Level.INFO;
 import static org.jboss.logging.Logger.Level.WARN;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import org.jboss.as.repository.ExplodedContentException;
 import org.jboss.logging.BasicLogger;
@@ -162,4 +163,10 @@ public interface DeploymentRepositoryLogger extends BasicLogger {
     @LogMessage(level = ERROR)
     @Message(id = 24, value = "Error copying file %s")
     void cannotCopyFile(@Cause Exception ex, Path path);
+
+    @Message(id = 25, value = "Content rebuilt from a delta does not match the content of %s")
+    IOException contentDeltaMismatch(String path);
+
+    @Message(id = 26, value = "Invalid content delta instruction %d")
+    IOException invalidContentDeltaInstruction(int instruction);
 }
@@ -0,0 +1,161 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.repository;
+
+import static org.jboss.as.repository.PathUtil.deleteRecursively;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link ContentDelta}.
+ */
+public class ContentDeltaTestCase {
+
+    private final File rootDir = new File("target", "content-delta");
+    private final Random random = new Random(42);
+
+    @Before
+    public void createRootDir() throws IOException {
+        deleteRecursively(rootDir.toPath());
+        Files.createDirectories(rootDir.toPath());
+    }
+
+    @After
+    public void destroyRootDir() throws IOException {
+        deleteRecursively(rootDir.toPath());
+    }
+
+    @Test
+    public void testChangedMiddle() throws Exception {
+        final byte[] base = randomBytes(1024 * 1024);
+        final byte[] target = base.clone();
+        for (int i = 500000; i < 500100; i++) {
+            target[i] = (byte) ~target[i];
+        }
+        final int deltaSize = assertRoundTrip(base, target);
+        assertTrue("Delta of " + deltaSize + " bytes", deltaSize < 16 * 1024);
+    }
+
+    @Test
+    public void testInsertedAndRemovedBytes() throws Exception {
+        final byte[] base = randomBytes(300000);
+        final byte[] inserted = randomBytes(777);
+        final byte[] target = new byte[base.length + inserted.length - 1000];
+        System.arraycopy(base, 0, target, 0, 100000);
+        System.arraycopy(inserted, 0, target, 100000, inserted.length);
+        System.arraycopy(base, 101000, target, 100000 + inserted.length, base.length - 101000);
+        final int deltaSize = assertRoundTrip(base, target);
+        assertTrue("Delta of " + deltaSize + " bytes", deltaSize < 16 * 1024);
+    }
+
+    @Test
+    public void testCompressedLiterals() throws Exception {
+        final byte[] target = new byte[200000];
+        for (int i = 0; i < target.length; i++) {
+            target[i] = (byte) ('a' + i % 7);
+        }
+        final int deltaSize = assertRoundTrip(new byte[0], target);
+        assertTrue("Delta of " + deltaSize + " bytes", deltaSize < target.length / 10);
+    }
+
+    @Test
+    public void testSmallAndEmptyFiles() throws Exception {
+        assertRoundTrip(randomBytes(100), new byte[0]);
+        assertRoundTrip(new byte[0], randomBytes(100));
+        assertRoundTrip(randomBytes(5000), randomBytes(3000));
+    }
+
+    @Test
+    public void testWrongBase() throws Exception {
+        final byte[] base = randomBytes(100000);
+        final File baseFile = write("base", base);
+        final byte[] delta = delta(baseFile, write("target", base));
+        final byte[] other = base.clone();
+        other[10] = (byte) ~other[10];
+        try {
+            ContentDelta.applyDelta(write("other", other), new DataInputStream(new ByteArrayInputStream(delta)), new File(rootDir, "result"));
+            fail("Content rebuilt from the wrong base should not be accepted");
+        } catch (IOException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testOversizedSignatureCount() throws Exception {
+        final ByteArrayOutputStream signatures = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(signatures);
+        output.writeBoolean(true);
+        output.writeInt(ContentDelta.MIN_BLOCK_SIZE);
+        output.writeInt(Integer.MAX_VALUE);
+        try {
+            ContentDelta.readSignatures(new DataInputStream(new ByteArrayInputStream(signatures.toByteArray())));
+            fail("A signature count the block size cannot produce should not be accepted");
+        } catch (IOException expected) {
+            // expected
+        }
+    }
+
+    private int assertRoundTrip(byte[] base, byte[] target) throws IOException {
+        final File baseFile = write("base", base);
+        final byte[] delta = delta(baseFile, write("target", target));
+        final File result = new File(rootDir, "result");
+        ContentDelta.applyDelta(baseFile, new DataInputStream(new ByteArrayInputStream(delta)), result);
+        assertArrayEquals(target, Files.readAllBytes(result.toPath()));
+        return delta.length;
+    }
+
+    private byte[] delta(File base, File target) throws IOException {
+        final ByteArrayOutputStream signatures = new ByteArrayOutputStream();
+        ContentDelta.writeSignatures(base, true, new DataOutputStream(signatures));
+        final ByteArrayOutputStream delta = new ByteArrayOutputStream();
+        ContentDelta.writeDelta(ContentDelta.readSignatures(new DataInputStream(new ByteArrayInputStream(signatures.toByteArray()))),
+                target, new DataOutputStream(delta));
+        return delta.toByteArray();
+    }
+
+    private File write(String name, byte[] content) throws IOException {
+        final File file = new File(rootDir, name);
+        Files.write(file.toPath(), content);
+        return file;
+    }
+
+    private byte[] randomBytes(int length) {
+        final byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -40,14 +40,20 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
 import java.security.AccessController;
+import java.security.MessageDigest;
 import java.security.PrivilegedAction;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
@@ -124,6 +130,37 @@ public class ContentRepositoryTest {
         }
     }
 
+    /**
+     * Test that concurrent calls of addContent each get the hash of their own content.
+     */
+    @Test
+    public void testConcurrentAddContent() throws Exception {
+        final int count = 8;
+        final byte[][] contents = new byte[count][];
+        final String[] expected = new String[count];
+        final Random random = new Random(count);
+        for (int i = 0; i < count; i++) {
+            contents[i] = new byte[64 * 1024 + i];
+            random.nextBytes(contents[i]);
+            expected[i] = HashUtil.bytesToHexString(MessageDigest.getInstance("SHA-1").digest(contents[i]));
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(count);
+        try {
+            final List<Future<byte[]>> results = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                final byte[] content = contents[i];
+                results.add(executor.submit(() -> repository.addContent(new ByteArrayInputStream(content))));
+            }
+            for (int i = 0; i < count; i++) {
+                byte[] result = results.get(i).get();
+                assertThat(HashUtil.bytesToHexString(result), is(expected[i]));
+                assertTrue(repository.hasContent(result));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     /**
      * Test of explodeContent method, of class ContentRepository.
      */
@@ -51,6 +51,7 @@ import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Deque;
 import java.util.List;
@@ -58,6 +59,8 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import io.undertow.security.api.SecurityContext;
+import io.undertow.security.idm.Account;
 import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
 import io.undertow.util.ETag;
@@ -74,9 +77,11 @@ import org.jboss.as.controller.client.OperationResponse;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.core.security.AccessMechanism;
 import org.jboss.as.domain.http.server.logging.HttpServerLogger;
+import org.jboss.as.domain.http.server.security.ElytronIdentityHandler;
 import org.jboss.as.protocol.StreamUtils;
 import org.jboss.dmr.ModelNode;
 import org.xnio.IoUtils;
+import org.wildfly.security.auth.server.SecurityIdentity;
 import org.xnio.streams.ChannelInputStream;
 
 /**
@@ -218,6 +223,21 @@ class DomainApiHandler implements HttpHandler {
             if (headers.hasDefined(DOMAIN_UUID)) {
                 headers.remove(DOMAIN_UUID);
             }
+            if (get && streamIndex < 0) {
+                // Reads of configuration can be validated against the generation of the model without executing them.
+                // The controller still checks that the caller may execute the read, and audit logs it
+                final String generation = modelController.getConfigurationGeneration(dmr);
+                if (generation != null) {
+                    final ETag etag = createGenerationETag(exchange, dmr, generation);
+                    operationParameterBuilder.etag(etag);
+                    if (!ETagUtils.handleIfNoneMatch(exchange, etag, false) && modelController.isCachedReadValid(dmr, generation)) {
+                        exchange.setStatusCode(304);
+                        DomainUtil.writeCacheHeaders(exchange, 304, operationParameterBuilder.build());
+                        exchange.endExchange();
+                        return;
+                    }
+                }
+            }
             response = modelController.execute(new OperationBuilder(dmr).build(), OperationMessageHandler.logging, control);
             if (cachable && streamIndex > -1) {
                 // Use the MD5 of the model nodes asString() method as ETag
@@ -241,6 +261,29 @@ class DomainApiHandler implements HttpHandler {
         callback.sendResponse(response);
     }
 
+    /**
+     * Creates an ETag for the result of an operation reading the given generation of the model. The generation
+     * identifies the controller instance, so tags issued before a reload are not mistaken for current ones. The result
+     * depends on the permissions of the caller, so the caller is part of the tag.
+     */
+    private static ETag createGenerationETag(final HttpServerExchange exchange, final ModelNode operation, final String generation) throws NoSuchAlgorithmException {
+        final MessageDigest md = MessageDigest.getInstance("MD5");
+        md.update(getCallerName(exchange).getBytes(StandardCharsets.UTF_8));
+        md.update((byte) 0);
+        md.update(operation.toString().getBytes(StandardCharsets.UTF_8));
+        return new ETag(false, generation + '-' + HexConverter.convertToHexString(md.digest()));
+    }
+
+    private static String getCallerName(final HttpServerExchange exchange) {
+        final SecurityIdentity identity = exchange.getAttachment(ElytronIdentityHandler.IDENTITY_KEY);
+        if (identity != null) {
+            return identity.getPrincipal().getName();
+        }
+        final SecurityContext securityContext = exchange.getSecurityContext();
+        final Account account = securityContext == null ? null : securityContext.getAuthenticatedAccount();
+        return account == null ? "" : account.getPrincipal().getName();
+    }
+
     private GetOperation getOperation(HttpServerExchange exchange) {
         Map<String, Deque<String>> queryParameters = exchange.getQueryParameters();
 
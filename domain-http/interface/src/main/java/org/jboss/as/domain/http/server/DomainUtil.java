@@ -28,9 +28,13 @@ import static io.undertow.util.Headers.HOST;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
 
 import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Deque;
@@ -83,9 +87,16 @@ public class DomainUtil {
             response = response.get(RESULT);
         }
         try {
-            byte[] data = getResponseBytes(response, operationParameter);
-            responseHeaders.put(Headers.CONTENT_LENGTH, data.length);
-            exchange.getResponseSender().send(ByteBuffer.wrap(data));
+            if (exchange.isInIoThread()) {
+                // We cannot block the IO thread, so serialize the whole response first
+                byte[] data = getResponseBytes(response, operationParameter);
+                responseHeaders.put(Headers.CONTENT_LENGTH, data.length);
+                exchange.getResponseSender().send(ByteBuffer.wrap(data));
+            } else {
+                try (OutputStream out = new ResponseOutputStream(exchange)) {
+                    writeResponse(response, operationParameter, out);
+                }
+            }
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -169,15 +180,87 @@ public class DomainUtil {
     }
 
     private static byte[] getResponseBytes(final ModelNode modelNode, final OperationParameter operationParameter) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeResponse(modelNode, operationParameter, baos);
+        return baos.toByteArray();
+    }
+
+    private static void writeResponse(final ModelNode modelNode, final OperationParameter operationParameter, final OutputStream out) throws IOException {
         if (operationParameter.isEncode()) {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            BufferedOutputStream out = new BufferedOutputStream(baos);
-            modelNode.writeBase64(out);
-            out.flush();
-            return baos.toByteArray();
+            BufferedOutputStream buffered = new BufferedOutputStream(out);
+            modelNode.writeBase64(buffered);
+            buffered.flush();
         } else {
-            String json = modelNode.toJSONString(!operationParameter.isPretty());
-            return json.getBytes(StandardCharsets.UTF_8);
+            PrintWriter print = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+            modelNode.writeJSONString(print, !operationParameter.isPretty());
+            print.flush();
+            if (print.checkError()) {
+                throw new IOException();
+            }
+        }
+    }
+
+    /**
+     * Writes a response to the exchange as it is serialized. A response which fits in the first buffer is sent with
+     * its content length, a larger one is streamed through the exchange's pooled buffers instead of being built up
+     * on the heap.
+     */
+    private static final class ResponseOutputStream extends OutputStream {
+        private static final int BUFFER_SIZE = 8192;
+
+        private final HttpServerExchange exchange;
+        private byte[] buffer = new byte[BUFFER_SIZE];
+        private int count;
+        private OutputStream out;
+        private boolean closed;
+
+        private ResponseOutputStream(final HttpServerExchange exchange) {
+            this.exchange = exchange;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (out == null && count == buffer.length) {
+                startStreaming();
+            }
+            if (out == null) {
+                buffer[count++] = (byte) b;
+            } else {
+                out.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (out == null && count + len > buffer.length) {
+                startStreaming();
+            }
+            if (out == null) {
+                System.arraycopy(b, off, buffer, count, len);
+                count += len;
+            } else {
+                out.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (out == null) {
+                exchange.getResponseHeaders().put(Headers.CONTENT_LENGTH, count);
+                startStreaming();
+            }
+            out.close();
+        }
+
+        private void startStreaming() throws IOException {
+            exchange.startBlocking();
+            out = exchange.getOutputStream();
+            out.write(buffer, 0, count);
+            buffer = null;
         }
     }
 
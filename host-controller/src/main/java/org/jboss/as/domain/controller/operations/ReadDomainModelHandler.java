@@ -37,11 +37,22 @@ class ReadDomainModelHandler implements OperationStepHandler {
 
     private final Transformers transformers;
     private final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry;
+    private final ModelNode knownDigests;
     private final boolean lock;
 
     public ReadDomainModelHandler(final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry, final Transformers transformers, final boolean lock) {
+        this(ignoredTransformationRegistry, transformers, null, lock);
+    }
+
+    /**
+     * @param knownDigests digests of the top-level resources the slave already has, whose unchanged resources are
+     *                     replaced by a placeholder in the result. May be {@code null}
+     */
+    public ReadDomainModelHandler(final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry, final Transformers transformers,
+                                  final ModelNode knownDigests, final boolean lock) {
         this.transformers = transformers;
         this.ignoredTransformationRegistry = ignoredTransformationRegistry != null ? ignoredTransformationRegistry : Transformers.DEFAULT;
+        this.knownDigests = knownDigests;
         this.lock = lock;
     }
 
@@ -55,7 +66,7 @@ class ReadDomainModelHandler implements OperationStepHandler {
         final Transformers.TransformationInputs transformationInputs = new Transformers.TransformationInputs(context);
         final ReadMasterDomainModelUtil readUtil = ReadMasterDomainModelUtil.readMasterDomainResourcesForInitialConnect(transformers,
                 transformationInputs, ignoredTransformationRegistry, transformationInputs.getRootResource());
-        context.getResult().set(readUtil.getDescribedResources());
+        context.getResult().set(ReadMasterDomainModelUtil.replaceUnchangedResources(readUtil.getDescribedResources(), knownDigests));
     }
 
 }
@@ -74,7 +74,8 @@ public class ReadMasterDomainModelHandler implements OperationStepHandler {
             ignoredTransformationRegistry = ReadMasterDomainModelUtil.createHostIgnoredRegistry(hostInfo, rc);
         }
 
-        final OperationStepHandler handler = new ReadDomainModelHandler(ignoredTransformationRegistry, transformers, lock);
+        final ModelNode knownDigests = hostInfo == null ? null : hostInfo.getDomainModelDigests();
+        final OperationStepHandler handler = new ReadDomainModelHandler(ignoredTransformationRegistry, transformers, knownDigests, lock);
         context.addStep(handler, OperationContext.Stage.MODEL);
     }
 
@@ -30,12 +30,21 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SER
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SOCKET_BINDING_GROUP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import org.jboss.as.controller.HashUtil;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
@@ -47,6 +56,7 @@ import org.jboss.as.controller.transform.Transformers;
 import org.jboss.as.host.controller.IgnoredNonAffectedServerGroupsUtil;
 import org.jboss.as.host.controller.mgmt.HostInfo;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
 
 /**
  * Utility for the DC operation handlers to describe the missing resources for the slave hosts which are
@@ -65,6 +75,22 @@ public class ReadMasterDomainModelUtil {
 
     public static final String ORDERED_CHILD_TYPES_PROPERTY = "ordered-child-types";
 
+    /**
+     * Replaces the resources under a top-level address which are unchanged since the slave last got them. Its
+     * value is the digest of those resources.
+     */
+    public static final String DOMAIN_RESOURCE_DIGEST = "domain-resource-digest";
+
+    private static final OutputStream NULL_OUTPUT = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
     private final Set<PathElement> newRootResources = new HashSet<>();
 
     private volatile List<ModelNode> describedResources;
@@ -103,6 +129,119 @@ public class ReadMasterDomainModelUtil {
         return describedResources;
     }
 
+    /**
+     * Computes a digest of the described resources under each top-level address. A slave sends these back when it
+     * reconnects, so that the DC only needs to send the resources which changed in the meantime.
+     *
+     * @param describedResources the described resources
+     * @return a model with a digest for each top-level address
+     */
+    public static ModelNode getDescribedResourceDigests(final List<ModelNode> describedResources) {
+        final ModelNode digests = new ModelNode().setEmptyObject();
+        for (Map.Entry<String, List<ModelNode>> group : groupByTopLevelAddress(describedResources).entrySet()) {
+            if (!group.getKey().isEmpty()) {
+                digests.get(group.getKey()).set(digest(group.getValue()));
+            }
+        }
+        return digests;
+    }
+
+    /**
+     * Replaces the described resources under each top-level address whose digest is known to the slave by a single
+     * placeholder with the {@link #DOMAIN_RESOURCE_DIGEST}.
+     *
+     * @param describedResources the described resources
+     * @param knownDigests the digests sent by the slave, may be {@code null}
+     * @return the resources to send to the slave
+     */
+    static List<ModelNode> replaceUnchangedResources(final List<ModelNode> describedResources, final ModelNode knownDigests) {
+        if (knownDigests == null || !knownDigests.isDefined()) {
+            return describedResources;
+        }
+        final List<ModelNode> result = new ArrayList<>();
+        for (Map.Entry<String, List<ModelNode>> group : groupByTopLevelAddress(describedResources).entrySet()) {
+            final String key = group.getKey();
+            final List<ModelNode> resources = group.getValue();
+            if (!key.isEmpty() && knownDigests.hasDefined(key)) {
+                final String digest = digest(resources);
+                if (digest.equals(knownDigests.get(key).asString())) {
+                    final ModelNode placeholder = new ModelNode();
+                    placeholder.get(DOMAIN_RESOURCE_ADDRESS).set(resources.get(0).get(DOMAIN_RESOURCE_ADDRESS));
+                    placeholder.get(DOMAIN_RESOURCE_DIGEST).set(digest);
+                    result.add(placeholder);
+                    continue;
+                }
+            }
+            result.addAll(resources);
+        }
+        return result;
+    }
+
+    /**
+     * Replaces the placeholders in resources sent by the DC with the resources the slave got before.
+     *
+     * @param receivedResources the resources sent by the DC
+     * @param previousResources the complete resources last applied by the slave, may be {@code null}
+     * @return the complete resources, or {@code null} if a placeholder does not match the previous resources
+     */
+    public static List<ModelNode> restoreUnchangedResources(final List<ModelNode> receivedResources, final List<ModelNode> previousResources) {
+        Map<String, List<ModelNode>> previous = null;
+        final List<ModelNode> result = new ArrayList<>(receivedResources.size());
+        for (ModelNode resource : receivedResources) {
+            if (!resource.hasDefined(DOMAIN_RESOURCE_DIGEST)) {
+                result.add(resource);
+                continue;
+            }
+            if (previousResources == null) {
+                return null;
+            }
+            if (previous == null) {
+                previous = groupByTopLevelAddress(previousResources);
+            }
+            final List<ModelNode> unchanged = previous.get(getTopLevelKey(resource));
+            if (unchanged == null || !digest(unchanged).equals(resource.get(DOMAIN_RESOURCE_DIGEST).asString())) {
+                return null;
+            }
+            result.addAll(unchanged);
+        }
+        return result;
+    }
+
+    /** Groups the resources by their top-level address, with the root resource under the empty key */
+    private static Map<String, List<ModelNode>> groupByTopLevelAddress(final List<ModelNode> describedResources) {
+        final Map<String, List<ModelNode>> groups = new LinkedHashMap<>();
+        for (ModelNode resource : describedResources) {
+            groups.computeIfAbsent(getTopLevelKey(resource), k -> new ArrayList<>()).add(resource);
+        }
+        return groups;
+    }
+
+    private static String getTopLevelKey(final ModelNode resource) {
+        final List<Property> address = resource.get(DOMAIN_RESOURCE_ADDRESS).asPropertyList();
+        if (address.isEmpty()) {
+            return "";
+        }
+        final Property element = address.get(0);
+        return element.getName() + '=' + element.getValue().asString();
+    }
+
+    private static String digest(final List<ModelNode> resources) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (DataOutputStream out = new DataOutputStream(new DigestOutputStream(NULL_OUTPUT, digest))) {
+            for (ModelNode resource : resources) {
+                resource.writeExternal(out);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return HashUtil.bytesToHexString(digest.digest());
+    }
+
     /**
      * Describe the model as a list of resources with their address and model, which
      * the HC can directly apply to create the model. Although the format might appear
@@ -175,6 +175,16 @@ public class HostControllerConfigurationPersister implements ExtensibleConfigura
                     delegates[1].rollback();
                 }
             }
+
+            @Override
+            public void awaitCommitted() {
+                if (delegates[0] != null) {
+                    delegates[0].awaitCommitted();
+                }
+                if (delegates[1] != null) {
+                    delegates[1].awaitCommitted();
+                }
+            }
         };
     }
 
@@ -196,6 +206,14 @@ public class HostControllerConfigurationPersister implements ExtensibleConfigura
         }
     }
 
+    @Override
+    public void flush() {
+        hostPersister.flush();
+        if (domainPersister != null) {
+            domainPersister.flush();
+        }
+    }
+
     @Override
     public String snapshot() throws ConfigurationPersistenceException {
         throw new UnsupportedOperationException();
@@ -39,9 +39,12 @@ import java.io.DataInput;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
+import java.security.MessageDigest;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
@@ -79,6 +82,7 @@ import org.jboss.as.domain.controller.DomainController;
 import org.jboss.as.domain.controller.LocalHostControllerInfo;
 import org.jboss.as.domain.controller.SlaveRegistrationException;
 import org.jboss.as.domain.controller.operations.FetchMissingConfigurationHandler;
+import org.jboss.as.domain.controller.operations.ReadMasterDomainModelUtil;
 import org.jboss.as.domain.controller.operations.SyncDomainModelOperationHandler;
 import org.jboss.as.domain.controller.operations.SyncServerGroupOperationHandler;
 import org.jboss.as.domain.controller.operations.coordination.DomainControllerLockIdUtils;
@@ -135,10 +139,16 @@ import org.xnio.Options;
 public class RemoteDomainConnectionService implements MasterDomainControllerClient, Service<MasterDomainControllerClient> {
 
     public static final String DOMAIN_CONNECTION_ID = "domain-connection-id";
+    /** Key in the host info for the digests of the domain resources the host last got from the DC */
+    public static final String DOMAIN_MODEL_DIGESTS = "domain-model-digests";
 
     private static final int CONNECTION_TIMEOUT_DEFAULT = 30000;
     private static final String CONNECTION_TIMEOUT_PROPERTY = "jboss.host.domain.connection.timeout";
     private static final int CONNECTION_TIMEOUT = getSystemProperty(CONNECTION_TIMEOUT_PROPERTY, CONNECTION_TIMEOUT_DEFAULT);
+    /** Whether the differing parts of deployment content sent as a delta may be deflated by the master */
+    private static final boolean COMPRESS_FILE_DELTAS = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged("jboss.host.domain.content.delta.compress", "true"));
+    /** The name of the file holding deployment content in its root */
+    private static final String CONTENT = "content";
 
     //private static final ModelNode APPLY_EXTENSIONS = new ModelNode();
     private static final ModelNode APPLY_DOMAIN_MODEL = new ModelNode();
@@ -164,6 +174,9 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
     }
 
     private final ExtensionRegistry extensionRegistry;
+    /** The complete domain model last applied from the DC, and its digests, to let the DC skip unchanged resources on reconnect */
+    private volatile List<ModelNode> lastDomainModel;
+    private volatile ModelNode lastDomainModelDigests;
     private final ModelController controller;
     private final ProductConfig productConfig;
     private final LocalHostControllerInfo localHostInfo;
@@ -524,7 +537,12 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
                  */
                 @Override
                 public ModelNode createLocalHostInfo() {
-                    return HostInfo.createLocalHostHostInfo(localHostInfo, productConfig, ignoredDomainResourceRegistry, ReadRootResourceHandler.grabDomainResource(operationExecutor).getChildren(HOST).iterator().next());
+                    final ModelNode info = HostInfo.createLocalHostHostInfo(localHostInfo, productConfig, ignoredDomainResourceRegistry, ReadRootResourceHandler.grabDomainResource(operationExecutor).getChildren(HOST).iterator().next());
+                    final ModelNode digests = lastDomainModelDigests;
+                    if (digests != null) {
+                        info.get(DOMAIN_MODEL_DIGESTS).set(digests);
+                    }
+                    return info;
                 }
 
                 @Override
@@ -534,9 +552,23 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
 
                 @Override
                 public boolean applyDomainModel(final List<ModelNode> bootOperations) {
+                    // Fill in the resources the DC left out as unchanged since the last sync
+                    final List<ModelNode> domainModel = ReadMasterDomainModelUtil.restoreUnchangedResources(bootOperations, lastDomainModel);
+                    lastDomainModel = null;
+                    lastDomainModelDigests = null;
+                    if (domainModel == null) {
+                        // Not expected, but the next attempt will get the full model
+                        HostControllerLogger.ROOT_LOGGER.debug("Domain model from master refers to resources which are not known locally");
+                        return false;
+                    }
                     // Apply the model..
                     final HostInfo info = HostInfo.fromModelNode(createLocalHostInfo());
-                    return applyRemoteDomainModel(bootOperations, info);
+                    if (!applyRemoteDomainModel(domainModel, info)) {
+                        return false;
+                    }
+                    lastDomainModel = domainModel;
+                    lastDomainModelDigests = ReadMasterDomainModelUtil.getDescribedResourceDigests(domainModel);
+                    return true;
                 }
 
                 @Override
@@ -684,23 +716,29 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         private final byte rootId;
         private final String filePath;
         private final HostFileRepository localFileRepository;
+        private final File deltaBase;
 
-        private GetFileRequest(final byte rootId, final String filePath, final HostFileRepository localFileRepository) {
+        private GetFileRequest(final byte rootId, final String filePath, final HostFileRepository localFileRepository, final File deltaBase) {
             this.rootId = rootId;
             this.filePath = filePath;
             this.localFileRepository = localFileRepository;
+            this.deltaBase = deltaBase;
         }
 
         @Override
         public byte getOperationType() {
-            return DomainControllerProtocol.GET_FILE_REQUEST;
+            return deltaBase == null ? DomainControllerProtocol.GET_FILE_REQUEST : DomainControllerProtocol.GET_FILE_DELTA_REQUEST;
         }
 
         @Override
         protected void sendRequest(ActiveOperation.ResultHandler<File> resultHandler, ManagementRequestContext<Void> context, FlushableDataOutput output) throws IOException {
             output.write(DomainControllerProtocol.PARAM_HOST_ID);
             output.writeUTF(localHostInfo.getLocalHostName());
-            DomainRemoteFileRequestAndHandler.INSTANCE.sendRequest(output, rootId, filePath);
+            if (deltaBase == null) {
+                DomainRemoteFileRequestAndHandler.INSTANCE.sendRequest(output, rootId, filePath);
+            } else {
+                DomainRemoteFileRequestAndHandler.INSTANCE.sendDeltaRequest(output, rootId, filePath, deltaBase, COMPRESS_FILE_DELTAS);
+            }
         }
 
         @Override
@@ -725,7 +763,7 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
                 }
             }
             try {
-                DomainRemoteFileRequestAndHandler.INSTANCE.handleResponse(input, localPath, ROOT_LOGGER, resultHandler, context);
+                DomainRemoteFileRequestAndHandler.INSTANCE.handleResponse(input, localPath, deltaBase, ROOT_LOGGER, resultHandler, context);
             } catch (CannotCreateLocalDirectoryException e) {
                 throw HostControllerLogger.ROOT_LOGGER.cannotCreateLocalDirectory(e.getDir());
             } catch (DidNotReadEntireFileException e) {
@@ -737,6 +775,8 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
     static class RemoteFileRepository implements HostFileRepository {
         private final HostFileRepository localFileRepository;
         private volatile RemoteFileRepositoryExecutor remoteFileRepositoryExecutor;
+        /** The hash of the content last used for each content identifier, whose blocks new content can be built from */
+        private final ConcurrentMap<String, String> contentHashes = new ConcurrentHashMap<>();
 
         RemoteFileRepository(final HostFileRepository localFileRepository) {
             this.localFileRepository = localFileRepository;
@@ -762,13 +802,52 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         public File getDeploymentRoot(ContentReference reference) {
             File file = localFileRepository.getDeploymentRoot(reference);
             if(! file.exists()) {
-                return getFile(reference.getHexHash(), DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT);
+                file = remoteFileRepositoryExecutor.getFile(reference.getHexHash(), DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT,
+                        localFileRepository, getDeltaBase(reference));
+                verifyContent(reference, file);
+            }
+            if (reference.getContentIdentifier() != null && !reference.getHexHash().isEmpty()) {
+                contentHashes.put(reference.getContentIdentifier(), reference.getHexHash());
             }
             return file;
         }
 
+        /**
+         * Gets the content file of the previous version of some content if it is still in the local repository.
+         */
+        private File getDeltaBase(ContentReference reference) {
+            final String previous = reference.getContentIdentifier() == null ? null : contentHashes.get(reference.getContentIdentifier());
+            if (previous == null || previous.equals(reference.getHexHash())) {
+                return null;
+            }
+            final File root = localFileRepository.getDeploymentRoot(new ContentReference(reference.getContentIdentifier(), previous));
+            final File content = new File(root, CONTENT);
+            return content.isFile() ? content : null;
+        }
+
+        /**
+         * Checks fetched content against its hash, so that content which was rebuilt from a delta or which may come
+         * from a source other than the domain controller is never used if it is not what was asked for.
+         */
+        private void verifyContent(ContentReference reference, File root) {
+            final File content = new File(root, CONTENT);
+            if (reference.getHexHash().isEmpty() || !content.exists()) {
+                return;
+            }
+            final byte[] hash;
+            try {
+                hash = ContentRepository.hashContent(content.toPath());
+            } catch (IOException e) {
+                throw HostControllerLogger.ROOT_LOGGER.failedToGetFileFromRemoteRepository(e);
+            }
+            if (!MessageDigest.isEqual(hash, reference.getHash())) {
+                localFileRepository.deleteDeployment(reference);
+                throw HostControllerLogger.ROOT_LOGGER.receivedContentDoesNotMatchHash(reference.getHexHash());
+            }
+        }
+
         private File getFile(final String relativePath, final byte repoId) {
-            return remoteFileRepositoryExecutor.getFile(relativePath, repoId, localFileRepository);
+            return remoteFileRepositoryExecutor.getFile(relativePath, repoId, localFileRepository, null);
         }
 
         void setRemoteFileRepositoryExecutor(RemoteFileRepositoryExecutor remoteFileRepositoryExecutor) {
@@ -782,14 +861,29 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
     }
 
     interface RemoteFileRepositoryExecutor {
-        File getFile(final String relativePath, final byte repoId, HostFileRepository localFileRepository);
+        /**
+         * Gets a file from the domain controller.
+         *
+         * @param deltaBase an older version of the single file of the requested deployment content, which only the
+         *                  differences need to be sent from, or {@code null}
+         */
+        File getFile(final String relativePath, final byte repoId, HostFileRepository localFileRepository, File deltaBase);
     }
 
     private final RemoteFileRepositoryExecutor remoteFileRepositoryExecutor = new RemoteFileRepositoryExecutor() {
-        public File getFile(final String relativePath, final byte repoId, HostFileRepository localFileRepository) {
+        public File getFile(final String relativePath, final byte repoId, HostFileRepository localFileRepository, File deltaBase) {
             if(connection.isConnected()) {
+                if (deltaBase != null) {
+                    try {
+                        return handler.executeRequest(new GetFileRequest(repoId, relativePath, localFileRepository, deltaBase), null).getResult().get();
+                    } catch (Exception e) {
+                        // e.g. a master that does not support deltas; discard any partial content and get all of it
+                        ROOT_LOGGER.debugf(e, "Failed to get %s as a delta against %s", relativePath, deltaBase);
+                        localFileRepository.deleteDeployment(new ContentReference(relativePath, relativePath));
+                    }
+                }
                 try {
-                    return handler.executeRequest(new GetFileRequest(repoId, relativePath, localFileRepository), null).getResult().get();
+                    return handler.executeRequest(new GetFileRequest(repoId, relativePath, localFileRepository, null), null).getResult().get();
                 } catch (Exception e) {
                     throw HostControllerLogger.ROOT_LOGGER.failedToGetFileFromRemoteRepository(e);
                 }
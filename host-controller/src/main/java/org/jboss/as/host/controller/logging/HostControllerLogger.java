@@ -1368,4 +1368,14 @@ public interface HostControllerLogger extends BasicLogger {
     @LogMessage(level = Level.ERROR)
     @Message(id = 200, value = "Reporting instability of server '%s' to Domain Controller failed.")
     void failedReportingServerInstabilityToMaster(@Cause Exception e, String serverName);
+
+    /**
+     * Creates an exception indicating content received from another host does not match its hash.
+     *
+     * @param hash the expected hash of the content
+     *
+     * @return a {@link RuntimeException} for the error.
+     */
+    @Message(id = 201, value = "Content received for %s does not match its hash")
+    RuntimeException receivedContentDoesNotMatchHash(String hash);
 }
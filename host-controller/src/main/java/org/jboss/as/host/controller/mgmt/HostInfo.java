@@ -125,6 +125,7 @@ public class HostInfo implements Transformers.ResourceIgnoredTransformationRegis
     private final String productName;
     private final String productVersion;
     private final Long remoteConnectionId;
+    private final ModelNode domainModelDigests;
     private final Transformers.ResourceIgnoredTransformationRegistry ignoredResources;
     private final boolean ignoreUnaffectedConfig;
     private final Set<ServerConfigInfo> serverConfigInfos;
@@ -144,6 +145,8 @@ public class HostInfo implements Transformers.ResourceIgnoredTransformationRegis
         productVersion = hostInfo.hasDefined(PRODUCT_VERSION) ? hostInfo.require(PRODUCT_VERSION).asString() : null;
         remoteConnectionId = hostInfo.hasDefined(RemoteDomainConnectionService.DOMAIN_CONNECTION_ID)
                 ? hostInfo.get(RemoteDomainConnectionService.DOMAIN_CONNECTION_ID).asLong() : null;
+        domainModelDigests = hostInfo.hasDefined(RemoteDomainConnectionService.DOMAIN_MODEL_DIGESTS)
+                ? hostInfo.get(RemoteDomainConnectionService.DOMAIN_MODEL_DIGESTS).clone() : null;
 
         Set<String> domainIgnoredExtensions = null;
         Set<String> domainActiveServerGroups = null;
@@ -217,6 +220,16 @@ public class HostInfo implements Transformers.ResourceIgnoredTransformationRegis
         return remoteConnectionId;
     }
 
+    /**
+     * Gets the digests of the domain resources the host got when it last synced with the DC.
+     *
+     * @return the digests as returned by {@link ReadMasterDomainModelUtil#getDescribedResourceDigests(java.util.List)},
+     *         or {@code null} if the host does not have them
+     */
+    public ModelNode getDomainModelDigests() {
+        return domainModelDigests;
+    }
+
     public boolean isResourceTransformationIgnored(final PathAddress address) {
         // This resource transformation is only used when registering the host
         // Future operations will send an updated list of ignored-resources
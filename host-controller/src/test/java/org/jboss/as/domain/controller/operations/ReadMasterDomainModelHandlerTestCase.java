@@ -35,7 +35,9 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REL
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RELEASE_VERSION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WILDCARD;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 import org.jboss.as.controller.ExpressionResolver;
 import org.jboss.as.controller.ModelVersion;
@@ -115,6 +117,40 @@ public class ReadMasterDomainModelHandlerTestCase {
         Assert.assertFalse(transformed.get("profile").hasDefined("ignored"));
     }
 
+    @Test
+    public void testUnchangedResourcesAreReplaced() {
+        final List<ModelNode> previous = describe("old");
+        final ModelNode digests = ReadMasterDomainModelUtil.getDescribedResourceDigests(previous);
+        Assert.assertEquals(2, digests.keys().size());
+
+        final List<ModelNode> current = describe("new");
+        final List<ModelNode> sent = ReadMasterDomainModelUtil.replaceUnchangedResources(current, digests);
+        // the root and the changed profile are sent, the unchanged profile is replaced by a placeholder
+        Assert.assertEquals(4, sent.size());
+        Assert.assertTrue(sent.get(1).hasDefined(ReadMasterDomainModelUtil.DOMAIN_RESOURCE_DIGEST));
+
+        Assert.assertEquals(current, ReadMasterDomainModelUtil.restoreUnchangedResources(sent, previous));
+        Assert.assertNull(ReadMasterDomainModelUtil.restoreUnchangedResources(sent, null));
+        Assert.assertEquals(current, ReadMasterDomainModelUtil.replaceUnchangedResources(current, null));
+    }
+
+    private List<ModelNode> describe(String value) {
+        final List<ModelNode> described = new ArrayList<>();
+        described.add(describe(PathAddress.EMPTY_ADDRESS, "root"));
+        described.add(describe(PathAddress.pathAddress(PROFILE, "unchanged"), "profile"));
+        described.add(describe(PathAddress.pathAddress(PROFILE, "unchanged").append("subsystem", "thingy"), "value"));
+        described.add(describe(PathAddress.pathAddress(PROFILE, "changed"), "profile"));
+        described.add(describe(PathAddress.pathAddress(PROFILE, "changed").append("subsystem", "thingy"), value));
+        return described;
+    }
+
+    private ModelNode describe(PathAddress address, String value) {
+        final ModelNode description = new ModelNode();
+        description.get(ReadMasterDomainModelUtil.DOMAIN_RESOURCE_ADDRESS).set(address.toModelNode());
+        description.get(ReadMasterDomainModelUtil.DOMAIN_RESOURCE_MODEL, "attr").set(value);
+        return description;
+    }
+
     private Resource createProfile() {
         Resource profile = Resource.Factory.create();
         Resource subsystem = Resource.Factory.create();
@@ -0,0 +1,112 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller;
+
+import static org.jboss.as.repository.PathUtil.deleteRecursively;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.repository.ContentReference;
+import org.jboss.as.repository.LocalFileRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the verification of deployment content fetched from the domain controller.
+ */
+public class RemoteFileRepositoryTestCase {
+
+    private final File rootDir = new File("target", "remote-file-repository");
+    private LocalFileRepository localRepository;
+
+    @Before
+    public void createRootDir() throws IOException {
+        deleteRecursively(rootDir.toPath());
+        Files.createDirectories(rootDir.toPath());
+        localRepository = new LocalFileRepository(rootDir, new File(rootDir, "content"), new File(rootDir, "configuration"));
+    }
+
+    @After
+    public void destroyRootDir() throws IOException {
+        deleteRecursively(rootDir.toPath());
+    }
+
+    @Test
+    public void testFetchedDeploymentMatchingHash() throws Exception {
+        final byte[] content = "test deployment content".getBytes(StandardCharsets.UTF_8);
+        final ContentReference reference = new ContentReference("test.jar", sha1(content));
+        final RemoteDomainConnectionService.RemoteFileRepository repository = createRepository(content);
+
+        final File root = repository.getDeploymentRoot(reference);
+        assertEquals(localRepository.getDeploymentRoot(reference), root);
+        assertArrayEquals(content, Files.readAllBytes(new File(root, "content").toPath()));
+    }
+
+    @Test
+    public void testFetchedDeploymentNotMatchingHash() throws Exception {
+        final ContentReference reference = new ContentReference("test.jar",
+                sha1("expected content".getBytes(StandardCharsets.UTF_8)));
+        final RemoteDomainConnectionService.RemoteFileRepository repository =
+                createRepository("other content".getBytes(StandardCharsets.UTF_8));
+        try {
+            repository.getDeploymentRoot(reference);
+            fail("Content not matching its hash should not be accepted");
+        } catch (RuntimeException expected) {
+            // expected
+        }
+        assertFalse(localRepository.getDeploymentRoot(reference).exists());
+    }
+
+    /**
+     * Creates a repository fetching the given bytes as the single file of any deployment, as the domain controller does.
+     */
+    private RemoteDomainConnectionService.RemoteFileRepository createRepository(final byte[] content) {
+        final RemoteDomainConnectionService.RemoteFileRepository repository =
+                new RemoteDomainConnectionService.RemoteFileRepository(localRepository);
+        repository.setRemoteFileRepositoryExecutor((relativePath, repoId, localFileRepository, deltaBase) -> {
+            final File root = localFileRepository.getDeploymentRoot(new ContentReference(null, relativePath));
+            try {
+                Files.createDirectories(root.toPath());
+                Files.write(new File(root, "content").toPath(), content);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return root;
+        });
+        return repository;
+    }
+
+    private static String sha1(byte[] content) throws Exception {
+        return HashUtil.bytesToHexString(MessageDigest.getInstance("SHA-1").digest(content));
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+/**
+ * A concurrency limit that adapts to the latency of the requests being run, using the gradient algorithm popularised
+ * by Netflix's concurrency-limits library.
+ * <p/>
+ * The limit is recomputed once per sampling window from the average request latency seen in that window, compared
+ * to a long term average. While latency stays close to the long term average the limit grows by about its square
+ * root each window; once latency rises, which indicates requests are queueing for some resource, the limit shrinks
+ * in proportion. The limit only grows while it is actually being used, so an idle server does not drift towards an
+ * unbounded limit.
+ * <p/>
+ * If no initial limit is given the limit starts out unbounded, and is first set once latency rises, to the number of
+ * requests that were running at the time.
+ */
+final class AdaptiveRequestLimit {
+
+    /** How far the latency of a window may exceed the long term average before the limit is reduced */
+    private static final double TOLERANCE = 1.5;
+    /** Weight given to a newly computed limit relative to the previous one */
+    private static final double SMOOTHING = 0.2;
+    /** Number of windows averaged into the long term latency */
+    private static final int LONG_WINDOW = 100;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private double estimatedLimit;
+    private double longLatency;
+
+    private volatile int limit;
+    private volatile double lastLatency;
+
+    /**
+     * @param initialLimit the limit to start from, or a value less than one to start without a limit
+     * @param minLimit the lowest the limit may go
+     * @param maxLimit the highest the limit may go
+     */
+    AdaptiveRequestLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        if (initialLimit > 0) {
+            this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+            this.limit = (int) estimatedLimit;
+        } else {
+            this.limit = -1;
+        }
+    }
+
+    /**
+     * @return the current limit on the number of concurrent requests, or a value less than one if there is no limit yet
+     */
+    int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return the average request latency in nanoseconds of the last window that completed any request
+     */
+    double getLastLatency() {
+        return lastLatency;
+    }
+
+    /**
+     * Adjusts the limit for the results of a sampling window.
+     *
+     * @param latency the average latency in nanoseconds of the requests completed in the window
+     * @param averageInFlight the average number of requests running during the window
+     */
+    synchronized void update(double latency, double averageInFlight) {
+        if (latency <= 0) {
+            return;
+        }
+        lastLatency = latency;
+        if (longLatency == 0) {
+            longLatency = latency;
+        } else {
+            longLatency += (latency - longLatency) / LONG_WINDOW;
+        }
+        if (longLatency / latency > 2) {
+            // Latency has dropped well below the long term average, e.g. after a slow dependency recovered,
+            // so let the average catch up faster than it otherwise would
+            longLatency *= 0.95;
+        }
+        final double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longLatency / latency));
+        if (estimatedLimit == 0) {
+            if (gradient < 1.0) {
+                // The first sign of queueing, so whatever was running is about as much as the server handles well
+                estimatedLimit = Math.max(minLimit, Math.min(maxLimit, averageInFlight));
+                limit = (int) estimatedLimit;
+            }
+            return;
+        }
+        if (averageInFlight < estimatedLimit / 2) {
+            // Not limited by concurrency, so the latency says nothing about the limit
+            return;
+        }
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+}
@@ -31,4 +31,22 @@ interface Constants {
     String MAX_REQUESTS = "max-requests";
     String ACTIVE_REQUESTS = "active-requests";
     String TRACK_INDIVIDUAL_ENDPOINTS = "track-individual-endpoints";
+    String MAX_REQUESTS_PER_ENDPOINT = "max-requests-per-endpoint";
+    String ADAPTIVE_LIMIT = "adaptive-limit";
+    String ADAPTIVE_INITIAL_LIMIT = "adaptive-initial-limit";
+    String REQUEST_LIMIT = "request-limit";
+    String OBSERVED_LATENCY = "observed-latency";
+    String REJECTED_REQUESTS = "rejected-requests";
+    String ENDPOINT_STATISTICS = "endpoint-statistics";
+    String ENDPOINT = "endpoint";
+    String DEPLOYMENT = "deployment";
+    String ENTRY_POINT = "entry-point";
+    String COMPLETED_REQUESTS = "completed-requests";
+    String QUEUE_WAIT_MEAN = "queue-wait-mean";
+    String QUEUE_WAIT_P99 = "queue-wait-p99";
+    String QUEUE_WAIT_MAX = "queue-wait-max";
+    String REQUEST_TIME_MEAN = "request-time-mean";
+    String REQUEST_TIME_P50 = "request-time-p50";
+    String REQUEST_TIME_P99 = "request-time-p99";
+    String REQUEST_TIME_MAX = "request-time-max";
 }
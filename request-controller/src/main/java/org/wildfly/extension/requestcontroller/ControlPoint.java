@@ -23,6 +23,7 @@ package org.wildfly.extension.requestcontroller;
 
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
 import org.jboss.as.server.logging.ServerLogger;
 import org.jboss.as.server.suspend.ServerActivityCallback;
 import java.util.concurrent.Executor;
@@ -37,6 +38,9 @@ import java.util.concurrent.Executor;
  * Note that requests are tracked at two levels, both at the entry point level and the request controller level.
  * This allows for individual deployments/interfaces to be gracefully suspended, and also allows for the global
  * request controller to limit the total number of active requests.
+ * <p/>
+ * If individual control points are tracked then statistics are also kept for each of them: the number of completed
+ * and rejected requests, and histograms of how long queued tasks waited to run and how long requests took.
  *
  * @author Stuart Douglas
  */
@@ -48,7 +52,21 @@ public class ControlPoint {
     private final RequestController controller;
     private final String deployment;
     private final String entryPoint;
-    private final boolean trackIndividualControlPoints;
+    private final int maxRequestCount;
+
+    /**
+     * If active requests are counted for this entry point, which is needed either to track individual control
+     * points or to enforce a per control point limit
+     */
+    private final boolean countRequests;
+
+    /**
+     * Statistics of this entry point, all {@code null} unless individual control points are tracked
+     */
+    private final LongAdder completedRequests;
+    private final LongAdder rejectedRequests;
+    private final LatencyHistogram queueWaitTimes;
+    private final LatencyHistogram requestTimes;
 
     /**
      * The number of active requests that are using this entry point
@@ -70,11 +88,23 @@ public class ControlPoint {
      */
     private int referenceCount = 0;
 
-    ControlPoint(RequestController controller, String deployment, String entryPoint, boolean trackIndividualControlPoints) {
+    ControlPoint(RequestController controller, String deployment, String entryPoint, boolean trackIndividualControlPoints, int maxRequestCount) {
         this.controller = controller;
         this.deployment = deployment;
         this.entryPoint = entryPoint;
-        this.trackIndividualControlPoints = trackIndividualControlPoints;
+        this.maxRequestCount = maxRequestCount;
+        this.countRequests = trackIndividualControlPoints || maxRequestCount > 0;
+        if (trackIndividualControlPoints) {
+            this.completedRequests = new LongAdder();
+            this.rejectedRequests = new LongAdder();
+            this.queueWaitTimes = new LatencyHistogram();
+            this.requestTimes = new LatencyHistogram();
+        } else {
+            this.completedRequests = null;
+            this.rejectedRequests = null;
+            this.queueWaitTimes = null;
+            this.requestTimes = null;
+        }
     }
 
     public String getEntryPoint() {
@@ -122,18 +152,34 @@ public class ControlPoint {
      * task cannot be run, and its failure should be signaled back to the originator.
      * <p/>
      * If it returns {@code RUN} then the task should proceed as normal, and the {@link #requestComplete()} method
-     * must be called once the task is complete, usually via a try/finally construct.
+     * must be called once the task is complete, usually via a try/finally construct. To have the request timed, take
+     * {@link System#nanoTime()} before calling this method and pass it to {@link #requestComplete(long)} instead.
+     * <p/>
+     * If a per control point limit is configured, requests beyond that limit are rejected even if the global limit
+     * has not been hit, so a single deployment cannot starve all others.
      */
     public RunResult beginRequest() throws Exception {
         if (paused) {
+            requestRejected();
             return RunResult.REJECTED;
         }
-        if(trackIndividualControlPoints) {
+        if (maxRequestCount > 0) {
+            int active;
+            do {
+                active = activeRequestCountUpdater.get(this);
+                if (active >= maxRequestCount) {
+                    controller.requestRejected();
+                    requestRejected();
+                    return RunResult.REJECTED;
+                }
+            } while (!activeRequestCountUpdater.compareAndSet(this, active, active + 1));
+        } else if(countRequests) {
             activeRequestCountUpdater.incrementAndGet(this);
         }
         RunResult runResult = controller.beginRequest(false);
         if (runResult == RunResult.REJECTED) {
             decreaseRequestCount();
+            requestRejected();
         }
         return runResult;
     }
@@ -150,19 +196,59 @@ public class ControlPoint {
      * must be called once the task is complete, usually via a try/finally construct.
      */
     public RunResult forceBeginRequest() throws Exception {
-        if(trackIndividualControlPoints) {
+        if(countRequests) {
             activeRequestCountUpdater.incrementAndGet(this);
         }
-        return controller.beginRequest(true);
+        RunResult runResult = controller.beginRequest(true);
+        if (runResult == RunResult.REJECTED) {
+            requestRejected();
+        }
+        return runResult;
     }
 
     /**
-     * Called when a queued task is executed.
+     * Called when a queued task is taken off the queue, to reserve its place under the per control point limit before
+     * it is run. Force queued tasks are not subject to the limit, in the same way as {@link #forceBeginRequest()}.
+     *
+     * @param force {@code true} if the task was force queued
+     * @return {@code false} if the per control point limit has been hit, in which case the task must stay queued
      */
-    void beginExistingRequest() {
-        if(trackIndividualControlPoints) {
+    boolean beginQueuedRequest(boolean force) {
+        if (maxRequestCount > 0 && !force) {
+            int active;
+            do {
+                active = activeRequestCountUpdater.get(this);
+                if (active >= maxRequestCount) {
+                    return false;
+                }
+            } while (!activeRequestCountUpdater.compareAndSet(this, active, active + 1));
+        } else if(countRequests) {
             activeRequestCountUpdater.incrementAndGet(this);
         }
+        return true;
+    }
+
+    /**
+     * Releases the place reserved by {@link #beginQueuedRequest(boolean)} for a queued task that was cancelled before
+     * it could run.
+     */
+    void queuedRequestCancelled() {
+        decreaseRequestCount();
+    }
+
+    /**
+     * Called when a queued task is about to run, with the time it spent in the queue.
+     */
+    void queuedTaskDequeued(long waitNanos) {
+        if (queueWaitTimes != null) {
+            queueWaitTimes.record(waitNanos);
+        }
+    }
+
+    private void requestRejected() {
+        if (rejectedRequests != null) {
+            rejectedRequests.increment();
+        }
     }
 
     /**
@@ -171,12 +257,28 @@ public class ControlPoint {
      * This cannot be done automatically when the handleRequest method completes, as some
      */
     public void requestComplete() {
+        if (completedRequests != null) {
+            completedRequests.increment();
+        }
         decreaseRequestCount();
         controller.requestComplete();
     }
 
+    /**
+     * Signifies that a request has finished, like {@link #requestComplete()}, and records how long it took.
+     *
+     * @param startTime the value of {@link System#nanoTime()} taken just before the request was begun, on whichever
+     *                  thread began it
+     */
+    public void requestComplete(long startTime) {
+        if (requestTimes != null) {
+            requestTimes.record(System.nanoTime() - startTime);
+        }
+        requestComplete();
+    }
+
     private void decreaseRequestCount() {
-        if (trackIndividualControlPoints) {
+        if (countRequests) {
             int result = activeRequestCountUpdater.decrementAndGet(this);
             if (paused && result == 0) {
                 ServerActivityCallback listener = listenerUpdater.get(this);
@@ -236,6 +338,37 @@ public class ControlPoint {
         return activeRequestCountUpdater.get(this);
     }
 
+    /**
+     * @return The number of requests through this entry point that have completed, or {@code -1} if individual control
+     * points are not tracked
+     */
+    public long getCompletedRequestCount() {
+        return completedRequests == null ? -1 : completedRequests.sum();
+    }
+
+    /**
+     * @return The number of requests through this entry point that have been rejected, or {@code -1} if individual
+     * control points are not tracked
+     */
+    public long getRejectedRequestCount() {
+        return rejectedRequests == null ? -1 : rejectedRequests.sum();
+    }
+
+    /**
+     * @return How long queued tasks waited to run, or {@code null} if individual control points are not tracked
+     */
+    LatencyHistogram getQueueWaitTimes() {
+        return queueWaitTimes;
+    }
+
+    /**
+     * @return How long requests took from beginning to completion, or {@code null} if individual control points are
+     * not tracked
+     */
+    LatencyHistogram getRequestTimes() {
+        return requestTimes;
+    }
+
     synchronized int increaseReferenceCount() {
         return ++referenceCount;
     }
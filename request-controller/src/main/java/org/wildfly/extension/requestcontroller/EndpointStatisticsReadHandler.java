@@ -0,0 +1,74 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Reads the statistics of each entry point. The list is empty unless individual endpoints are tracked.
+ */
+class EndpointStatisticsReadHandler extends AbstractRuntimeOnlyHandler {
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final ModelNode result = context.getResult().setEmptyList();
+        ServiceController<?> service = context.getServiceRegistry(false).getService(RequestController.SERVICE_NAME);
+        if(service != null) {
+            RequestController requestController = (RequestController) service.getService().getValue();
+            for (ControlPoint controlPoint : requestController.getControlPoints()) {
+                if (controlPoint.getRequestTimes() != null) {
+                    result.add(readStatistics(controlPoint));
+                }
+            }
+        }
+    }
+
+    private static ModelNode readStatistics(ControlPoint controlPoint) {
+        final ModelNode statistics = new ModelNode();
+        statistics.get(Constants.DEPLOYMENT).set(controlPoint.getDeployment());
+        statistics.get(Constants.ENTRY_POINT).set(controlPoint.getEntryPoint());
+        statistics.get(Constants.ACTIVE_REQUESTS).set(controlPoint.getActiveRequestCount());
+        statistics.get(Constants.COMPLETED_REQUESTS).set(controlPoint.getCompletedRequestCount());
+        statistics.get(Constants.REJECTED_REQUESTS).set(controlPoint.getRejectedRequestCount());
+        final LatencyHistogram queueWaitTimes = controlPoint.getQueueWaitTimes();
+        statistics.get(Constants.QUEUE_WAIT_MEAN).set(toMicros(queueWaitTimes.getMean()));
+        statistics.get(Constants.QUEUE_WAIT_P99).set(toMicros(queueWaitTimes.getValueAtPercentile(99)));
+        statistics.get(Constants.QUEUE_WAIT_MAX).set(toMicros(queueWaitTimes.getMax()));
+        final LatencyHistogram requestTimes = controlPoint.getRequestTimes();
+        statistics.get(Constants.REQUEST_TIME_MEAN).set(toMicros(requestTimes.getMean()));
+        statistics.get(Constants.REQUEST_TIME_P50).set(toMicros(requestTimes.getValueAtPercentile(50)));
+        statistics.get(Constants.REQUEST_TIME_P99).set(toMicros(requestTimes.getValueAtPercentile(99)));
+        statistics.get(Constants.REQUEST_TIME_MAX).set(toMicros(requestTimes.getMax()));
+        return statistics;
+    }
+
+    private static long toMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
@@ -40,11 +40,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.Executor;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * A controller that manages the active requests that are running in the container.
@@ -62,12 +63,24 @@ public class RequestController implements Service<RequestController>, ServerActi
     @Deprecated
     public static final ServiceName SERVICE_NAME = RequestControllerRootDefinition.REQUEST_CONTROLLER_CAPABILITY.getCapabilityServiceName();
 
-    private static final AtomicIntegerFieldUpdater<RequestController> activeRequestCountUpdater = AtomicIntegerFieldUpdater.newUpdater(RequestController.class, "activeRequestCount");
+    /** How often the number of active requests is sampled in adaptive mode, in milliseconds */
+    private static final long ADAPTIVE_SAMPLE_INTERVAL = 100;
+    /** Number of samples in each window the adaptive limit is recomputed for */
+    private static final int ADAPTIVE_SAMPLES_PER_WINDOW = 10;
+
     private static final AtomicReferenceFieldUpdater<RequestController, ServerActivityCallback> listenerUpdater = AtomicReferenceFieldUpdater.newUpdater(RequestController.class, ServerActivityCallback.class, "listener");
 
     private volatile int maxRequestCount = -1;
 
-    private volatile int activeRequestCount = 0;
+    /**
+     * The number of active requests. This is striped so that beginning and completing requests on many threads
+     * at once does not contend on a single counter; the total is only summed when it is actually needed.
+     */
+    private final LongAdder activeRequestCount = new LongAdder();
+
+    private final LongAdder completedRequestCount = new LongAdder();
+
+    private final LongAdder rejectedRequestCount = new LongAdder();
 
     private volatile boolean paused = false;
 
@@ -80,8 +93,50 @@ public class RequestController implements Service<RequestController>, ServerActi
 
     private final boolean trackIndividualControlPoints;
 
+    private final int maxControlPointRequestCount;
+
+    /**
+     * The adaptive limit, or {@code null} if the number of requests is only limited by {@link #maxRequestCount}
+     */
+    private final AdaptiveRequestLimit adaptiveLimit;
+
     public RequestController(boolean trackIndividualControlPoints) {
+        this(trackIndividualControlPoints, -1);
+    }
+
+    /**
+     * @param trackIndividualControlPoints {@code true} if requests should be tracked per control point
+     * @param maxControlPointRequestCount the maximum number of requests that can be active at a time through any single
+     *                                    control point, or a value less than one if there is no per control point limit
+     */
+    public RequestController(boolean trackIndividualControlPoints, int maxControlPointRequestCount) {
+        this(trackIndividualControlPoints, maxControlPointRequestCount, false);
+    }
+
+    /**
+     * @param trackIndividualControlPoints {@code true} if requests should be tracked per control point
+     * @param maxControlPointRequestCount the maximum number of requests that can be active at a time through any single
+     *                                    control point, or a value less than one if there is no per control point limit
+     * @param adaptiveLimit {@code true} if the number of requests that can be active at a time should be adjusted
+     *                      to the observed request latency, never exceeding the max request count if one is set
+     */
+    public RequestController(boolean trackIndividualControlPoints, int maxControlPointRequestCount, boolean adaptiveLimit) {
+        this(trackIndividualControlPoints, maxControlPointRequestCount, adaptiveLimit, -1);
+    }
+
+    /**
+     * @param trackIndividualControlPoints {@code true} if requests should be tracked per control point
+     * @param maxControlPointRequestCount the maximum number of requests that can be active at a time through any single
+     *                                    control point, or a value less than one if there is no per control point limit
+     * @param adaptiveLimit {@code true} if the number of requests that can be active at a time should be adjusted
+     *                      to the observed request latency, never exceeding the max request count if one is set
+     * @param adaptiveInitialLimit the adaptive limit to start from, or a value less than one to start without a limit
+     *                             until latency is seen to rise
+     */
+    public RequestController(boolean trackIndividualControlPoints, int maxControlPointRequestCount, boolean adaptiveLimit, int adaptiveInitialLimit) {
         this.trackIndividualControlPoints = trackIndividualControlPoints;
+        this.maxControlPointRequestCount = maxControlPointRequestCount;
+        this.adaptiveLimit = adaptiveLimit ? new AdaptiveRequestLimit(adaptiveInitialLimit, 1, Integer.MAX_VALUE) : null;
     }
 
     @Override
@@ -91,7 +146,7 @@ public class RequestController implements Service<RequestController>, ServerActi
 
     private Timer timer;
 
-    private final Deque<QueuedTask> taskQueue = new LinkedBlockingDeque<>();
+    private final Deque<QueuedTask> taskQueue = new ConcurrentLinkedDeque<>();
 
     /**
      * Pause the controller. All existing requests will have a chance to finish, and once all requests are
@@ -105,7 +160,7 @@ public class RequestController implements Service<RequestController>, ServerActi
         this.paused = true;
         listenerUpdater.set(this, requestCountListener);
 
-        if (activeRequestCountUpdater.get(this) == 0) {
+        if (activeRequestCount.sum() == 0) {
             if (listenerUpdater.compareAndSet(this, requestCountListener, null)) {
                 requestCountListener.done();
             }
@@ -122,9 +177,7 @@ public class RequestController implements Service<RequestController>, ServerActi
         if (listener != null) {
             listenerUpdater.compareAndSet(this, listener, null);
         }
-        while (!taskQueue.isEmpty() && (activeRequestCount < maxRequestCount || maxRequestCount < 0)) {
-            runQueuedTask(false);
-        }
+        runQueuedTasks();
     }
 
     /**
@@ -205,44 +258,51 @@ public class RequestController implements Service<RequestController>, ServerActi
         for (ControlPoint controlPoint : entryPoints.values()) {
             eps.add(new RequestControllerState.EntryPointState(controlPoint.getDeployment(), controlPoint.getEntryPoint(), controlPoint.isPaused(), controlPoint.getActiveRequestCount()));
         }
-        return new RequestControllerState(paused, activeRequestCount, maxRequestCount, eps);
+        return new RequestControllerState(paused, getActiveRequestCount(), maxRequestCount, eps);
     }
 
     RunResult beginRequest(boolean force) {
-        int maxRequests = maxRequestCount;
-        int active = activeRequestCountUpdater.get(this);
-        boolean success = false;
-        while ((maxRequests <= 0 || active < maxRequests) && (!paused || force)) {
-            if (activeRequestCountUpdater.compareAndSet(this, active, active + 1)) {
-                success = true;
-                break;
-            }
-            active = activeRequestCountUpdater.get(this);
-        }
-        if (success) {
-            //re-check the paused state
-            //this is necessary because there is a race between checking paused and updating active requests
-            //if this happens we just call requestComplete(), as the listener can only be invoked once it does not
-            //matter if it has already been invoked
-            if(!force && paused) {
-                requestComplete();
-                return RunResult.REJECTED;
-            }
-            return RunResult.RUN;
-        } else {
+        if (paused && !force) {
+            return RunResult.REJECTED;
+        }
+        int maxRequests = getRequestLimit();
+        activeRequestCount.increment();
+        //the limit is checked after counting the request, so of several requests racing for the last permits
+        //the last one to be counted always sees all the others. This can transiently reject a request that would
+        //have fit, but never admits more than the max
+        if (maxRequests > 0 && activeRequestCount.sum() > maxRequests) {
+            decrementRequestCount();
+            requestRejected();
+            return RunResult.REJECTED;
+        }
+        //re-check the paused state
+        //this is necessary because there is a race between checking paused and updating active requests
+        //if this happens we just decrement the count again, as the listener can only be invoked once it does not
+        //matter if it has already been invoked
+        if(!force && paused) {
+            decrementRequestCount();
             return RunResult.REJECTED;
         }
+        return RunResult.RUN;
     }
 
     void requestComplete() {
+        completedRequestCount.increment();
         runQueuedTask(true);
     }
 
+    /**
+     * Records a request rejected because a limit was hit.
+     */
+    void requestRejected() {
+        rejectedRequestCount.increment();
+    }
+
     private void decrementRequestCount() {
 
-        int result = activeRequestCountUpdater.decrementAndGet(this);
+        activeRequestCount.decrement();
         if (paused) {
-            if (paused && result == 0) {
+            if (activeRequestCount.sum() == 0) {
                 ServerActivityCallback listener = listenerUpdater.get(this);
                 if (listener != null) {
                     if (listenerUpdater.compareAndSet(this, listener, null)) {
@@ -268,13 +328,20 @@ public class RequestController implements Service<RequestController>, ServerActi
         ControlPointIdentifier id = new ControlPointIdentifier(deploymentName, entryPointName);
         ControlPoint ep = entryPoints.get(id);
         if (ep == null) {
-            ep = new ControlPoint(this, deploymentName, entryPointName, trackIndividualControlPoints);
+            ep = new ControlPoint(this, deploymentName, entryPointName, trackIndividualControlPoints, maxControlPointRequestCount);
             entryPoints.put(id, ep);
         }
         ep.increaseReferenceCount();
         return ep;
     }
 
+    /**
+     * @return A snapshot of the current entry points
+     */
+    synchronized List<ControlPoint> getControlPoints() {
+        return new ArrayList<>(entryPoints.values());
+    }
+
     /**
      * Removes the specified entry point
      *
@@ -294,6 +361,52 @@ public class RequestController implements Service<RequestController>, ServerActi
         return maxRequestCount;
     }
 
+    /**
+     * @return The number of requests that can currently be active at a time, which in adaptive mode is the lower of the
+     * adaptive limit and the max request count, or a value less than one if there is no limit
+     */
+    public int getRequestLimit() {
+        int maxRequests = maxRequestCount;
+        if (adaptiveLimit != null) {
+            int limit = adaptiveLimit.getLimit();
+            if (limit > 0 && (maxRequests <= 0 || limit < maxRequests)) {
+                return limit;
+            }
+        }
+        return maxRequests;
+    }
+
+    /**
+     * @return The average latency in nanoseconds of the requests completed in the last adaptive sampling window,
+     * or {@code 0} if not in adaptive mode or no request has completed yet
+     */
+    public long getObservedLatency() {
+        return adaptiveLimit == null ? 0 : (long) adaptiveLimit.getLastLatency();
+    }
+
+    /**
+     * @return The number of requests that have completed since the controller was created
+     */
+    public long getCompletedRequestCount() {
+        return completedRequestCount.sum();
+    }
+
+    /**
+     * @return The number of requests that have been rejected because the request limit, or the limit of their control
+     * point, was hit
+     */
+    public long getRejectedRequestCount() {
+        return rejectedRequestCount.sum();
+    }
+
+    /**
+     * @return The maximum number of requests that can be active at a time through a single control point, or a value
+     * less than one if there is no such limit
+     */
+    public int getMaxControlPointRequestCount() {
+        return maxControlPointRequestCount;
+    }
+
     /**
      * Sets the maximum number of requests that can be active at a time.
      * <p/>
@@ -304,11 +417,7 @@ public class RequestController implements Service<RequestController>, ServerActi
      */
     public void setMaxRequestCount(int maxRequestCount) {
         this.maxRequestCount = maxRequestCount;
-        while (!taskQueue.isEmpty() && (activeRequestCount < maxRequestCount || maxRequestCount < 0)) {
-            if(!runQueuedTask(false)) {
-                break;
-            }
-        }
+        runQueuedTasks();
     }
 
     /**
@@ -322,6 +431,9 @@ public class RequestController implements Service<RequestController>, ServerActi
     public void start(StartContext startContext) throws StartException {
         shutdownControllerInjectedValue.getValue().registerActivity(this);
         timer = new Timer();
+        if (adaptiveLimit != null) {
+            timer.schedule(new AdaptiveLimitSampler(), ADAPTIVE_SAMPLE_INTERVAL, ADAPTIVE_SAMPLE_INTERVAL);
+        }
     }
 
     @Override
@@ -347,7 +459,7 @@ public class RequestController implements Service<RequestController>, ServerActi
     }
 
     public int getActiveRequestCount() {
-        return activeRequestCount;
+        return activeRequestCount.intValue();
     }
 
     void queueTask(ControlPoint controlPoint, Runnable task, Executor taskExecutor, long timeout, Runnable timeoutTask, boolean rejectOnSuspend, boolean forceRun) {
@@ -367,6 +479,38 @@ public class RequestController implements Service<RequestController>, ServerActi
         }
     }
 
+    /**
+     * Runs queued tasks for as long as the request limit leaves room for them, after the limit was raised or the
+     * controller resumed.
+     */
+    private void runQueuedTasks() {
+        while (!taskQueue.isEmpty() && (getActiveRequestCount() < getRequestLimit() || getRequestLimit() <= 0)) {
+            if(!runQueuedTask(false)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Feeds the results of an adaptive sampling window to the adaptive limit. If this raises the limit, tasks that
+     * were queued because the limit had been hit are run straight away rather than waiting for a request to complete.
+     *
+     * @param latency the average latency in nanoseconds of the requests completed in the window
+     * @param averageInFlight the average number of requests running during the window
+     */
+    void updateAdaptiveLimit(double latency, double averageInFlight) {
+        final int previousLimit = adaptiveLimit.getLimit();
+        adaptiveLimit.update(latency, averageInFlight);
+        final int limit = adaptiveLimit.getLimit();
+        if (RequestControllerLogger.ROOT_LOGGER.isTraceEnabled()) {
+            RequestControllerLogger.ROOT_LOGGER.tracef("Adaptive request limit is %d with an average latency of %d ms",
+                    limit, TimeUnit.NANOSECONDS.toMillis((long) adaptiveLimit.getLastLatency()));
+        }
+        if (limit > previousLimit) {
+            runQueuedTasks();
+        }
+    }
+
     /**
      * Runs a queued task, if the queue is not already empty.
      *
@@ -381,7 +525,7 @@ public class RequestController implements Service<RequestController>, ServerActi
                 if (beginRequest(false) == RunResult.REJECTED) {
                     return false;
                 }
-                task = taskQueue.poll();
+                task = pollRunnableTask();
             } else {
                 //the container is suspended, but we still need to run any force queued tasks
                 List<QueuedTask> storage = new ArrayList<>();
@@ -403,10 +547,15 @@ public class RequestController implements Service<RequestController>, ServerActi
                 if (beginRequest(true) == RunResult.REJECTED) {
                     return false;
                 }
+                task.controlPoint.beginQueuedRequest(true);
             }
+        } else if(!paused) {
+            //the permit of the request that just completed is handed on to the next task that can run
+            task = pollRunnableTask();
         }
         if(task != null) {
             if(!task.runRequest()) {
+                task.controlPoint.queuedRequestCancelled();
                 decrementRequestCount();
             }
             return true;
@@ -416,6 +565,62 @@ public class RequestController implements Service<RequestController>, ServerActi
         }
     }
 
+    /**
+     * Takes the first queued task whose control point is below its own request limit off the queue, and reserves its
+     * place under that limit. Tasks passed over are put back at the front of the queue in their original order; they
+     * are picked up again once a request through their control point completes.
+     *
+     * @return the task, or {@code null} if no queued task can run at the moment
+     */
+    private QueuedTask pollRunnableTask() {
+        QueuedTask task = taskQueue.poll();
+        if (task == null || task.controlPoint.beginQueuedRequest(task.forceRun)) {
+            return task;
+        }
+        final List<QueuedTask> skipped = new ArrayList<>();
+        do {
+            skipped.add(task);
+            task = taskQueue.poll();
+        } while (task != null && !task.controlPoint.beginQueuedRequest(task.forceRun));
+        for (int i = skipped.size() - 1; i >= 0; --i) {
+            taskQueue.addFirst(skipped.get(i));
+        }
+        return task;
+    }
+
+    /**
+     * Periodically samples the number of active requests, and at the end of each window feeds the average latency of
+     * the window to the adaptive limit. Requests are not timed individually, as callers need not complete a request
+     * on the thread that began it; instead Little's law gives the average latency as the average number of requests
+     * in flight times the window length, divided by the number of requests completed in the window.
+     */
+    private final class AdaptiveLimitSampler extends TimerTask {
+
+        private long windowStart = System.nanoTime();
+        private long completedAtWindowStart = completedRequestCount.sum();
+        private long activeSampleTotal;
+        private int samples;
+
+        @Override
+        public void run() {
+            activeSampleTotal += activeRequestCount.sum();
+            if (++samples < ADAPTIVE_SAMPLES_PER_WINDOW) {
+                return;
+            }
+            final long now = System.nanoTime();
+            final long completed = completedRequestCount.sum();
+            final long completedInWindow = completed - completedAtWindowStart;
+            final double averageInFlight = (double) activeSampleTotal / samples;
+            if (completedInWindow > 0) {
+                updateAdaptiveLimit(averageInFlight * (now - windowStart) / completedInWindow, averageInFlight);
+            }
+            windowStart = now;
+            completedAtWindowStart = completed;
+            activeSampleTotal = 0;
+            samples = 0;
+        }
+    }
+
     private static final class ControlPointIdentifier {
         private final String deployment, name;
 
@@ -458,6 +663,7 @@ public class RequestController implements Service<RequestController>, ServerActi
         private final Runnable cancelTask;
         private final ControlPoint controlPoint;
         private final boolean forceRun;
+        private final long queuedTime = System.nanoTime();
 
         //0 == queued
         //1 == run
@@ -492,11 +698,12 @@ public class RequestController implements Service<RequestController>, ServerActi
                 executor.execute(new Runnable() {
                     @Override
                     public void run() {
+                        final long startTime = System.nanoTime();
+                        controlPoint.queuedTaskDequeued(startTime - queuedTime);
                         try {
-                            controlPoint.beginExistingRequest();
                             task.run();
                         } finally {
-                            controlPoint.requestComplete();
+                            controlPoint.requestComplete(startTime);
                         }
                     }
                 });
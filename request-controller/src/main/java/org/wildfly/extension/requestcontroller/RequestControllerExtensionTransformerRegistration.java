@@ -0,0 +1,66 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+import org.jboss.as.controller.ModelVersion;
+import org.jboss.as.controller.transform.ExtensionTransformerRegistration;
+import org.jboss.as.controller.transform.SubsystemTransformerRegistration;
+import org.jboss.as.controller.transform.description.DiscardAttributeChecker;
+import org.jboss.as.controller.transform.description.RejectAttributeChecker;
+import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
+import org.jboss.as.controller.transform.description.TransformationDescription;
+
+/**
+ * Registers the transformers for legacy versions of the request controller subsystem.
+ */
+public class RequestControllerExtensionTransformerRegistration implements ExtensionTransformerRegistration {
+
+    static final ModelVersion VERSION_1_1_0 = ModelVersion.create(1, 1, 0);
+
+    @Override
+    public String getSubsystemName() {
+        return RequestControllerExtension.SUBSYSTEM_NAME;
+    }
+
+    /**
+     * Registers the transformers for model version 1.1.0. The per endpoint and adaptive limits are discarded while
+     * they are undefined or at their defaults, since the legacy controller behaves the same way in that case, and
+     * rejected otherwise.
+     *
+     * @param subsystemRegistration contains data about the subsystem registration
+     */
+    @Override
+    public void registerTransformers(SubsystemTransformerRegistration subsystemRegistration) {
+        ResourceTransformationDescriptionBuilder builder = ResourceTransformationDescriptionBuilder.Factory.createSubsystemInstance();
+        builder.getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, true, RequestControllerRootDefinition.MAX_REQUESTS_PER_ENDPOINT.getDefaultValue()),
+                        RequestControllerRootDefinition.MAX_REQUESTS_PER_ENDPOINT)
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, true, RequestControllerRootDefinition.ADAPTIVE_LIMIT.getDefaultValue()),
+                        RequestControllerRootDefinition.ADAPTIVE_LIMIT)
+                .setDiscard(DiscardAttributeChecker.UNDEFINED, RequestControllerRootDefinition.ADAPTIVE_INITIAL_LIMIT)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, RequestControllerRootDefinition.MAX_REQUESTS_PER_ENDPOINT,
+                        RequestControllerRootDefinition.ADAPTIVE_LIMIT, RequestControllerRootDefinition.ADAPTIVE_INITIAL_LIMIT)
+                .end();
+        TransformationDescription.Tools.register(builder.build(), subsystemRegistration, VERSION_1_1_0);
+    }
+}
@@ -28,14 +28,19 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.ObjectListAttributeDefinition;
+import org.jboss.as.controller.ObjectTypeAttributeDefinition;
 import org.jboss.as.controller.PersistentResourceDefinition;
 import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
 import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
@@ -59,9 +64,60 @@ class RequestControllerRootDefinition extends PersistentResourceDefinition {
             .setRestartAllServices()
             .build();
 
+    public static final SimpleAttributeDefinition MAX_REQUESTS_PER_ENDPOINT = SimpleAttributeDefinitionBuilder.create(Constants.MAX_REQUESTS_PER_ENDPOINT, ModelType.INT, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(-1))
+            .setRestartAllServices()
+            .build();
+
+    public static final SimpleAttributeDefinition ADAPTIVE_LIMIT = SimpleAttributeDefinitionBuilder.create(Constants.ADAPTIVE_LIMIT, ModelType.BOOLEAN, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(false))
+            .setRestartAllServices()
+            .build();
+
+    public static final SimpleAttributeDefinition ADAPTIVE_INITIAL_LIMIT = SimpleAttributeDefinitionBuilder.create(Constants.ADAPTIVE_INITIAL_LIMIT, ModelType.INT, true)
+            .setAllowExpression(true)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setRestartAllServices()
+            .build();
+
     public static final SimpleAttributeDefinition ACTIVE_REQUESTS = SimpleAttributeDefinitionBuilder.create(Constants.ACTIVE_REQUESTS, ModelType.INT, true)
             .setStorageRuntime()
             .build();
+
+    public static final SimpleAttributeDefinition REQUEST_LIMIT = SimpleAttributeDefinitionBuilder.create(Constants.REQUEST_LIMIT, ModelType.INT, true)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition OBSERVED_LATENCY = SimpleAttributeDefinitionBuilder.create(Constants.OBSERVED_LATENCY, ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+            .setStorageRuntime()
+            .build();
+
+    public static final SimpleAttributeDefinition REJECTED_REQUESTS = SimpleAttributeDefinitionBuilder.create(Constants.REJECTED_REQUESTS, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    static final ObjectListAttributeDefinition ENDPOINT_STATISTICS = ObjectListAttributeDefinition.Builder.of(Constants.ENDPOINT_STATISTICS,
+            ObjectTypeAttributeDefinition.Builder.of(Constants.ENDPOINT,
+                    runtimeField(Constants.DEPLOYMENT, ModelType.STRING, null),
+                    runtimeField(Constants.ENTRY_POINT, ModelType.STRING, null),
+                    runtimeField(Constants.ACTIVE_REQUESTS, ModelType.INT, null),
+                    runtimeField(Constants.COMPLETED_REQUESTS, ModelType.LONG, null),
+                    runtimeField(Constants.REJECTED_REQUESTS, ModelType.LONG, null),
+                    runtimeField(Constants.QUEUE_WAIT_MEAN, ModelType.LONG, MeasurementUnit.MICROSECONDS),
+                    runtimeField(Constants.QUEUE_WAIT_P99, ModelType.LONG, MeasurementUnit.MICROSECONDS),
+                    runtimeField(Constants.QUEUE_WAIT_MAX, ModelType.LONG, MeasurementUnit.MICROSECONDS),
+                    runtimeField(Constants.REQUEST_TIME_MEAN, ModelType.LONG, MeasurementUnit.MICROSECONDS),
+                    runtimeField(Constants.REQUEST_TIME_P50, ModelType.LONG, MeasurementUnit.MICROSECONDS),
+                    runtimeField(Constants.REQUEST_TIME_P99, ModelType.LONG, MeasurementUnit.MICROSECONDS),
+                    runtimeField(Constants.REQUEST_TIME_MAX, ModelType.LONG, MeasurementUnit.MICROSECONDS))
+                    .setStorageRuntime()
+                    .build())
+            .setStorageRuntime()
+            .build();
+
     public static final RequestControllerRootDefinition INSTANCE = new RequestControllerRootDefinition(true);
 
     static final RuntimeCapability<Void> REQUEST_CONTROLLER_CAPABILITY =
@@ -85,12 +141,19 @@ class RequestControllerRootDefinition extends PersistentResourceDefinition {
 
     private static Collection<AttributeDefinition> getAttributeDefinitions(boolean registerRuntimeOnly) {
         if(registerRuntimeOnly) {
-            return Arrays.asList(new AttributeDefinition[]{MAX_REQUESTS, TRACK_INDIVIDUAL_ENDPOINTS, ACTIVE_REQUESTS});
+            return Arrays.asList(new AttributeDefinition[]{MAX_REQUESTS, TRACK_INDIVIDUAL_ENDPOINTS, MAX_REQUESTS_PER_ENDPOINT, ADAPTIVE_LIMIT, ADAPTIVE_INITIAL_LIMIT, ACTIVE_REQUESTS});
         } else {
-            return Arrays.asList(new AttributeDefinition[]{MAX_REQUESTS, TRACK_INDIVIDUAL_ENDPOINTS});
+            return Arrays.asList(new AttributeDefinition[]{MAX_REQUESTS, TRACK_INDIVIDUAL_ENDPOINTS, MAX_REQUESTS_PER_ENDPOINT, ADAPTIVE_LIMIT, ADAPTIVE_INITIAL_LIMIT});
         }
     }
 
+    private static SimpleAttributeDefinition runtimeField(String name, ModelType type, MeasurementUnit unit) {
+        return SimpleAttributeDefinitionBuilder.create(name, type, true)
+                .setMeasurementUnit(unit)
+                .setStorageRuntime()
+                .build();
+    }
+
     @Override
     protected List<? extends PersistentResourceDefinition> getChildren() {
         return Collections.emptyList();
@@ -101,8 +164,15 @@ class RequestControllerRootDefinition extends PersistentResourceDefinition {
         MaxRequestsWriteHandler handler = new MaxRequestsWriteHandler(MAX_REQUESTS);
         resourceRegistration.registerReadWriteAttribute(MAX_REQUESTS, null, handler);
         resourceRegistration.registerReadWriteAttribute(TRACK_INDIVIDUAL_ENDPOINTS, null, new ReloadRequiredWriteAttributeHandler(TRACK_INDIVIDUAL_ENDPOINTS));
+        resourceRegistration.registerReadWriteAttribute(MAX_REQUESTS_PER_ENDPOINT, null, new ReloadRequiredWriteAttributeHandler(MAX_REQUESTS_PER_ENDPOINT));
+        resourceRegistration.registerReadWriteAttribute(ADAPTIVE_LIMIT, null, new ReloadRequiredWriteAttributeHandler(ADAPTIVE_LIMIT));
+        resourceRegistration.registerReadWriteAttribute(ADAPTIVE_INITIAL_LIMIT, null, new ReloadRequiredWriteAttributeHandler(ADAPTIVE_INITIAL_LIMIT));
         if(registerRuntimeOnly) {
             resourceRegistration.registerMetric(ACTIVE_REQUESTS, new ActiveRequestsReadHandler());
+            resourceRegistration.registerMetric(REQUEST_LIMIT, new RequestControllerMetricHandler(rc -> new ModelNode(rc.getRequestLimit())));
+            resourceRegistration.registerMetric(OBSERVED_LATENCY, new RequestControllerMetricHandler(rc -> new ModelNode(TimeUnit.NANOSECONDS.toMicros(rc.getObservedLatency()))));
+            resourceRegistration.registerMetric(REJECTED_REQUESTS, new RequestControllerMetricHandler(rc -> new ModelNode(rc.getRejectedRequestCount())));
+            resourceRegistration.registerMetric(ENDPOINT_STATISTICS, new EndpointStatisticsReadHandler());
         }
     }
 
@@ -66,8 +66,13 @@ class RequestControllerSubsystemAdd extends AbstractBoottimeAddStepHandler {
 
         int maxRequests = RequestControllerRootDefinition.MAX_REQUESTS.resolveModelAttribute(context, resource.getModel()).asInt();
         boolean trackIndividual = RequestControllerRootDefinition.TRACK_INDIVIDUAL_ENDPOINTS.resolveModelAttribute(context, resource.getModel()).asBoolean();
+        int maxRequestsPerEndpoint = RequestControllerRootDefinition.MAX_REQUESTS_PER_ENDPOINT.resolveModelAttribute(context, resource.getModel()).asInt();
 
-        RequestController requestController = new RequestController(trackIndividual);
+        boolean adaptiveLimit = RequestControllerRootDefinition.ADAPTIVE_LIMIT.resolveModelAttribute(context, resource.getModel()).asBoolean();
+        // Without an explicit initial limit the adaptive limit starts from max-requests, or without any limit if that is not set
+        ModelNode adaptiveInitialLimit = RequestControllerRootDefinition.ADAPTIVE_INITIAL_LIMIT.resolveModelAttribute(context, resource.getModel());
+        RequestController requestController = new RequestController(trackIndividual, maxRequestsPerEndpoint, adaptiveLimit,
+                adaptiveInitialLimit.isDefined() ? adaptiveInitialLimit.asInt() : maxRequests);
 
         requestController.setMaxRequestCount(maxRequests);
 
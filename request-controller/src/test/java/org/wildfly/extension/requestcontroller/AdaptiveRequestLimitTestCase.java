@@ -0,0 +1,94 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AdaptiveRequestLimitTestCase {
+
+    private static final double LATENCY = 1_000_000;
+
+    @Test
+    public void testLimitGrowsWhileLatencyIsSteady() {
+        AdaptiveRequestLimit limit = new AdaptiveRequestLimit(20, 1, 1000);
+        for (int i = 0; i < 10; ++i) {
+            int before = limit.getLimit();
+            limit.update(LATENCY, before);
+            Assert.assertTrue(limit.getLimit() >= before);
+        }
+        Assert.assertTrue(limit.getLimit() > 20);
+        Assert.assertEquals(LATENCY, limit.getLastLatency(), 0);
+    }
+
+    @Test
+    public void testLimitShrinksWhenLatencyRises() {
+        AdaptiveRequestLimit limit = new AdaptiveRequestLimit(100, 1, 1000);
+        limit.update(LATENCY, 100);
+        int steady = limit.getLimit();
+        for (int i = 0; i < 20; ++i) {
+            limit.update(LATENCY * 4, limit.getLimit());
+        }
+        Assert.assertTrue(limit.getLimit() < steady);
+    }
+
+    @Test
+    public void testLimitDoesNotGrowWhenUnused() {
+        AdaptiveRequestLimit limit = new AdaptiveRequestLimit(20, 1, 1000);
+        for (int i = 0; i < 10; ++i) {
+            limit.update(LATENCY, 1);
+        }
+        Assert.assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    public void testLimitIsBounded() {
+        AdaptiveRequestLimit limit = new AdaptiveRequestLimit(5, 2, 10);
+        for (int i = 0; i < 100; ++i) {
+            limit.update(LATENCY, limit.getLimit());
+        }
+        Assert.assertEquals(10, limit.getLimit());
+
+        limit = new AdaptiveRequestLimit(40, 10, 50);
+        limit.update(LATENCY, 40);
+        for (int i = 0; i < 40; ++i) {
+            limit.update(LATENCY * 100, limit.getLimit());
+        }
+        Assert.assertEquals(10, limit.getLimit());
+    }
+
+    @Test
+    public void testLimitStartsUnboundedWithoutInitialLimit() {
+        AdaptiveRequestLimit limit = new AdaptiveRequestLimit(-1, 1, 1000);
+        for (int i = 0; i < 10; ++i) {
+            limit.update(LATENCY, 200);
+        }
+        Assert.assertTrue(limit.getLimit() < 1);
+
+        // Latency rising sets the limit to what was running at the time
+        limit.update(LATENCY * 4, 150);
+        Assert.assertEquals(150, limit.getLimit());
+        limit.update(LATENCY * 4, 150);
+        Assert.assertTrue(limit.getLimit() < 150);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.requestcontroller;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LatencyHistogramTestCase {
+
+    @Test
+    public void testBucketsCoverAllValues() {
+        long previousUpperBound = -1;
+        for (int i = 0; i <= LatencyHistogram.bucketIndex(Long.MAX_VALUE); ++i) {
+            long upperBound = LatencyHistogram.bucketUpperBound(i);
+            Assert.assertTrue(upperBound > previousUpperBound);
+            Assert.assertEquals(i, LatencyHistogram.bucketIndex(previousUpperBound + 1));
+            Assert.assertEquals(i, LatencyHistogram.bucketIndex(upperBound));
+            previousUpperBound = upperBound;
+        }
+        Assert.assertEquals(Long.MAX_VALUE, previousUpperBound);
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(0, histogram.getValueAtPercentile(99));
+        Assert.assertEquals(0, histogram.getMean());
+        for (long i = 1; i <= 1000; ++i) {
+            histogram.record(i * 1000);
+        }
+        Assert.assertEquals(1000, histogram.getCount());
+        Assert.assertEquals(500500, histogram.getMean());
+        Assert.assertEquals(1000000, histogram.getMax());
+        assertWithinBucket(500000, histogram.getValueAtPercentile(50));
+        assertWithinBucket(990000, histogram.getValueAtPercentile(99));
+        Assert.assertEquals(1000000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testNegativeValuesAreRecordedAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        Assert.assertEquals(1, histogram.getCount());
+        Assert.assertEquals(0, histogram.getMax());
+        Assert.assertEquals(0, histogram.getValueAtPercentile(100));
+    }
+
+    private static void assertWithinBucket(long expected, long actual) {
+        Assert.assertTrue(actual >= expected);
+        Assert.assertTrue(actual <= expected + expected / 8);
+    }
+}
@@ -25,10 +25,14 @@
 package org.wildfly.extension.requestcontroller;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.Executor;
 
 import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.ModelVersion;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.RunningMode;
 import org.jboss.as.controller.client.ModelControllerClient;
@@ -40,6 +44,9 @@ import org.jboss.as.controller.notification.Notification;
 import org.jboss.as.controller.notification.NotificationFilter;
 import org.jboss.as.controller.notification.NotificationHandler;
 import org.jboss.as.controller.registry.NotificationHandlerRegistration;
+import org.jboss.as.model.test.FailedOperationTransformationConfig;
+import org.jboss.as.model.test.ModelTestControllerVersion;
+import org.jboss.as.model.test.ModelTestUtils;
 import org.jboss.as.server.suspend.SuspendController;
 import org.jboss.as.subsystem.test.AbstractSubsystemBaseTest;
 import org.jboss.as.subsystem.test.AdditionalInitialization;
@@ -64,7 +71,17 @@ public class RequestControllerSubsystemTestCase extends AbstractSubsystemBaseTes
 
     @Override
     protected String getSubsystemXml() throws IOException {
-        return readResource("request-controller-1.0.xml");
+        return readResource("request-controller-1.1.xml");
+    }
+
+    @Override
+    protected String getSubsystemXsdPath() throws Exception {
+        return "schema/wildfly-request-controller_1_1.xsd";
+    }
+
+    @Test
+    public void testParse10() throws Exception {
+        standardSubsystemTest("request-controller-1.0.xml", false);
     }
 
     @Test
@@ -80,6 +97,157 @@ public class RequestControllerSubsystemTestCase extends AbstractSubsystemBaseTes
         workerServiceController.awaitValue();
         RequestController controller = workerServiceController.getService().getValue();
         Assert.assertEquals(100, controller.getMaxRequestCount());
+        Assert.assertEquals(10, controller.getMaxControlPointRequestCount());
+    }
+
+    @Test
+    public void testControlPointRequestLimit() throws Exception {
+        RequestController controller = new RequestController(false, 2);
+        controller.setMaxRequestCount(3);
+        ControlPoint first = controller.getControlPoint("first.war", "web");
+        ControlPoint second = controller.getControlPoint("second.war", "web");
+
+        Assert.assertEquals(RunResult.RUN, first.beginRequest());
+        Assert.assertEquals(RunResult.RUN, first.beginRequest());
+        // the per control point limit leaves room for the other deployment
+        Assert.assertEquals(RunResult.REJECTED, first.beginRequest());
+        Assert.assertEquals(2, first.getActiveRequestCount());
+        Assert.assertEquals(RunResult.RUN, second.beginRequest());
+        // the global limit still applies
+        Assert.assertEquals(RunResult.REJECTED, second.beginRequest());
+        Assert.assertEquals(1, second.getActiveRequestCount());
+        Assert.assertEquals(3, controller.getActiveRequestCount());
+
+        first.requestComplete();
+        Assert.assertEquals(RunResult.RUN, second.beginRequest());
+        Assert.assertEquals(RunResult.REJECTED, first.beginRequest());
+
+        first.requestComplete();
+        second.requestComplete();
+        second.requestComplete();
+        Assert.assertEquals(0, controller.getActiveRequestCount());
+        Assert.assertEquals(0, first.getActiveRequestCount());
+        Assert.assertEquals(0, second.getActiveRequestCount());
+    }
+
+    @Test
+    public void testQueuedTaskRespectsControlPointRequestLimit() throws Exception {
+        RequestController controller = new RequestController(false, 1);
+        ControlPoint first = controller.getControlPoint("first.war", "web");
+        ControlPoint second = controller.getControlPoint("second.war", "web");
+        List<Runnable> executed = new ArrayList<>();
+        Executor executor = executed::add;
+        List<String> ran = new ArrayList<>();
+
+        Assert.assertEquals(RunResult.RUN, first.beginRequest());
+        first.queueTask(() -> ran.add("first"), executor, -1, null, false);
+        // the only request first.war may have is already active
+        Assert.assertTrue(executed.isEmpty());
+        Assert.assertEquals(1, first.getActiveRequestCount());
+
+        // a queued task of another deployment is not held up behind it
+        second.queueTask(() -> ran.add("second"), executor, -1, null, false);
+        Assert.assertEquals(1, executed.size());
+        Assert.assertEquals(1, second.getActiveRequestCount());
+
+        // once the active request completes the queued task takes its place
+        first.requestComplete();
+        Assert.assertEquals(2, executed.size());
+        Assert.assertEquals(1, first.getActiveRequestCount());
+
+        for (Runnable runnable : executed) {
+            runnable.run();
+        }
+        Assert.assertEquals(Arrays.asList("second", "first"), ran);
+        Assert.assertEquals(0, first.getActiveRequestCount());
+        Assert.assertEquals(0, second.getActiveRequestCount());
+        Assert.assertEquals(0, controller.getActiveRequestCount());
+    }
+
+    @Test
+    public void testQueuedTasksRunWhenAdaptiveLimitGrows() throws Exception {
+        RequestController controller = new RequestController(false, -1, true, 1);
+        ControlPoint controlPoint = controller.getControlPoint("test.war", "web");
+        List<Runnable> executed = new ArrayList<>();
+
+        Assert.assertEquals(RunResult.RUN, controlPoint.beginRequest());
+        controlPoint.queueTask(() -> { }, executed::add, -1, null, false);
+        Assert.assertTrue(executed.isEmpty());
+
+        // steady latency with the limit fully used lets the limit grow, which must make room for the queued task
+        for (int i = 0; i < 10 && controller.getRequestLimit() < 2; ++i) {
+            controller.updateAdaptiveLimit(1_000_000, controller.getRequestLimit());
+        }
+        Assert.assertEquals(2, controller.getRequestLimit());
+        Assert.assertEquals(1, executed.size());
+        Assert.assertEquals(2, controller.getActiveRequestCount());
+
+        executed.get(0).run();
+        controlPoint.requestComplete();
+        Assert.assertEquals(0, controller.getActiveRequestCount());
+    }
+
+    @Test
+    public void testControlPointStatistics() throws Exception {
+        RequestController controller = new RequestController(true, 1);
+        ControlPoint controlPoint = controller.getControlPoint("test.war", "web");
+
+        long startTime = System.nanoTime();
+        Assert.assertEquals(RunResult.RUN, controlPoint.beginRequest());
+        Assert.assertEquals(RunResult.REJECTED, controlPoint.beginRequest());
+        controlPoint.requestComplete(startTime);
+        // Requests completed without their start time are counted, but not timed
+        Assert.assertEquals(RunResult.RUN, controlPoint.beginRequest());
+        controlPoint.requestComplete();
+
+        Assert.assertEquals(2, controlPoint.getCompletedRequestCount());
+        Assert.assertEquals(1, controlPoint.getRejectedRequestCount());
+        Assert.assertEquals(1, controlPoint.getRequestTimes().getCount());
+        Assert.assertEquals(0, controlPoint.getQueueWaitTimes().getCount());
+        Assert.assertEquals(1, controller.getRejectedRequestCount());
+
+        ControlPoint untracked = new RequestController(false).getControlPoint("test.war", "web");
+        Assert.assertEquals(RunResult.RUN, untracked.beginRequest());
+        untracked.requestComplete();
+        Assert.assertEquals(-1, untracked.getCompletedRequestCount());
+        Assert.assertNull(untracked.getRequestTimes());
+    }
+
+    @Test
+    public void testTransformersEAP700() throws Exception {
+        ModelVersion version = RequestControllerExtensionTransformerRegistration.VERSION_1_1_0;
+        KernelServices mainServices = buildKernelServicesWithLegacy(ModelTestControllerVersion.EAP_7_0_0, version, "request-controller-1.0.xml");
+        checkSubsystemModelTransformation(mainServices, version);
+    }
+
+    @Test
+    public void testRejectingTransformersEAP700() throws Exception {
+        ModelVersion version = RequestControllerExtensionTransformerRegistration.VERSION_1_1_0;
+        KernelServices mainServices = buildKernelServicesWithLegacy(ModelTestControllerVersion.EAP_7_0_0, version, null);
+        ModelTestUtils.checkFailedTransformedBootOperations(mainServices, version, parse(getSubsystemXml()),
+                new FailedOperationTransformationConfig()
+                        .addFailedAttribute(PathAddress.pathAddress(RequestControllerExtension.SUBSYSTEM_PATH),
+                                new FailedOperationTransformationConfig.NewAttributesConfig(
+                                        RequestControllerRootDefinition.MAX_REQUESTS_PER_ENDPOINT,
+                                        RequestControllerRootDefinition.ADAPTIVE_LIMIT,
+                                        RequestControllerRootDefinition.ADAPTIVE_INITIAL_LIMIT)));
+    }
+
+    private KernelServices buildKernelServicesWithLegacy(ModelTestControllerVersion controllerVersion, ModelVersion version, String subsystemXml) throws Exception {
+        KernelServicesBuilder builder = createKernelServicesBuilder(AdditionalInitialization.MANAGEMENT);
+        if (subsystemXml != null) {
+            builder.setSubsystemXmlResource(subsystemXml);
+        }
+        builder.createLegacyKernelServicesBuilder(AdditionalInitialization.MANAGEMENT, controllerVersion, version)
+                .addMavenResourceURL(controllerVersion.getCoreMavenGroupId() + ":wildfly-request-controller:" + controllerVersion.getCoreVersion())
+                .dontPersistXml();
+
+        KernelServices mainServices = builder.build();
+        Assert.assertTrue(mainServices.isSuccessfulBoot());
+        KernelServices legacyServices = mainServices.getLegacyServices(version);
+        Assert.assertNotNull(legacyServices);
+        Assert.assertTrue(legacyServices.isSuccessfulBoot());
+        return mainServices;
     }
 
     @Override
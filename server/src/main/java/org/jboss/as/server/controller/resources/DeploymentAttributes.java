@@ -52,6 +52,7 @@ import org.jboss.as.controller.ParameterCorrector;
 import org.jboss.as.controller.PrimitiveListAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleMapAttributeDefinition;
 import org.jboss.as.controller.SimpleOperationDefinition;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.StringListAttributeDefinition;
@@ -92,6 +93,7 @@ public class DeploymentAttributes {
     //For use in resources
     public static final SimpleAttributeDefinition RUNTIME_NAME = SimpleAttributeDefinitionBuilder.create(ModelDescriptionConstants.RUNTIME_NAME, ModelType.STRING, false)
             .setValidator(new StringLengthValidator(1))
+            .setIndexed()
             .build();
     //For use in add ops
     public static final SimpleAttributeDefinition RUNTIME_NAME_NILLABLE = SimpleAttributeDefinitionBuilder.create(ModelDescriptionConstants.RUNTIME_NAME, ModelType.STRING, true)
@@ -101,6 +103,7 @@ public class DeploymentAttributes {
     public static final SimpleAttributeDefinition ENABLED = SimpleAttributeDefinitionBuilder.create(ModelDescriptionConstants.ENABLED, ModelType.BOOLEAN, true)
         .setDefaultValue(new ModelNode(false))
         .setAllowExpression(false) // allowing expressions here complicates domain mode and deployment scanners
+        .setIndexed()
         .setAttributeMarshaller(new AttributeMarshaller() {
 
             @Override
@@ -149,6 +152,11 @@ public class DeploymentAttributes {
             .setStorageRuntime()
             .build();
 
+    public static final AttributeDefinition PHASE_PROCESSING_TIMES = new SimpleMapAttributeDefinition.Builder(ModelDescriptionConstants.PHASE_PROCESSING_TIMES, ModelType.LONG, true)
+            .setStorageRuntime()
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .build();
+
     public static final SimpleAttributeDefinition MANAGED = SimpleAttributeDefinitionBuilder.create(ModelDescriptionConstants.MANAGED, ModelType.BOOLEAN, false)
             .setStorageRuntime()
             .addFlag(AttributeAccess.Flag.RUNTIME_SERVICE_NOT_REQUIRED)
@@ -297,7 +305,7 @@ public class DeploymentAttributes {
 
 
     /** Attributes for server deployment resource */
-    public static final AttributeDefinition[] SERVER_RESOURCE_ATTRIBUTES = new AttributeDefinition[] {NAME, RUNTIME_NAME, CONTENT_RESOURCE, ENABLED, PERSISTENT, OWNER, STATUS, ENABLED_TIME, ENABLED_TIMESTAMP, DISABLED_TIME, DISABLED_TIMESTAMP, MANAGED};
+    public static final AttributeDefinition[] SERVER_RESOURCE_ATTRIBUTES = new AttributeDefinition[] {NAME, RUNTIME_NAME, CONTENT_RESOURCE, ENABLED, PERSISTENT, OWNER, STATUS, ENABLED_TIME, ENABLED_TIMESTAMP, DISABLED_TIME, DISABLED_TIMESTAMP, MANAGED, PHASE_PROCESSING_TIMES};
 
     /** Attributes for server deployment add */
     public static final AttributeDefinition[] SERVER_ADD_ATTRIBUTES = new AttributeDefinition[] { RUNTIME_NAME_NILLABLE, CONTENT_ALL, ENABLED};// 'hide' the persistent and owner attributes from users
@@ -31,6 +31,7 @@ import java.util.jar.Manifest;
 import org.jboss.as.controller.ServiceVerificationHandler;
 import org.jboss.as.controller.capability.CapabilityServiceSupport;
 import org.jboss.as.controller.services.path.PathManager;
+import org.jboss.as.server.deployment.annotation.AnnotationIndexCache;
 import org.jboss.as.server.deployment.annotation.CompositeIndex;
 import org.jboss.as.server.deployment.module.AdditionalModuleSpecification;
 import org.jboss.as.server.deployment.module.ExtensionInfo;
@@ -92,6 +93,12 @@ public final class Attachments {
      */
     public static final AttachmentKey<VirtualFile> DEPLOYMENT_CONTENTS = AttachmentKey.create(VirtualFile.class);
 
+    /**
+     * The content repository hash of the deployment contents. Only attached to top-level deployments whose contents are an
+     * unmodified managed archive, i.e. whose resource roots can be identified by the hash.
+     */
+    public static final AttachmentKey<byte[]> DEPLOYMENT_CONTENT_HASH = AttachmentKey.create(byte[].class);
+
     /**
      * <strong>Deprecated</strong>. The attached object does nothing; this key is only retained for
      * binary compatiblity. The management layer handles service verification internally, with no need
@@ -172,6 +179,11 @@ public final class Attachments {
      */
     public static final AttachmentKey<Index> ANNOTATION_INDEX = AttachmentKey.create(Index.class);
 
+    /**
+     * The persistent cache of annotation indexes. This is attached to top-level deployments.
+     */
+    public static final AttachmentKey<AnnotationIndexCache> ANNOTATION_INDEX_CACHE = AttachmentKey.create(AnnotationIndexCache.class);
+
     /**
      * The composite annotation index for this deployment.
      */
@@ -198,6 +210,12 @@ public final class Attachments {
      * Sub deployment services
      */
     public static final AttachmentKey<AttachmentList<DeploymentUnit>> SUB_DEPLOYMENTS = AttachmentKey.createList(DeploymentUnit.class);
+
+    /**
+     * The time in milliseconds that the processors of each completed phase took for a deployment unit. Sub-deployments
+     * have their own, which makes it possible to tell which of them held up the phases of their parent.
+     */
+    public static final AttachmentKey<PhaseProcessingTimes> PHASE_PROCESSING_TIMES = AttachmentKey.create(PhaseProcessingTimes.class);
     /**
      * Additional modules attached to the top level deployment
      */
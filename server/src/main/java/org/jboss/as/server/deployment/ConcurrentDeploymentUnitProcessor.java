@@ -0,0 +1,50 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.util.Set;
+
+/**
+ * A deployment processor that declares every attachment it reads or writes, on the deployment unit and its parent as well
+ * as on the phase context. Consecutive processors of a phase that implement this interface and whose declared attachments
+ * do not conflict may be run concurrently. Processors that do not implement it always run on their own, in priority order.
+ * <p>
+ * Two processors conflict if either of them writes an attachment that the other one reads or writes. Anything else a
+ * processor shares with other processors of the same phase, beyond the service target, must be thread safe.
+ */
+public interface ConcurrentDeploymentUnitProcessor extends DeploymentUnitProcessor {
+
+    /**
+     * Gets the attachments this processor only reads.
+     *
+     * @return the read attachment keys, never {@code null}
+     */
+    Set<AttachmentKey<?>> getReadAttachments();
+
+    /**
+     * Gets the attachments this processor adds, replaces, removes or modifies the value of.
+     *
+     * @return the written attachment keys, never {@code null}
+     */
+    Set<AttachmentKey<?>> getWrittenAttachments();
+}
@@ -22,8 +22,13 @@
 
 package org.jboss.as.server.deployment;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * The deployer chains service value object.
@@ -32,12 +37,57 @@ import java.util.List;
  */
 final class DeployerChains {
     private final EnumMap<Phase, List<RegisteredDeploymentUnitProcessor>> phases;
+    private final EnumMap<Phase, List<List<RegisteredDeploymentUnitProcessor>>> batches;
 
     DeployerChains(final EnumMap<Phase, List<RegisteredDeploymentUnitProcessor>> phases) {
         this.phases = phases;
+        this.batches = new EnumMap<Phase, List<List<RegisteredDeploymentUnitProcessor>>>(Phase.class);
+        for (Map.Entry<Phase, List<RegisteredDeploymentUnitProcessor>> entry : phases.entrySet()) {
+            batches.put(entry.getKey(), createBatches(entry.getValue()));
+        }
     }
 
     List<RegisteredDeploymentUnitProcessor> getChain(Phase phase) {
         return phases.get(phase);
     }
+
+    /**
+     * Gets the chain of a phase split into batches of processors that may run concurrently. The batches are in priority
+     * order; a batch only holds more than one processor if they are consecutive {@link ConcurrentDeploymentUnitProcessor}s
+     * whose declared attachments do not conflict.
+     *
+     * @param phase the phase
+     * @return the batches
+     */
+    List<List<RegisteredDeploymentUnitProcessor>> getBatches(Phase phase) {
+        return batches.get(phase);
+    }
+
+    static List<List<RegisteredDeploymentUnitProcessor>> createBatches(final List<RegisteredDeploymentUnitProcessor> chain) {
+        final List<List<RegisteredDeploymentUnitProcessor>> batches = new ArrayList<List<RegisteredDeploymentUnitProcessor>>();
+        final Set<AttachmentKey<?>> batchReads = new HashSet<AttachmentKey<?>>();
+        final Set<AttachmentKey<?>> batchWrites = new HashSet<AttachmentKey<?>>();
+        List<RegisteredDeploymentUnitProcessor> batch = null;
+        for (RegisteredDeploymentUnitProcessor registered : chain) {
+            if (!(registered.getProcessor() instanceof ConcurrentDeploymentUnitProcessor)) {
+                batches.add(Collections.singletonList(registered));
+                batch = null;
+                continue;
+            }
+            final ConcurrentDeploymentUnitProcessor processor = (ConcurrentDeploymentUnitProcessor) registered.getProcessor();
+            final Set<AttachmentKey<?>> reads = processor.getReadAttachments();
+            final Set<AttachmentKey<?>> writes = processor.getWrittenAttachments();
+            if (batch == null || !Collections.disjoint(writes, batchReads) || !Collections.disjoint(writes, batchWrites)
+                    || !Collections.disjoint(reads, batchWrites)) {
+                batch = new ArrayList<RegisteredDeploymentUnitProcessor>();
+                batches.add(batch);
+                batchReads.clear();
+                batchWrites.clear();
+            }
+            batch.add(registered);
+            batchReads.addAll(reads);
+            batchWrites.addAll(writes);
+        }
+        return batches;
+    }
 }
@@ -23,10 +23,14 @@
 package org.jboss.as.server.deployment;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.jboss.as.server.logging.ServerLogger;
@@ -43,6 +47,7 @@ import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * A service which executes a particular phase of deployment.
@@ -134,13 +139,13 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         final DeployerChains chains = deployerChainsInjector.getValue();
         final DeploymentUnit deploymentUnit = this.deploymentUnit;
         final List<RegisteredDeploymentUnitProcessor> list = chains.getChain(phase);
-        final ListIterator<RegisteredDeploymentUnitProcessor> iterator = list.listIterator();
         final ServiceContainer container = context.getController().getServiceContainer();
         final ServiceTarget serviceTarget = context.getChildTarget().subTarget();
         final String name = deploymentUnit.getName();
         final DeploymentUnit parent = deploymentUnit.getParent();
 
-        final List<DeploymentUnitPhaseDependency> dependencies = new LinkedList<>();
+        // Processors of a batch may add dependencies concurrently
+        final List<DeploymentUnitPhaseDependency> dependencies = Collections.synchronizedList(new LinkedList<>());
         final DeploymentPhaseContext processorContext = new DeploymentPhaseContextImpl(serviceTarget, new DelegatingServiceRegistry(container), dependencies, deploymentUnit, phase);
 
         // attach any injected values from the last phase
@@ -158,13 +163,23 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
             }
         }
 
-        while (iterator.hasNext()) {
-            final RegisteredDeploymentUnitProcessor processor = iterator.next();
+        final long startTime = System.nanoTime();
+        int processed = 0;
+        for (List<RegisteredDeploymentUnitProcessor> batch : chains.getBatches(phase)) {
+            processed += batch.size();
             try {
-                if (shouldRun(deploymentUnit, processor)) {
-                    processor.getProcessor().deploy(processorContext);
+                if (batch.size() > 1 && DeploymentWorkerPool.isEnabled()) {
+                    deployConcurrently(batch, processorContext);
+                } else {
+                    for (RegisteredDeploymentUnitProcessor processor : batch) {
+                        if (shouldRun(deploymentUnit, processor)) {
+                            processor.getProcessor().deploy(processorContext);
+                        }
+                    }
                 }
             } catch (Throwable e) {
+                // Undo the whole batch, as other processors of it may have completed
+                final ListIterator<RegisteredDeploymentUnitProcessor> iterator = list.listIterator(processed);
                 while (iterator.hasPrevious()) {
                     final RegisteredDeploymentUnitProcessor prev = iterator.previous();
                     safeUndeploy(deploymentUnit, phase, prev);
@@ -172,6 +187,7 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
                 throw ServerLogger.ROOT_LOGGER.deploymentPhaseFailed(phase, deploymentUnit, e);
             }
         }
+        recordProcessingTime(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
 
         final Phase nextPhase = phase.next();
         if (nextPhase != null) {
@@ -227,6 +243,17 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         }
     }
 
+    private void recordProcessingTime(final long millis) {
+        // The phases of a unit run one after the other, so only readers can race with the creation of the map
+        PhaseProcessingTimes times = deploymentUnit.getAttachment(Attachments.PHASE_PROCESSING_TIMES);
+        if (times == null) {
+            times = new PhaseProcessingTimes();
+            deploymentUnit.putAttachment(Attachments.PHASE_PROCESSING_TIMES, times);
+        }
+        times.record(phase, millis);
+        ServerLogger.DEPLOYMENT_LOGGER.debugf("Processed phase %s of %s in %d ms", phase, deploymentUnit, millis);
+    }
+
     private Boolean restartAllowed() {
         final DeploymentUnit parent;
         if (deploymentUnit.getParent() == null) {
@@ -318,6 +345,66 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         return initialMode;
     }
 
+    /**
+     * Runs a batch of {@link ConcurrentDeploymentUnitProcessor}s, the first one on the calling thread and the others on the
+     * shared {@link DeploymentWorkerPool}, and waits for all of them to complete.
+     */
+    private void deployConcurrently(final List<RegisteredDeploymentUnitProcessor> batch, final DeploymentPhaseContext processorContext) throws DeploymentUnitProcessingException {
+        final ClassLoader contextClassLoader = WildFlySecurityManager.getCurrentContextClassLoaderPrivileged();
+        final List<ForkJoinTask<Void>> tasks = new ArrayList<>(batch.size() - 1);
+        for (final RegisteredDeploymentUnitProcessor processor : batch.subList(1, batch.size())) {
+            if (shouldRun(deploymentUnit, processor)) {
+                tasks.add(DeploymentWorkerPool.getPool().submit(() -> {
+                    final ClassLoader old = WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(contextClassLoader);
+                    try {
+                        processor.getProcessor().deploy(processorContext);
+                    } finally {
+                        WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(old);
+                    }
+                    return null;
+                }));
+            }
+        }
+        Throwable failure = null;
+        final RegisteredDeploymentUnitProcessor first = batch.get(0);
+        try {
+            if (shouldRun(deploymentUnit, first)) {
+                first.getProcessor().deploy(processorContext);
+            }
+        } catch (Throwable t) {
+            failure = t;
+        }
+        // Always wait for the whole batch, so that nothing is still running when it gets undeployed
+        boolean interrupted = false;
+        for (ForkJoinTask<Void> task : tasks) {
+            while (true) {
+                try {
+                    task.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    }
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure instanceof DeploymentUnitProcessingException) {
+            throw (DeploymentUnitProcessingException) failure;
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw new DeploymentUnitProcessingException(failure);
+        }
+    }
+
     private static void safeUndeploy(final DeploymentUnit deploymentUnit, final Phase phase, final RegisteredDeploymentUnitProcessor prev) {
         try {
             if (shouldRun(deploymentUnit, prev)) {
@@ -0,0 +1,106 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import org.jboss.as.server.logging.ServerLogger;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * The pool shared by all deployments for work they split up to run concurrently, such as indexing resource roots or
+ * running {@link ConcurrentDeploymentUnitProcessor}s, so that deploying many of them at once does not oversubscribe
+ * the processors.
+ */
+public final class DeploymentWorkerPool {
+
+    /**
+     * The system property setting the number of threads of the pool. It defaults to the number of available processors;
+     * a value of 1 does all deployment work on the deployment threads.
+     */
+    public static final String THREADS_PROPERTY = "org.jboss.as.server.deployment.worker-threads";
+
+    /**
+     * The name {@link #THREADS_PROPERTY} had when the pool was only used for indexing, still read if it is not set.
+     */
+    @Deprecated
+    public static final String LEGACY_THREADS_PROPERTY = "org.jboss.as.server.deployment.annotation.index-threads";
+
+    private static final int THREADS = getThreads();
+
+    private DeploymentWorkerPool() {
+    }
+
+    /**
+     * Gets whether deployment work may be split up to run concurrently.
+     *
+     * @return {@code false} if the pool is configured with a single thread
+     */
+    public static boolean isEnabled() {
+        return THREADS > 1;
+    }
+
+    /**
+     * Gets the pool. Tasks run with the class loader of the server as their thread context class loader.
+     *
+     * @return the pool
+     */
+    public static ForkJoinPool getPool() {
+        return Holder.INSTANCE;
+    }
+
+    private static int getThreads() {
+        final int defaultThreads = Runtime.getRuntime().availableProcessors();
+        String property = THREADS_PROPERTY;
+        String value = WildFlySecurityManager.getPropertyPrivileged(property, null);
+        if (value == null) {
+            property = LEGACY_THREADS_PROPERTY;
+            value = WildFlySecurityManager.getPropertyPrivileged(property, null);
+        }
+        if (value == null) {
+            return defaultThreads;
+        }
+        try {
+            final int threads = Integer.parseInt(value.trim());
+            if (threads > 0) {
+                return threads;
+            }
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+        ServerLogger.ROOT_LOGGER.invalidThreadCount(value, property, defaultThreads);
+        return defaultThreads;
+    }
+
+    private static final class Holder {
+
+        static final ForkJoinPool INSTANCE = new ForkJoinPool(THREADS, pool -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("deployment-worker-" + thread.getPoolIndex());
+            // Don't pin the class loader of whichever deployment happened to start the thread
+            thread.setContextClassLoader(DeploymentWorkerPool.class.getClassLoader());
+            return thread;
+        }, null, false);
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The time in milliseconds that the processors of each completed phase took for a deployment unit.
+ */
+public final class PhaseProcessingTimes {
+
+    private final Map<Phase, Long> times = new EnumMap<>(Phase.class);
+
+    /**
+     * Records the time the processors of a phase took.
+     *
+     * @param phase the phase
+     * @param millis the time in milliseconds
+     */
+    public synchronized void record(final Phase phase, final long millis) {
+        times.put(phase, millis);
+    }
+
+    /**
+     * @return a snapshot of the times recorded so far, in phase order
+     */
+    public synchronized Map<Phase, Long> getTimes() {
+        return times.isEmpty() ? new EnumMap<>(Phase.class) : new EnumMap<>(times);
+    }
+}
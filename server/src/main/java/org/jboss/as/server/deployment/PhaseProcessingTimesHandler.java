@@ -0,0 +1,75 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBDEPLOYMENT;
+import static org.jboss.as.server.controller.resources.DeploymentAttributes.RUNTIME_NAME;
+
+import java.util.Map;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+
+/**
+ * Reads the {@link PhaseProcessingTimes} of the deployment unit of a deployment or sub-deployment resource. The result
+ * is undefined if the unit is not deployed.
+ */
+public class PhaseProcessingTimesHandler implements OperationStepHandler {
+
+    public static final OperationStepHandler INSTANCE = new PhaseProcessingTimesHandler();
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final PathAddress address = context.getCurrentAddress();
+        final ServiceName serviceName;
+        if (SUBDEPLOYMENT.equals(address.getLastElement().getKey())) {
+            final ModelNode deployment = context.readResourceFromRoot(address.getParent(), false).getModel();
+            final String runtimeName = RUNTIME_NAME.resolveModelAttribute(context, deployment).asString();
+            serviceName = Services.deploymentUnitName(runtimeName, address.getLastElement().getValue());
+        } else {
+            final ModelNode deployment = context.readResource(PathAddress.EMPTY_ADDRESS, false).getModel();
+            serviceName = Services.deploymentUnitName(RUNTIME_NAME.resolveModelAttribute(context, deployment).asString());
+        }
+        context.addStep(new OperationStepHandler() {
+            @Override
+            public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+                final ServiceController<?> controller = context.getServiceRegistry(false).getService(serviceName);
+                if (controller != null) {
+                    final DeploymentUnit deploymentUnit = ((AbstractDeploymentUnitService) controller.getService()).getValue();
+                    final PhaseProcessingTimes times = deploymentUnit == null ? null : deploymentUnit.getAttachment(Attachments.PHASE_PROCESSING_TIMES);
+                    if (times != null) {
+                        final ModelNode result = context.getResult();
+                        for (Map.Entry<Phase, Long> entry : times.getTimes().entrySet()) {
+                            result.get(entry.getKey().name()).set(entry.getValue());
+                        }
+                    }
+                }
+            }
+        }, OperationContext.Stage.RUNTIME);
+    }
+}
@@ -22,12 +22,16 @@
 
 package org.jboss.as.server.deployment;
 
+import java.io.File;
+
 import org.jboss.as.controller.ServiceVerificationHandler;
 import org.jboss.as.controller.capability.CapabilityServiceSupport;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.controller.services.path.PathManager;
+import org.jboss.as.server.ServerEnvironment;
+import org.jboss.as.server.deployment.annotation.AnnotationIndexCache;
 import org.jboss.as.server.deploymentoverlay.DeploymentOverlayIndex;
 import org.jboss.as.server.services.security.AbstractVaultReader;
 import org.jboss.msc.inject.Injector;
@@ -49,6 +53,7 @@ final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
     private final DeploymentUnit parent;
     private final DeploymentOverlayIndex deploymentOverlays;
     private final boolean isExplodedContent;
+    private final byte[] contentHash;
 
     /**
      * Construct a new instance.
@@ -62,11 +67,13 @@ final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
      * @param vaultReader the vault reader
      * @param deploymentOverlays the deployment overlays
      * @param exploded the deployment has been exploded
+     * @param contentHash the hash of the managed archive content, or {@code null} if the content is not a managed archive
      */
     public RootDeploymentUnitService(final String name, final String managementName, final DeploymentUnit parent,
                                      final ImmutableManagementResourceRegistration registration, final ManagementResourceRegistration mutableRegistration,
                                      final Resource resource, final CapabilityServiceSupport capabilityServiceSupport,
-                                     final AbstractVaultReader vaultReader, DeploymentOverlayIndex deploymentOverlays, boolean exploded) {
+                                     final AbstractVaultReader vaultReader, DeploymentOverlayIndex deploymentOverlays, boolean exploded,
+                                     final byte[] contentHash) {
         super(registration, mutableRegistration, resource, capabilityServiceSupport, vaultReader);
         assert name != null : "name is null";
         this.name = name;
@@ -74,6 +81,7 @@ final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
         this.parent = parent;
         this.deploymentOverlays = deploymentOverlays;
         this.isExplodedContent = exploded;
+        this.contentHash = contentHash;
     }
 
     protected DeploymentUnit createAndInitializeDeploymentUnit(final ServiceRegistry registry) {
@@ -89,6 +97,12 @@ final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
         deploymentUnit.putAttachment(Attachments.VAULT_READER_ATTACHMENT_KEY, vaultReader);
         deploymentUnit.putAttachment(Attachments.DEPLOYMENT_OVERLAY_INDEX, deploymentOverlays);
         deploymentUnit.putAttachment(Attachments.PATH_MANAGER, pathManagerInjector.getValue());
+        // Overlays change the contents of the resource roots, so they can no longer be identified by the hash alone
+        if (contentHash != null && (deploymentOverlays == null || deploymentOverlays.getOverlays(name).isEmpty())) {
+            deploymentUnit.putAttachment(Attachments.DEPLOYMENT_CONTENT_HASH, contentHash);
+            final String dataDir = pathManagerInjector.getValue().getPathEntry(ServerEnvironment.SERVER_DATA_DIR).resolvePath();
+            deploymentUnit.putAttachment(Attachments.ANNOTATION_INDEX_CACHE, new AnnotationIndexCache(new File(dataDir)));
+        }
         if(this.isExplodedContent) {
             MountExplodedMarker.setMountExploded(deploymentUnit);
         }
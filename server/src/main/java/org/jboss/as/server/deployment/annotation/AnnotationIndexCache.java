@@ -0,0 +1,207 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.repository.ContentRepository;
+import org.jboss.as.repository.PathUtil;
+import org.jboss.as.server.logging.ServerLogger;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+import org.jboss.jandex.IndexWriter;
+
+/**
+ * Persistent cache of the annotation indexes generated for the resource roots of managed deployments.
+ * <p>
+ * Managed archive content never changes once it is in the content repository, so an index computed for a resource root
+ * remains valid for as long as the content is there. Entries are stored under a directory named after the content hash,
+ * keyed by the version of Jandex, the path of the resource root within the deployment and the index-ignore paths that
+ * applied to it. Entries for content that has left the repository are removed by
+ * {@link #removeObsoleteIndexes(ContentRepository)}.
+ */
+public final class AnnotationIndexCache {
+
+    /**
+     * The name of the cache directory within the server data directory.
+     */
+    public static final String DIRECTORY_NAME = "annotation-index";
+
+    private static final String INDEX_SUFFIX = ".idx";
+
+    /**
+     * The version of Jandex that writes the entries. An upgrade may change what the indexer records, so entries written
+     * by another version are not used.
+     */
+    private static final String JANDEX_VERSION = getJandexVersion();
+
+    private final Path root;
+
+    public AnnotationIndexCache(final File dataDir) {
+        this.root = dataDir.toPath().resolve(DIRECTORY_NAME);
+    }
+
+    /**
+     * Reads the cached index of a resource root.
+     *
+     * @param contentHash the hash of the deployment content
+     * @param path the path of the resource root relative to the deployment root
+     * @param indexIgnorePaths the paths excluded from the index, or {@code null}
+     * @return the index, or {@code null} if none is cached or it could not be read
+     */
+    Index getIndex(final byte[] contentHash, final String path, final Collection<String> indexIgnorePaths) {
+        final Path indexFile = getIndexFile(contentHash, path, indexIgnorePaths);
+        if (!Files.isRegularFile(indexFile)) {
+            return null;
+        }
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(indexFile))) {
+            return new IndexReader(in).read();
+        } catch (IOException | RuntimeException e) {
+            // Unreadable entries (e.g. from an older Jandex) are simply regenerated
+            ServerLogger.DEPLOYMENT_LOGGER.debugf(e, "Discarding cached annotation index %s", indexFile);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the index of a resource root. Failures are logged and otherwise ignored, as the cache is only an optimization.
+     *
+     * @param contentHash the hash of the deployment content
+     * @param path the path of the resource root relative to the deployment root
+     * @param indexIgnorePaths the paths excluded from the index, or {@code null}
+     * @param index the index to store
+     */
+    void putIndex(final byte[] contentHash, final String path, final Collection<String> indexIgnorePaths, final Index index) {
+        final Path indexFile = getIndexFile(contentHash, path, indexIgnorePaths);
+        Path tmp = null;
+        try {
+            Files.createDirectories(indexFile.getParent());
+            tmp = Files.createTempFile(indexFile.getParent(), indexFile.getFileName().toString(), ".tmp");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+                new IndexWriter(out).write(index);
+            }
+            try {
+                Files.move(tmp, indexFile, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            tmp = null;
+        } catch (IOException e) {
+            ServerLogger.DEPLOYMENT_LOGGER.cannotCacheAnnotationIndex(path, e);
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignore) {
+                    // nothing more we can do
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the cached indexes of all content that is no longer in the content repository.
+     *
+     * @param contentRepository the content repository
+     * @return the hashes of the content whose indexes were removed
+     */
+    public Set<String> removeObsoleteIndexes(final ContentRepository contentRepository) {
+        final Set<String> removed = new HashSet<>();
+        if (!Files.isDirectory(root)) {
+            return removed;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(root)) {
+            for (Path dir : stream) {
+                final String hash = dir.getFileName().toString();
+                if (isHexHash(hash) && contentRepository.hasContent(HashUtil.hexStringToByteArray(hash))) {
+                    continue;
+                }
+                try {
+                    PathUtil.deleteRecursively(dir);
+                    removed.add(hash);
+                } catch (IOException e) {
+                    ServerLogger.DEPLOYMENT_LOGGER.debugf(e, "Could not remove cached annotation indexes %s", dir);
+                }
+            }
+        } catch (IOException e) {
+            ServerLogger.DEPLOYMENT_LOGGER.debugf(e, "Could not list cached annotation indexes in %s", root);
+        }
+        return removed;
+    }
+
+    private Path getIndexFile(final byte[] contentHash, final String path, final Collection<String> indexIgnorePaths) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(JANDEX_VERSION.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(path.getBytes(StandardCharsets.UTF_8));
+        if (indexIgnorePaths != null) {
+            // Sorted so the key does not depend on the order the paths were declared in
+            for (String ignored : new TreeSet<>(indexIgnorePaths)) {
+                digest.update((byte) 0);
+                digest.update(ignored.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return root.resolve(HashUtil.bytesToHexString(contentHash)).resolve(HashUtil.bytesToHexString(digest.digest()) + INDEX_SUFFIX);
+    }
+
+    private static String getJandexVersion() {
+        final Package jandex = Index.class.getPackage();
+        final String version = jandex == null ? null : jandex.getImplementationVersion();
+        return version == null ? "unknown" : version;
+    }
+
+    private static boolean isHexHash(final String name) {
+        if (name.isEmpty() || name.length() % 2 != 0) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (Character.digit(name.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
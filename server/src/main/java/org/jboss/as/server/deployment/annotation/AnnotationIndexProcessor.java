@@ -22,12 +22,19 @@
 
 package org.jboss.as.server.deployment.annotation;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinTask;
+
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentUtils;
+import org.jboss.as.server.deployment.DeploymentWorkerPool;
 import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.jboss.as.server.logging.ServerLogger;
 
 /**
  * Deployment unit processor responsible for creating and attaching an annotation index for a resource root
@@ -47,8 +54,43 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
      */
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
-        for (ResourceRoot resourceRoot : DeploymentUtils.allResourceRoots(deploymentUnit)) {
-            ResourceRootIndexer.indexResourceRoot(resourceRoot);
+        final List<ResourceRoot> resourceRoots = DeploymentUtils.allResourceRoots(deploymentUnit);
+        if (!DeploymentWorkerPool.isEnabled() || resourceRoots.size() < 2) {
+            for (ResourceRoot resourceRoot : resourceRoots) {
+                ResourceRootIndexer.indexResourceRoot(resourceRoot, deploymentUnit);
+            }
+            return;
+        }
+
+        // Each resource root gets its own index, so indexing them concurrently produces the same indexes as doing it serially
+        final List<ForkJoinTask<Void>> tasks = new ArrayList<>(resourceRoots.size());
+        for (final ResourceRoot resourceRoot : resourceRoots) {
+            tasks.add(DeploymentWorkerPool.getPool().submit(() -> {
+                ResourceRootIndexer.indexResourceRoot(resourceRoot, deploymentUnit);
+                return null;
+            }));
+        }
+        DeploymentUnitProcessingException failure = null;
+        for (ForkJoinTask<Void> task : tasks) {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                for (ForkJoinTask<Void> other : tasks) {
+                    other.cancel(false);
+                }
+                throw ServerLogger.ROOT_LOGGER.deploymentIndexingFailed(e);
+            } catch (ExecutionException e) {
+                // Wait for the remaining roots so that nothing is still indexing once the deployment fails
+                if (failure == null) {
+                    failure = e.getCause() instanceof DeploymentUnitProcessingException
+                            ? (DeploymentUnitProcessingException) e.getCause()
+                            : ServerLogger.ROOT_LOGGER.deploymentIndexingFailed(e.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
         }
     }
 
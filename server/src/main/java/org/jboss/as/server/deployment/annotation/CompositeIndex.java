@@ -35,30 +35,47 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
 
 /**
  * Composite annotation index.  Represents an annotation index for an entire deployment.
+ * <p/>
+ * The underlying indexes never change, so the merged results of the lookups are computed once per name and reused by
+ * every subsequent call, including the transitive subclass and implementor closures.
  *
  * @author John Bailey
  */
 public class CompositeIndex {
     final Collection<Index> indexes;
 
+    private final ConcurrentMap<DotName, List<AnnotationInstance>> annotations = new ConcurrentHashMap<DotName, List<AnnotationInstance>>();
+    private final ConcurrentMap<DotName, Set<ClassInfo>> directSubclasses = new ConcurrentHashMap<DotName, Set<ClassInfo>>();
+    private final ConcurrentMap<DotName, Set<ClassInfo>> directImplementors = new ConcurrentHashMap<DotName, Set<ClassInfo>>();
+    private final ConcurrentMap<DotName, Set<ClassInfo>> allSubclasses = new ConcurrentHashMap<DotName, Set<ClassInfo>>();
+    private final ConcurrentMap<DotName, Set<ClassInfo>> allImplementors = new ConcurrentHashMap<DotName, Set<ClassInfo>>();
+
     public CompositeIndex(final Collection<Index> indexes) {
-        this.indexes = indexes;
+        this.indexes = Collections.unmodifiableList(new ArrayList<Index>(indexes));
     }
 
     public CompositeIndex(final CompositeIndex... indexes) {
-        this.indexes = new ArrayList<Index>();
+        final List<Index> all = new ArrayList<Index>();
         for(CompositeIndex index : indexes) {
-            this.indexes.addAll(index.indexes);
+            all.addAll(index.indexes);
         }
+        this.indexes = Collections.unmodifiableList(all);
     }
 
     /**
      * @see {@link Index#getAnnotations(org.jboss.jandex.DotName)}
      */
     public List<AnnotationInstance> getAnnotations(final DotName annotationName) {
+        return lookup(annotations, annotationName, this::mergeAnnotations);
+    }
+
+    private List<AnnotationInstance> mergeAnnotations(final DotName annotationName) {
         final List<AnnotationInstance> allInstances = new ArrayList<AnnotationInstance>();
         for (Index index : indexes) {
             final List<AnnotationInstance> list = index.getAnnotations(annotationName);
@@ -73,6 +90,10 @@ public class CompositeIndex {
      * @see {@link Index#getKnownDirectSubclasses(org.jboss.jandex.DotName)}
      */
     public Set<ClassInfo> getKnownDirectSubclasses(final DotName className) {
+        return lookup(directSubclasses, className, this::mergeKnownDirectSubclasses);
+    }
+
+    private Set<ClassInfo> mergeKnownDirectSubclasses(final DotName className) {
         final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
         for (Index index : indexes) {
             final List<ClassInfo> list = index.getKnownDirectSubclasses(className);
@@ -91,10 +112,15 @@ public class CompositeIndex {
      * @return All known subclasses
      */
     public Set<ClassInfo> getAllKnownSubclasses(final DotName className) {
+        // Callers have always been handed a set of their own
+        return new HashSet<ClassInfo>(lookup(allSubclasses, className, this::computeAllKnownSubclasses));
+    }
+
+    private Set<ClassInfo> computeAllKnownSubclasses(final DotName className) {
         final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
         final Set<DotName> processedClasses = new HashSet<DotName>();
         getAllKnownSubClasses(className, allKnown, processedClasses);
-        return allKnown;
+        return Collections.unmodifiableSet(allKnown);
     }
 
     private void getAllKnownSubClasses(DotName className, Set<ClassInfo> allKnown, Set<DotName> processedClasses) {
@@ -111,16 +137,11 @@ public class CompositeIndex {
 
     private void getAllKnownSubClasses(DotName name, Set<ClassInfo> allKnown, Set<DotName> subClassesToProcess,
             Set<DotName> processedClasses) {
-        for (Index index : indexes) {
-            final List<ClassInfo> list = index.getKnownDirectSubclasses(name);
-            if (list != null) {
-                for (final ClassInfo clazz : list) {
-                    final DotName className = clazz.name();
-                    if (!processedClasses.contains(className)) {
-                        allKnown.add(clazz);
-                        subClassesToProcess.add(className);
-                    }
-                }
+        for (final ClassInfo clazz : getKnownDirectSubclasses(name)) {
+            final DotName className = clazz.name();
+            if (!processedClasses.contains(className)) {
+                allKnown.add(clazz);
+                subClassesToProcess.add(className);
             }
         }
     }
@@ -129,6 +150,10 @@ public class CompositeIndex {
      * @see {@link Index#getKnownDirectImplementors(DotName)}
      */
     public Set<ClassInfo> getKnownDirectImplementors(final DotName className) {
+        return lookup(directImplementors, className, this::mergeKnownDirectImplementors);
+    }
+
+    private Set<ClassInfo> mergeKnownDirectImplementors(final DotName className) {
         final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
         for (Index index : indexes) {
             final List<ClassInfo> list = index.getKnownDirectImplementors(className);
@@ -150,6 +175,11 @@ public class CompositeIndex {
      * @return All known implementors of the interface
      */
     public Set<ClassInfo> getAllKnownImplementors(final DotName interfaceName) {
+        // Callers have always been handed a set of their own
+        return new HashSet<ClassInfo>(lookup(allImplementors, interfaceName, this::computeAllKnownImplementors));
+    }
+
+    private Set<ClassInfo> computeAllKnownImplementors(final DotName interfaceName) {
         final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
         final Set<DotName> subInterfacesToProcess = new HashSet<DotName>();
         final Set<DotName> processedClasses = new HashSet<DotName>();
@@ -161,26 +191,21 @@ public class CompositeIndex {
             processedClasses.add(name);
             getKnownImplementors(name, allKnown, subInterfacesToProcess, processedClasses);
         }
-        return allKnown;
+        return Collections.unmodifiableSet(allKnown);
     }
 
     private void getKnownImplementors(DotName name, Set<ClassInfo> allKnown, Set<DotName> subInterfacesToProcess,
             Set<DotName> processedClasses) {
-        for (Index index : indexes) {
-            final List<ClassInfo> list = index.getKnownDirectImplementors(name);
-            if (list != null) {
-                for (final ClassInfo clazz : list) {
-                    final DotName className = clazz.name();
-                    if (!processedClasses.contains(className)) {
-                        if (Modifier.isInterface(clazz.flags())) {
-                            subInterfacesToProcess.add(className);
-                        } else {
-                            if (!allKnown.contains(clazz)) {
-                                allKnown.add(clazz);
-                                processedClasses.add(className);
-                                getAllKnownSubClasses(className, allKnown, processedClasses);
-                            }
-                        }
+        for (final ClassInfo clazz : getKnownDirectImplementors(name)) {
+            final DotName className = clazz.name();
+            if (!processedClasses.contains(className)) {
+                if (Modifier.isInterface(clazz.flags())) {
+                    subInterfacesToProcess.add(className);
+                } else {
+                    if (!allKnown.contains(clazz)) {
+                        allKnown.add(clazz);
+                        processedClasses.add(className);
+                        getAllKnownSubClasses(className, allKnown, processedClasses);
                     }
                 }
             }
@@ -217,4 +242,20 @@ public class CompositeIndex {
     public Collection<Index> getIndexes() {
         return Collections.unmodifiableCollection(indexes);
     }
+
+    private static <T> T lookup(final ConcurrentMap<DotName, T> cache, final DotName name, final Function<DotName, T> function) {
+        if (name == null) {
+            return function.apply(null);
+        }
+        // Not computeIfAbsent, as the closures look up other names while they are being computed
+        T result = cache.get(name);
+        if (result == null) {
+            result = function.apply(name);
+            final T existing = cache.putIfAbsent(name, result);
+            if (existing != null) {
+                result = existing;
+            }
+        }
+        return result;
+    }
 }
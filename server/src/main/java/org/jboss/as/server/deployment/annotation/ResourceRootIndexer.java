@@ -29,7 +29,9 @@ import java.util.Set;
 
 import org.jboss.as.server.logging.ServerLogger;
 import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
+import org.jboss.as.server.deployment.DeploymentUtils;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.as.server.moduleservice.ModuleIndexBuilder;
 import org.jboss.jandex.Index;
@@ -50,6 +52,17 @@ public class ResourceRootIndexer {
      * Creates and attaches the annotation index to a resource root, if it has not already been attached
      */
     public static void indexResourceRoot(final ResourceRoot resourceRoot) throws DeploymentUnitProcessingException {
+        indexResourceRoot(resourceRoot, null);
+    }
+
+    /**
+     * Creates and attaches the annotation index to a resource root, if it has not already been attached. If the deployment
+     * content is a managed archive, the index is read from or stored in the persistent {@link AnnotationIndexCache}.
+     *
+     * @param resourceRoot the resource root
+     * @param deploymentUnit the deployment unit the resource root belongs to, or {@code null} to bypass the cache
+     */
+    public static void indexResourceRoot(final ResourceRoot resourceRoot, final DeploymentUnit deploymentUnit) throws DeploymentUnitProcessingException {
         if (resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX) != null) {
             return;
         }
@@ -81,6 +94,20 @@ public class ResourceRootIndexer {
         }
 
         final VirtualFile virtualFile = resourceRoot.getRoot();
+
+        final DeploymentUnit topDeploymentUnit = deploymentUnit == null ? null : DeploymentUtils.getTopDeploymentUnit(deploymentUnit);
+        final AnnotationIndexCache cache = topDeploymentUnit == null ? null : topDeploymentUnit.getAttachment(Attachments.ANNOTATION_INDEX_CACHE);
+        final byte[] contentHash = cache == null ? null : topDeploymentUnit.getAttachment(Attachments.DEPLOYMENT_CONTENT_HASH);
+        final String cachePath = contentHash == null ? null : getCachePath(topDeploymentUnit, virtualFile);
+        if (cachePath != null) {
+            final Index index = cache.getIndex(contentHash, cachePath, indexIgnorePaths);
+            if (index != null) {
+                resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
+                ServerLogger.DEPLOYMENT_LOGGER.tracef("Found cached index for archive %s", virtualFile);
+                return;
+            }
+        }
+
         final Indexer indexer = new Indexer();
         try {
             final VisitorAttributes visitorAttributes = new VisitorAttributes();
@@ -106,8 +133,30 @@ public class ResourceRootIndexer {
             final Index index = indexer.complete();
             resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
             ServerLogger.DEPLOYMENT_LOGGER.tracef("Generated index for archive %s", virtualFile);
+            if (cachePath != null) {
+                cache.putIndex(contentHash, cachePath, indexIgnorePaths, index);
+            }
         } catch (Throwable t) {
             throw ServerLogger.ROOT_LOGGER.deploymentIndexingFailed(t);
         }
     }
+
+    /**
+     * Returns the path of the resource root relative to the root of the top-level deployment, or {@code null} if it is not
+     * part of the deployment content.
+     */
+    private static String getCachePath(final DeploymentUnit topDeploymentUnit, final VirtualFile virtualFile) {
+        final ResourceRoot deploymentRoot = topDeploymentUnit.getAttachment(Attachments.DEPLOYMENT_ROOT);
+        if (deploymentRoot == null) {
+            return null;
+        }
+        if (virtualFile.equals(deploymentRoot.getRoot())) {
+            return "";
+        }
+        try {
+            return virtualFile.getPathNameRelativeTo(deploymentRoot.getRoot());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
 }
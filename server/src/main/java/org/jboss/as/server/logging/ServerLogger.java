@@ -1267,6 +1267,14 @@ public interface ServerLogger extends BasicLogger {
     @Message(id = 264, value = "Cannot specify both admin-only and start-mode")
     OperationFailedException cannotSpecifyBothAdminOnlyAndStartMode();
 
+    @LogMessage(level = WARN)
+    @Message(id = 265, value = "Could not store the annotation index of %s in the index cache")
+    void cannotCacheAnnotationIndex(String resourceRoot, @Cause Throwable cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 266, value = "Invalid value '%s' for system property %s; using %d")
+    void invalidThreadCount(String value, String property, int defaultValue);
+
     ////////////////////////////////////////////////
     //Messages without IDs
 
@@ -34,6 +34,8 @@ import org.jboss.as.controller.SimpleOperationDefinition;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.repository.ContentRepository;
 import org.jboss.as.server.controller.descriptions.ServerDescriptions;
+import org.jboss.as.server.deployment.annotation.AnnotationIndexCache;
+import org.jboss.as.server.logging.ServerLogger;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
@@ -61,13 +63,22 @@ public class CleanObsoleteContentHandler implements OperationStepHandler {
                 .build();
 
     private final ContentRepository contentRepository;
+    private final AnnotationIndexCache annotationIndexCache;
 
     public static CleanObsoleteContentHandler createOperation(final ContentRepository contentRepository) {
-        return new CleanObsoleteContentHandler(contentRepository);
+        return new CleanObsoleteContentHandler(contentRepository, null);
     }
 
-    private CleanObsoleteContentHandler(final ContentRepository contentRepository) {
+    /**
+     * Creates the handler for a server, which also removes the cached annotation indexes of the obsolete contents.
+     */
+    public static CleanObsoleteContentHandler createOperation(final ContentRepository contentRepository, final AnnotationIndexCache annotationIndexCache) {
+        return new CleanObsoleteContentHandler(contentRepository, annotationIndexCache);
+    }
+
+    private CleanObsoleteContentHandler(final ContentRepository contentRepository, final AnnotationIndexCache annotationIndexCache) {
         this.contentRepository = contentRepository;
+        this.annotationIndexCache = annotationIndexCache;
     }
 
     @Override
@@ -84,6 +95,11 @@ public class CleanObsoleteContentHandler implements OperationStepHandler {
                 context.getResult().get(ContentRepository.DELETED_CONTENT).add(obsoleteContent);
             }
         }
+        if (annotationIndexCache != null) {
+            for (String hash : annotationIndexCache.removeObsoleteIndexes(contentRepository)) {
+                ServerLogger.ROOT_LOGGER.debugf("Removed cached annotation indexes of content %s", hash);
+            }
+        }
     }
 
 }
@@ -0,0 +1,126 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class DeployerChainsTestCase {
+
+    private static final AttachmentKey<String> A = AttachmentKey.create(String.class);
+    private static final AttachmentKey<String> B = AttachmentKey.create(String.class);
+    private static final AttachmentKey<String> C = AttachmentKey.create(String.class);
+
+    @Test
+    public void testUndeclaredProcessorsRunAlone() {
+        List<RegisteredDeploymentUnitProcessor> chain = Arrays.asList(serial(1), serial(2), serial(3));
+        assertEquals(Arrays.asList(1, 1, 1), sizes(DeployerChains.createBatches(chain)));
+    }
+
+    @Test
+    public void testIndependentProcessorsAreBatched() {
+        List<RegisteredDeploymentUnitProcessor> chain = Arrays.asList(
+                concurrent(1, keys(A), keys(B)),
+                concurrent(2, keys(A), keys(C)),
+                serial(3),
+                concurrent(4, keys(A), keys(B)),
+                concurrent(5, keys(C), keys()));
+        List<List<RegisteredDeploymentUnitProcessor>> batches = DeployerChains.createBatches(chain);
+        assertEquals(Arrays.asList(2, 1, 2), sizes(batches));
+        assertEquals(chain.get(0), batches.get(0).get(0));
+        assertEquals(chain.get(1), batches.get(0).get(1));
+    }
+
+    @Test
+    public void testConflictingProcessorsAreSplit() {
+        List<RegisteredDeploymentUnitProcessor> chain = Arrays.asList(
+                concurrent(1, keys(), keys(A)),
+                concurrent(2, keys(A), keys(B)), // reads what 1 writes
+                concurrent(3, keys(), keys(B)), // writes what 2 writes
+                concurrent(4, keys(C), keys()),
+                concurrent(5, keys(), keys(C))); // writes what 4 reads
+        assertEquals(Arrays.asList(1, 1, 2, 1), sizes(DeployerChains.createBatches(chain)));
+    }
+
+    @Test
+    public void testDisjointWritersAreBatched() {
+        List<RegisteredDeploymentUnitProcessor> chain = Arrays.asList(
+                concurrent(1, keys(), keys(A, B)),
+                concurrent(2, keys(), keys(C)),
+                serial(3));
+        assertEquals(Arrays.asList(2, 1), sizes(DeployerChains.createBatches(chain)));
+    }
+
+    private static RegisteredDeploymentUnitProcessor serial(int priority) {
+        return new RegisteredDeploymentUnitProcessor(priority, new DeploymentUnitProcessor() {
+            @Override
+            public void deploy(DeploymentPhaseContext phaseContext) {
+            }
+
+            @Override
+            public void undeploy(DeploymentUnit context) {
+            }
+        }, "test");
+    }
+
+    private static RegisteredDeploymentUnitProcessor concurrent(int priority, final Set<AttachmentKey<?>> reads, final Set<AttachmentKey<?>> writes) {
+        return new RegisteredDeploymentUnitProcessor(priority, new ConcurrentDeploymentUnitProcessor() {
+            @Override
+            public Set<AttachmentKey<?>> getReadAttachments() {
+                return reads;
+            }
+
+            @Override
+            public Set<AttachmentKey<?>> getWrittenAttachments() {
+                return writes;
+            }
+
+            @Override
+            public void deploy(DeploymentPhaseContext phaseContext) {
+            }
+
+            @Override
+            public void undeploy(DeploymentUnit context) {
+            }
+        }, "test");
+    }
+
+    private static Set<AttachmentKey<?>> keys(AttachmentKey<?>... keys) {
+        return keys.length == 0 ? Collections.<AttachmentKey<?>>emptySet() : new HashSet<AttachmentKey<?>>(Arrays.asList(keys));
+    }
+
+    private static List<Integer> sizes(List<List<RegisteredDeploymentUnitProcessor>> batches) {
+        Integer[] sizes = new Integer[batches.size()];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = batches.get(i).size();
+        }
+        return Arrays.asList(sizes);
+    }
+}
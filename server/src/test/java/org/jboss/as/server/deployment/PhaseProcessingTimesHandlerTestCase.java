@@ -0,0 +1,99 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUNTIME_NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBDEPLOYMENT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceRegistry;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+public class PhaseProcessingTimesHandlerTestCase {
+
+    private static final PathAddress SUBDEPLOYMENT_ADDRESS = PathAddress.pathAddress(DEPLOYMENT, "test.ear").append(SUBDEPLOYMENT, "web.war");
+
+    @Test
+    public void testSubDeploymentTimes() throws Exception {
+        PhaseProcessingTimes times = new PhaseProcessingTimes();
+        times.record(Phase.PARSE, 7);
+        times.record(Phase.STRUCTURE, 5);
+        DeploymentUnit deploymentUnit = Mockito.mock(DeploymentUnit.class);
+        Mockito.when(deploymentUnit.getAttachment(Attachments.PHASE_PROCESSING_TIMES)).thenReturn(times);
+
+        ModelNode result = readTimes(deploymentUnit);
+        List<String> phases = new ArrayList<>();
+        for (Property property : result.asPropertyList()) {
+            phases.add(property.getName());
+        }
+        // reported in phase order, not the order they were recorded in
+        assertEquals(Arrays.asList(Phase.STRUCTURE.name(), Phase.PARSE.name()), phases);
+        assertEquals(5, result.get(Phase.STRUCTURE.name()).asLong());
+        assertEquals(7, result.get(Phase.PARSE.name()).asLong());
+    }
+
+    @Test
+    public void testNotDeployed() throws Exception {
+        assertFalse(readTimes(null).isDefined());
+    }
+
+    private static ModelNode readTimes(DeploymentUnit deploymentUnit) throws Exception {
+        Resource deployment = Resource.Factory.create();
+        deployment.getModel().get(RUNTIME_NAME).set("test.ear");
+        OperationContext context = Mockito.mock(OperationContext.class);
+        Mockito.when(context.getCurrentAddress()).thenReturn(SUBDEPLOYMENT_ADDRESS);
+        Mockito.when(context.readResourceFromRoot(SUBDEPLOYMENT_ADDRESS.getParent(), false)).thenReturn(deployment);
+        Mockito.when(context.resolveExpressions(Mockito.any(ModelNode.class))).thenAnswer(invocation -> invocation.getArguments()[0]);
+
+        ModelNode result = new ModelNode();
+        AbstractDeploymentUnitService service = Mockito.mock(AbstractDeploymentUnitService.class);
+        Mockito.when(service.getValue()).thenReturn(deploymentUnit);
+        ServiceController<?> controller = Mockito.mock(ServiceController.class);
+        Mockito.doReturn(service).when(controller).getService();
+        ServiceRegistry registry = Mockito.mock(ServiceRegistry.class);
+        Mockito.doReturn(controller).when(registry).getService(Services.deploymentUnitName("test.ear", "web.war"));
+        Mockito.when(context.getServiceRegistry(false)).thenReturn(registry);
+        Mockito.when(context.getResult()).thenReturn(result);
+
+        PhaseProcessingTimesHandler.INSTANCE.execute(context, new ModelNode());
+        ArgumentCaptor<OperationStepHandler> step = ArgumentCaptor.forClass(OperationStepHandler.class);
+        Mockito.verify(context).addStep(step.capture(), Mockito.eq(OperationContext.Stage.RUNTIME));
+        step.getValue().execute(context, new ModelNode());
+        return result;
+    }
+}
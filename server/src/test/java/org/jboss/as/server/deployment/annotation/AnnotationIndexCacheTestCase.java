@@ -0,0 +1,128 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Set;
+
+import org.jboss.as.repository.ContentRepository;
+import org.jboss.as.repository.PathUtil;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AnnotationIndexCacheTestCase {
+
+    private static final byte[] HASH = new byte[] {0x01, 0x23, 0x45, 0x67, (byte) 0x89, (byte) 0xab, (byte) 0xcd, (byte) 0xef};
+
+    private File dataDir;
+    private AnnotationIndexCache cache;
+
+    @Before
+    public void createCache() throws IOException {
+        dataDir = Files.createTempDirectory("annotation-index-cache").toFile();
+        cache = new AnnotationIndexCache(dataDir);
+    }
+
+    @After
+    public void deleteCache() {
+        PathUtil.deleteSilentlyRecursively(dataDir.toPath());
+    }
+
+    @Test
+    public void testIndexIsCachedPerResourceRoot() throws IOException {
+        cache.putIndex(HASH, "lib/a.jar", null, createIndex());
+
+        Index index = cache.getIndex(HASH, "lib/a.jar", null);
+        assertNotNull(index);
+        assertNotNull(index.getClassByName(DotName.createSimple(AnnotationIndexCacheTestCase.class.getName())));
+
+        assertNull(cache.getIndex(HASH, "lib/b.jar", null));
+        assertNull(cache.getIndex(new byte[] {0x01}, "lib/a.jar", null));
+    }
+
+    @Test
+    public void testIndexIgnorePathsArePartOfTheKey() throws IOException {
+        cache.putIndex(HASH, "", Arrays.asList("a", "b"), createIndex());
+
+        assertNotNull(cache.getIndex(HASH, "", Arrays.asList("b", "a")));
+        assertNull(cache.getIndex(HASH, "", Arrays.asList("a")));
+        assertNull(cache.getIndex(HASH, "", null));
+    }
+
+    @Test
+    public void testUnreadableIndexIsIgnored() throws IOException {
+        cache.putIndex(HASH, "", null, createIndex());
+        File[] files = new File(new File(dataDir, AnnotationIndexCache.DIRECTORY_NAME), "0123456789abcdef").listFiles();
+        assertEquals(1, files.length);
+        Files.write(files[0].toPath(), new byte[] {1, 2, 3});
+
+        assertNull(cache.getIndex(HASH, "", null));
+    }
+
+    @Test
+    public void testObsoleteIndexesAreRemoved() throws IOException {
+        byte[] otherHash = new byte[] {0x76, 0x54};
+        cache.putIndex(HASH, "", null, createIndex());
+        cache.putIndex(otherHash, "", null, createIndex());
+
+        Set<String> removed = cache.removeObsoleteIndexes(createRepository(HASH));
+        assertEquals(1, removed.size());
+        assertTrue(removed.contains("7654"));
+        assertNotNull(cache.getIndex(HASH, "", null));
+        assertNull(cache.getIndex(otherHash, "", null));
+        assertFalse(new File(new File(dataDir, AnnotationIndexCache.DIRECTORY_NAME), "7654").exists());
+    }
+
+    private static Index createIndex() throws IOException {
+        Indexer indexer = new Indexer();
+        try (InputStream in = AnnotationIndexCacheTestCase.class.getResourceAsStream(AnnotationIndexCacheTestCase.class.getSimpleName() + ".class")) {
+            indexer.index(in);
+        }
+        return indexer.complete();
+    }
+
+    private static ContentRepository createRepository(final byte[] existingHash) {
+        return (ContentRepository) Proxy.newProxyInstance(ContentRepository.class.getClassLoader(), new Class<?>[] {ContentRepository.class},
+                (proxy, method, args) -> {
+                    if ("hasContent".equals(method.getName())) {
+                        return Arrays.equals(existingHash, (byte[]) args[0]);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
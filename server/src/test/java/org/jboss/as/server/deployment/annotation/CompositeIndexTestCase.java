@@ -0,0 +1,116 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2017, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+import org.junit.Test;
+
+public class CompositeIndexTestCase {
+
+    interface Service {
+    }
+
+    interface ExtendedService extends Service {
+    }
+
+    static class BaseService implements Service {
+    }
+
+    static class SpecialService extends BaseService {
+    }
+
+    static class ExtendedServiceImpl implements ExtendedService {
+    }
+
+    static class Unrelated {
+    }
+
+    @Test
+    public void testClosuresSpanIndexes() throws IOException {
+        // Spread the hierarchy over several indexes, as it would be over the resource roots of a deployment
+        CompositeIndex index = new CompositeIndex(Arrays.asList(
+                createIndex(Service.class, BaseService.class),
+                createIndex(ExtendedService.class, SpecialService.class),
+                createIndex(ExtendedServiceImpl.class, Unrelated.class)));
+
+        assertEquals(names(BaseService.class, SpecialService.class, ExtendedServiceImpl.class),
+                names(index.getAllKnownImplementors(DotName.createSimple(Service.class.getName()))));
+        assertEquals(names(SpecialService.class),
+                names(index.getAllKnownSubclasses(DotName.createSimple(BaseService.class.getName()))));
+        assertEquals(names(BaseService.class, ExtendedService.class),
+                names(index.getKnownDirectImplementors(DotName.createSimple(Service.class.getName()))));
+    }
+
+    @Test
+    public void testRepeatedLookupsReturnIndependentSets() throws IOException {
+        CompositeIndex index = new CompositeIndex(Arrays.asList(createIndex(Service.class, BaseService.class, SpecialService.class)));
+        DotName service = DotName.createSimple(Service.class.getName());
+
+        Set<ClassInfo> first = index.getAllKnownImplementors(service);
+        first.clear();
+        Set<ClassInfo> second = index.getAllKnownImplementors(service);
+        assertNotSame(first, second);
+        assertEquals(names(BaseService.class, SpecialService.class), names(second));
+        assertTrue(index.getAllKnownSubclasses(DotName.createSimple(SpecialService.class.getName())).isEmpty());
+    }
+
+    private static Index createIndex(Class<?>... classes) throws IOException {
+        Indexer indexer = new Indexer();
+        for (Class<?> clazz : classes) {
+            String resource = clazz.getName().substring(clazz.getPackage().getName().length() + 1) + ".class";
+            try (InputStream in = clazz.getResourceAsStream(resource)) {
+                indexer.index(in);
+            }
+        }
+        return indexer.complete();
+    }
+
+    private static Set<String> names(Class<?>... classes) {
+        Set<String> names = new HashSet<>();
+        for (Class<?> clazz : classes) {
+            names.add(clazz.getName());
+        }
+        return names;
+    }
+
+    private static Set<String> names(Set<ClassInfo> classes) {
+        Set<String> names = new HashSet<>();
+        for (ClassInfo clazz : classes) {
+            names.add(clazz.name().toString());
+        }
+        return names;
+    }
+}